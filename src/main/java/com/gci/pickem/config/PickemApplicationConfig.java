@@ -3,6 +3,7 @@ package com.gci.pickem.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
@@ -16,7 +17,8 @@ public class PickemApplicationConfig {
         return Executors.newCachedThreadPool();
     }
 
-    @Bean
+    // Also registered as "taskExecutor" so @Async still picks this pool now that the task scheduler is a TaskExecutor too.
+    @Bean(name = {"asyncExecutor", "taskExecutor"})
     public Executor asyncExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 
@@ -28,4 +30,14 @@ public class PickemApplicationConfig {
 
         return executor;
     }
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("TaskScheduler-");
+
+        return scheduler;
+    }
 }
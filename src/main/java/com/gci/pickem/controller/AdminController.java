@@ -0,0 +1,96 @@
+package com.gci.pickem.controller;
+
+import com.gci.pickem.job.ScorePollScheduler;
+import com.gci.pickem.model.CacheStatsView;
+import com.gci.pickem.model.ScheduleImportResult;
+import com.gci.pickem.model.ScorePollPlan;
+import com.gci.pickem.service.event.GameEventConsumerStats;
+import com.gci.pickem.service.event.GameEventService;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsBudget;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsBudgetStats;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsService;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsStats;
+import com.gci.pickem.service.schedule.ScheduleImportService;
+import com.gci.pickem.service.schedule.WeekScheduleCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+public class AdminController {
+    private static final Logger log = LoggerFactory.getLogger(AdminController.class);
+
+    private GameEventService gameEventService;
+    private ScorePollScheduler scorePollScheduler;
+    private MySportsFeedsService mySportsFeedsService;
+    private ScheduleImportService scheduleImportService;
+    private WeekScheduleCache weekScheduleCache;
+    private MySportsFeedsBudget mySportsFeedsBudget;
+
+    @Autowired
+    AdminController(
+        GameEventService gameEventService,
+        ScorePollScheduler scorePollScheduler,
+        MySportsFeedsService mySportsFeedsService,
+        ScheduleImportService scheduleImportService,
+        WeekScheduleCache weekScheduleCache,
+        MySportsFeedsBudget mySportsFeedsBudget
+    ) {
+        this.gameEventService = gameEventService;
+        this.scorePollScheduler = scorePollScheduler;
+        this.mySportsFeedsService = mySportsFeedsService;
+        this.scheduleImportService = scheduleImportService;
+        this.weekScheduleCache = weekScheduleCache;
+        this.mySportsFeedsBudget = mySportsFeedsBudget;
+    }
+
+    @GetMapping("/api/v1/admin/events")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public List<GameEventConsumerStats> getGameEventConsumerStats() {
+        return gameEventService.getConsumerStats();
+    }
+
+    @GetMapping("/api/v1/admin/score-poll")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ScorePollPlan getScorePollPlan() {
+        return scorePollScheduler.getCurrentPlan();
+    }
+
+    @GetMapping("/api/v1/admin/mysportsfeeds")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public MySportsFeedsStats getMySportsFeedsStats() {
+        return mySportsFeedsService.getStats();
+    }
+
+    @GetMapping("/api/v1/admin/mysportsfeeds/budget")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public MySportsFeedsBudgetStats getMySportsFeedsBudget() {
+        return mySportsFeedsBudget.getStats();
+    }
+
+    @GetMapping("/api/v1/admin/cache/weeks")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public CacheStatsView getWeekScheduleCacheStats() {
+        return weekScheduleCache.getStats();
+    }
+
+    @PostMapping("/api/v1/admin/schedule/import/{season}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ScheduleImportResult importSeasonSchedule(@PathVariable("season") Integer season) {
+        return scheduleImportService.importSeason(season);
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public void handleException(RuntimeException e, HttpServletResponse response) throws IOException {
+        log.error("Exception: {}", e.getMessage());
+        response.getOutputStream().write(e.getMessage().getBytes());
+    }
+}
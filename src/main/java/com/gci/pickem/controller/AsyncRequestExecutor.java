@@ -0,0 +1,78 @@
+package com.gci.pickem.controller;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs request work that may block on MSF off the servlet threads. A cold week can take seconds to fetch; while it
+ * does, the Tomcat worker goes back to the pool for pick submissions and the response is written when the work
+ * finishes.
+ *
+ * The pool and its queue are bounded. When both are full, or the work outlasts the timeout, the client gets a 503
+ * rather than another blocked thread.
+ */
+@Component
+public class AsyncRequestExecutor {
+    private static final Logger log = LoggerFactory.getLogger(AsyncRequestExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    @Autowired
+    AsyncRequestExecutor(
+        @Value("${pickem.web.io.threads:16}") int threads,
+        @Value("${pickem.web.io.queue-capacity:64}") int queueCapacity,
+        @Value("${pickem.web.io.timeout-ms:15000}") long timeoutMillis
+    ) {
+        this.executor =
+            new ThreadPoolExecutor(
+                threads,
+                threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("RequestIo-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> DeferredResult<ResponseEntity<T>> submit(Supplier<ResponseEntity<T>> work) {
+        // On timeout the work carries on. It may be a cold load other callers are waiting on, and it fills the
+        // caches for the next request either way.
+        DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(timeoutMillis, new ResponseEntity<T>(HttpStatus.SERVICE_UNAVAILABLE));
+        result.onTimeout(() -> log.warn("Request timed out after {}ms waiting on I/O.", timeoutMillis));
+
+        try {
+            executor.execute(() -> {
+                try {
+                    result.setResult(work.get());
+                } catch (RuntimeException e) {
+                    result.setErrorResult(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Request I/O pool is full ({} active, {} queued), rejecting request.", executor.getActiveCount(), executor.getQueue().size());
+            result.setResult(new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE));
+        }
+
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
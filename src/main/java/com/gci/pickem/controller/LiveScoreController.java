@@ -0,0 +1,26 @@
+package com.gci.pickem.controller;
+
+import com.gci.pickem.service.livescore.LiveScoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class LiveScoreController {
+
+    private LiveScoreService liveScoreService;
+
+    @Autowired
+    LiveScoreController(
+        LiveScoreService liveScoreService
+    ) {
+        this.liveScoreService = liveScoreService;
+    }
+
+    @GetMapping(value = "/api/v1/scores/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getLiveScores() {
+        return liveScoreService.subscribe();
+    }
+}
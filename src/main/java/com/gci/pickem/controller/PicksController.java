@@ -9,8 +9,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -24,12 +26,15 @@ public class PicksController {
     private static final Logger log = LoggerFactory.getLogger(PicksController.class);
 
     private PickService pickService;
+    private AsyncRequestExecutor asyncRequestExecutor;
 
     @Autowired
     PicksController(
-        PickService pickService
+        PickService pickService,
+        AsyncRequestExecutor asyncRequestExecutor
     ) {
         this.pickService = pickService;
+        this.asyncRequestExecutor = asyncRequestExecutor;
     }
 
     @PostMapping("/api/v1/picks")
@@ -51,9 +56,12 @@ public class PicksController {
         return pickService.getUserPicks(userView.getId(), poolId, season, week);
     }
 
+    /**
+     * Counting the week's games can mean loading the week from MSF, so this runs on the request I/O pool.
+     */
     @GetMapping("/api/v1/picks/values")
-    public List<Integer> getPossibleConfidences(@RequestParam("poolId") Long poolId, @RequestParam("season") Integer season, @RequestParam("week") Integer week) {
-        return pickService.getConfidenceValues(poolId, season, week);
+    public DeferredResult<ResponseEntity<List<Integer>>> getPossibleConfidences(@RequestParam("poolId") Long poolId, @RequestParam("season") Integer season, @RequestParam("week") Integer week) {
+        return asyncRequestExecutor.submit(() -> ResponseEntity.ok(pickService.getConfidenceValues(poolId, season, week)));
     }
 
     @ExceptionHandler(RuntimeException.class)
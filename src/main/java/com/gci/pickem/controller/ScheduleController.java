@@ -1,28 +1,110 @@
 package com.gci.pickem.controller;
 
 import com.gci.pickem.exception.MissingRequiredDataException;
-import com.gci.pickem.model.GamesList;
+import com.gci.pickem.model.CurrentWeekView;
+import com.gci.pickem.model.SeasonWeek;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsBackoffException;
 import com.gci.pickem.service.schedule.ScheduleService;
+import com.gci.pickem.service.schedule.SeasonCalendar;
+import com.gci.pickem.service.schedule.SerializedWeekSchedule;
+import com.gci.pickem.service.schedule.WeekScheduleCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 @RestController
 public class ScheduleController {
 
     private ScheduleService scheduleService;
+    private WeekScheduleCache weekScheduleCache;
+    private SeasonCalendar seasonCalendar;
+    private AsyncRequestExecutor asyncRequestExecutor;
 
     @Autowired
     ScheduleController(
-        ScheduleService scheduleService
+        ScheduleService scheduleService,
+        WeekScheduleCache weekScheduleCache,
+        SeasonCalendar seasonCalendar,
+        AsyncRequestExecutor asyncRequestExecutor
     ) {
         this.scheduleService = scheduleService;
+        this.weekScheduleCache = weekScheduleCache;
+        this.seasonCalendar = seasonCalendar;
+        this.asyncRequestExecutor = asyncRequestExecutor;
     }
 
+    /**
+     * The week in progress, or the next one to start between weeks. 404 once there are no more weeks scheduled.
+     */
+    @GetMapping("/api/v1/games/current-week")
+    public ResponseEntity<CurrentWeekView> getCurrentWeek() {
+        long now = System.currentTimeMillis();
+
+        SeasonWeek week = seasonCalendar.getWeekAt(now);
+        if (week == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<>(new CurrentWeekView(week, seasonCalendar.getNextKickoff(now)), HttpStatus.OK);
+    }
+
+    /**
+     * Writes the week's cached JSON bytes as-is (gzipped if the client accepts it) and answers a matching
+     * If-None-Match with a 304, so a cached week never goes through Jackson. A week that isn't loaded yet may need
+     * MSF, so the work runs on the request I/O pool rather than the servlet thread.
+     */
     @GetMapping("/api/v1/games/season/{year}/week/{weekNum}")
-    public GamesList getGamesByWeekOfYear(@PathVariable("year") Integer year, @PathVariable("weekNum") Integer week) {
+    public DeferredResult<ResponseEntity<byte[]>> getGamesByWeekOfYear(
+        @PathVariable("year") Integer year,
+        @PathVariable("weekNum") Integer week,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        validate(year, week);
+
+        return asyncRequestExecutor.submit(() -> getSerializedWeek(year, week, ifNoneMatch, acceptEncoding));
+    }
+
+    private ResponseEntity<byte[]> getSerializedWeek(int year, int week, String ifNoneMatch, String acceptEncoding) {
+        SerializedWeekSchedule schedule =
+            weekScheduleCache.getSerialized(year, week, () -> scheduleService.getGamesForSeasonAndWeek(year, week));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(schedule.getEtag());
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (matches(ifNoneMatch, schedule.getEtag())) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+
+        byte[] body = schedule.getJson();
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = schedule.getGzippedJson();
+        }
+
+        headers.setContentLength(body.length);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @ExceptionHandler(MySportsFeedsBackoffException.class)
+    @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+    public void handleMySportsFeedsUnavailable() {
+        // Nothing to do, the week isn't loaded and MSF can't be asked right now.
+    }
+
+    private void validate(Integer year, Integer week) {
         if (year == null) {
             throw new MissingRequiredDataException("Year must be provided");
         }
@@ -30,7 +112,20 @@ public class ScheduleController {
         if (week == null) {
             throw new MissingRequiredDataException("Week must be provided");
         }
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || etag.equals(trimmed) || etag.equals(trimmed.replaceFirst("^W/", ""))) {
+                return true;
+            }
+        }
 
-        return scheduleService.getGamesForSeasonAndWeek(year, week);
+        return false;
     }
 }
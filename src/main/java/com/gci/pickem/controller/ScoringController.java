@@ -1,9 +1,12 @@
 package com.gci.pickem.controller;
 
+import com.gci.pickem.model.ScoreBackfillJobView;
 import com.gci.pickem.model.UserView;
+import com.gci.pickem.service.backfill.ScoreBackfillService;
 import com.gci.pickem.service.schedule.ScheduleService;
 import com.gci.pickem.service.scoring.ScoringService;
 import com.gci.pickem.service.user.UserService;
+import com.gci.pickem.util.ScheduleUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,16 +27,19 @@ public class ScoringController {
     private ScoringService scoringService;
     private UserService userService;
     private ScheduleService scheduleService;
+    private ScoreBackfillService scoreBackfillService;
 
     @Autowired
     ScoringController(
         ScoringService scoringService,
         UserService userService,
-        ScheduleService scheduleService
+        ScheduleService scheduleService,
+        ScoreBackfillService scoreBackfillService
     ) {
         this.scoringService = scoringService;
         this.userService = userService;
         this.scheduleService = scheduleService;
+        this.scoreBackfillService = scoreBackfillService;
     }
 
     // At some point this will grab the currently-logged-in user to return the score!
@@ -63,6 +69,26 @@ public class ScoringController {
         scheduleService.processScoresForDate(Instant.ofEpochMilli(epoch));
     }
 
+    @PostMapping("/api/v1/score/backfill")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ScoreBackfillJobView startScoreBackfill(@RequestBody Map<String, Long> input) {
+        Long startEpoch = input.get("startEpoch");
+        Long endEpoch = input.get("endEpoch");
+        if (startEpoch == null || endEpoch == null) {
+            throw new RuntimeException("Missing required parameters 'startEpoch' and 'endEpoch'.");
+        }
+
+        return scoreBackfillService.startBackfill(
+            ScheduleUtil.getScoreboardDate(startEpoch),
+            ScheduleUtil.getScoreboardDate(endEpoch));
+    }
+
+    @GetMapping("/api/v1/score/backfill/{id}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ScoreBackfillJobView getScoreBackfill(@PathVariable("id") Long jobId) {
+        return scoreBackfillService.getBackfillJob(jobId);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public void handleException(RuntimeException e, HttpServletResponse response) throws IOException {
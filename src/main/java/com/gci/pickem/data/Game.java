@@ -35,6 +35,12 @@ public class Game {
     @Column(name = "external_game_id")
     private Integer externalId;
 
+    @Column(name = "schedule_status")
+    private String scheduleStatus;
+
+    @Column(name = "delayed_or_postponed_reason")
+    private String delayedOrPostponedReason;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "home_team_id", referencedColumnName = "team_id", insertable = false, updatable = false)
     private Team homeTeam;
@@ -118,6 +124,22 @@ public class Game {
         this.externalId = externalId;
     }
 
+    public String getScheduleStatus() {
+        return scheduleStatus;
+    }
+
+    public void setScheduleStatus(String scheduleStatus) {
+        this.scheduleStatus = scheduleStatus;
+    }
+
+    public String getDelayedOrPostponedReason() {
+        return delayedOrPostponedReason;
+    }
+
+    public void setDelayedOrPostponedReason(String delayedOrPostponedReason) {
+        this.delayedOrPostponedReason = delayedOrPostponedReason;
+    }
+
     public Team getHomeTeam() {
         return homeTeam;
     }
@@ -0,0 +1,158 @@
+package com.gci.pickem.data;
+
+import com.gci.pickem.model.ScoreBackfillStatus;
+
+import javax.persistence.*;
+import java.sql.Date;
+
+@Entity
+@Table(name = "score_backfill_job")
+public class ScoreBackfillJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "score_backfill_job_id", nullable = false)
+    private Long scoreBackfillJobId;
+
+    @Column(name = "start_date", nullable = false)
+    private Date startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private Date endDate;
+
+    // Checkpoint: every date before this one has been applied.
+    @Column(name = "next_date", nullable = false)
+    private Date nextDate;
+
+    @Column(name = "job_status", nullable = false)
+    private String jobStatus = ScoreBackfillStatus.RUNNING.name();
+
+    @Column(name = "dates_processed", nullable = false)
+    private Integer datesProcessed = 0;
+
+    @Column(name = "dates_failed", nullable = false)
+    private Integer datesFailed = 0;
+
+    @Column(name = "games_completed", nullable = false)
+    private Integer gamesCompleted = 0;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_epoch", nullable = false)
+    private Long createdEpoch;
+
+    @Column(name = "updated_epoch", nullable = false)
+    private Long updatedEpoch;
+
+    // The node running the job, and until when. Another node may only take the job over once this has passed.
+    @Column(name = "lease_owner")
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_epoch")
+    private Long leaseExpiresEpoch;
+
+    public Long getScoreBackfillJobId() {
+        return scoreBackfillJobId;
+    }
+
+    public void setScoreBackfillJobId(Long scoreBackfillJobId) {
+        this.scoreBackfillJobId = scoreBackfillJobId;
+    }
+
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Date startDate) {
+        this.startDate = startDate;
+    }
+
+    public Date getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(Date endDate) {
+        this.endDate = endDate;
+    }
+
+    public Date getNextDate() {
+        return nextDate;
+    }
+
+    public void setNextDate(Date nextDate) {
+        this.nextDate = nextDate;
+    }
+
+    public String getJobStatus() {
+        return jobStatus;
+    }
+
+    public void setJobStatus(String jobStatus) {
+        this.jobStatus = jobStatus;
+    }
+
+    public Integer getDatesProcessed() {
+        return datesProcessed;
+    }
+
+    public void setDatesProcessed(Integer datesProcessed) {
+        this.datesProcessed = datesProcessed;
+    }
+
+    public Integer getDatesFailed() {
+        return datesFailed;
+    }
+
+    public void setDatesFailed(Integer datesFailed) {
+        this.datesFailed = datesFailed;
+    }
+
+    public Integer getGamesCompleted() {
+        return gamesCompleted;
+    }
+
+    public void setGamesCompleted(Integer gamesCompleted) {
+        this.gamesCompleted = gamesCompleted;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Long getCreatedEpoch() {
+        return createdEpoch;
+    }
+
+    public void setCreatedEpoch(Long createdEpoch) {
+        this.createdEpoch = createdEpoch;
+    }
+
+    public Long getUpdatedEpoch() {
+        return updatedEpoch;
+    }
+
+    public void setUpdatedEpoch(Long updatedEpoch) {
+        this.updatedEpoch = updatedEpoch;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public Long getLeaseExpiresEpoch() {
+        return leaseExpiresEpoch;
+    }
+
+    public void setLeaseExpiresEpoch(Long leaseExpiresEpoch) {
+        this.leaseExpiresEpoch = leaseExpiresEpoch;
+    }
+}
@@ -0,0 +1,31 @@
+package com.gci.pickem.job;
+
+import com.gci.pickem.service.livescore.LiveScoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LiveScoreUpdater {
+
+    private LiveScoreService liveScoreService;
+
+    @Value("${pickem.scores.live.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    LiveScoreUpdater(LiveScoreService liveScoreService) {
+        this.liveScoreService = liveScoreService;
+    }
+
+    // One shared poll for every connected client. It's a no-op outside of game windows.
+    @Scheduled(fixedDelayString = "${pickem.scores.live.poll-interval-ms:30000}")
+    public void updateLiveScores() {
+        if (!enabled) {
+            return;
+        }
+
+        liveScoreService.pollLiveScores();
+    }
+}
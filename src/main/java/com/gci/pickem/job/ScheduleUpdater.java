@@ -1,23 +1,28 @@
 package com.gci.pickem.job;
 
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsPriority;
 import com.gci.pickem.service.schedule.ScheduleService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
-
 @Component
 public class ScheduleUpdater {
     private static final Logger log = LoggerFactory.getLogger(ScheduleUpdater.class);
 
     private ScheduleService scheduleService;
+    private int prefetchWeeks;
 
     @Autowired
-    ScheduleUpdater(ScheduleService scheduleService) {
+    ScheduleUpdater(
+        ScheduleService scheduleService,
+        @Value("${pickem.schedule.prefetch-weeks:2}") int prefetchWeeks
+    ) {
         this.scheduleService = scheduleService;
+        this.prefetchWeeks = prefetchWeeks;
     }
 
     // Run just after midnight of every day, eastern time.
@@ -25,20 +30,33 @@ public class ScheduleUpdater {
     public void updateFutureSchedules() {
         log.info("Executing schedule updates process.");
 
-        // Look for all games in the next 7 days.
-        scheduleService.processExternalGamesForNextDays(7);
+        // Look for all games in the next 7 days. Nobody is waiting on this, so it only gets what budget is spare.
+        try (MySportsFeedsPriority.Scope ignored = MySportsFeedsPriority.PREFETCH.enter()) {
+            scheduleService.processExternalGamesForNextDays(7);
+
+            // Store the upcoming weeks ahead of anyone opening them.
+            int weeks = scheduleService.prefetchUpcomingWeeks(prefetchWeeks);
+            log.info("Prefetched {} upcoming weeks.", weeks);
+        }
 
         log.info("Schedule process update complete.");
     }
 
-    // Check for updated scores every 5 minutes of every day.
-    @Scheduled(cron = "0 0/5 * * * *", zone = "America/New_York")
-    public void updateScores() {
-        log.info("Checking for updated scores");
+    // Once the events from the update above have been handled (they drop the weeks they touch from the cache),
+    // build the upcoming weeks' views so the first user to open one doesn't have to.
+    @Scheduled(cron = "0 15 0 * * *", zone = "America/New_York")
+    public void warmUpcomingWeeks() {
+        int weeks = scheduleService.warmUpcomingWeeks(prefetchWeeks);
+        log.info("Warmed {} upcoming weeks.", weeks);
+    }
+
+    // Sweep up any started game that still has no final score, e.g. one that ran past the polling window.
+    @Scheduled(cron = "0 0 4 * * *", zone = "America/New_York")
+    public void updateMissingScores() {
+        log.info("Checking for started games missing final scores.");
 
-        // Look back over the last day and find any scores for games that are finished.
-        scheduleService.processScoresForDate(Instant.now());
+        scheduleService.processScoresForStartedGames();
 
-        log.info("Done checking for updated scores");
+        log.info("Done checking for missing final scores.");
     }
 }
@@ -0,0 +1,129 @@
+package com.gci.pickem.job;
+
+import com.gci.pickem.model.ScorePollPlan;
+import com.gci.pickem.service.event.GameAdded;
+import com.gci.pickem.service.event.GameEvent;
+import com.gci.pickem.service.event.GameEventListener;
+import com.gci.pickem.service.event.GameEventService;
+import com.gci.pickem.service.event.GameRescheduled;
+import com.gci.pickem.service.schedule.ScheduleService;
+import com.gci.pickem.service.schedule.ScorePollPlanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replaces the old fixed 5-minute score poll. Polls every few seconds while games may be finishing and
+ * otherwise sleeps until the next game could possibly be over.
+ */
+@Component
+public class ScorePollScheduler implements GameEventListener {
+    private static final Logger log = LoggerFactory.getLogger(ScorePollScheduler.class);
+
+    private ScorePollPlanner scorePollPlanner;
+    private ScheduleService scheduleService;
+    private GameEventService gameEventService;
+    private TaskScheduler taskScheduler;
+
+    @Value("${pickem.scores.poll.idle-recheck-minutes:60}")
+    private long idleRecheckMinutes;
+
+    private ScheduledFuture<?> nextPoll;
+    private volatile ScorePollPlan currentPlan;
+
+    @Autowired
+    ScorePollScheduler(
+        ScorePollPlanner scorePollPlanner,
+        ScheduleService scheduleService,
+        GameEventService gameEventService,
+        TaskScheduler taskScheduler
+    ) {
+        this.scorePollPlanner = scorePollPlanner;
+        this.scheduleService = scheduleService;
+        this.gameEventService = gameEventService;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @PostConstruct
+    public void registerListener() {
+        gameEventService.subscribe(this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reschedule();
+    }
+
+    public ScorePollPlan getCurrentPlan() {
+        return currentPlan;
+    }
+
+    @Override
+    public String getName() {
+        return "ScorePollScheduler";
+    }
+
+    @Override
+    public void onGameEvent(GameEvent event) {
+        // New or moved games can only pull the next poll earlier.
+        long kickoff;
+        if (event instanceof GameAdded) {
+            kickoff = ((GameAdded) event).getGameTimeEpoch();
+        } else if (event instanceof GameRescheduled) {
+            kickoff = ((GameRescheduled) event).getGameTimeEpoch();
+        } else {
+            return;
+        }
+
+        ScorePollPlan plan = currentPlan;
+        if (plan == null || plan.getNextPollTime() == null || kickoff < plan.getNextPollTime()) {
+            reschedule();
+        }
+    }
+
+    void poll() {
+        try {
+            ScorePollPlan plan = scorePollPlanner.plan(System.currentTimeMillis());
+            if (!plan.getDates().isEmpty()) {
+                log.info("Checking for updated scores for {}", plan.getDates());
+                scheduleService.processScoresForDates(plan.getDates());
+            }
+        } catch (Exception e) {
+            log.error("Error occurred while polling for scores: {}", e.getMessage());
+            log.trace("", e);
+        } finally {
+            reschedule();
+        }
+    }
+
+    private synchronized void reschedule() {
+        if (nextPoll != null) {
+            nextPoll.cancel(false);
+        }
+
+        long now = System.currentTimeMillis();
+        ScorePollPlan plan = scorePollPlanner.plan(now);
+
+        // Re-plan periodically even when idle, in case games show up without an event (manual DB edits, other nodes).
+        long at = now + TimeUnit.MINUTES.toMillis(idleRecheckMinutes);
+        if (plan.getNextPollTime() != null) {
+            at = Math.min(at, plan.getNextPollTime());
+        }
+
+        currentPlan = plan;
+        nextPoll = taskScheduler.schedule(this::poll, new Date(at));
+
+        log.debug("Next score poll at {}: {}", Instant.ofEpochMilli(at), plan.getReason());
+    }
+}
@@ -0,0 +1,39 @@
+package com.gci.pickem.model;
+
+public final class CurrentWeekView {
+
+    private final SeasonWeek week;
+    private final Long nextLockTime;
+
+    public CurrentWeekView(SeasonWeek week, Long nextLockTime) {
+        this.week = week;
+        this.nextLockTime = nextLockTime;
+    }
+
+    public int getSeason() {
+        return week.getSeason();
+    }
+
+    public int getWeek() {
+        return week.getWeek();
+    }
+
+    public long getFirstKickoff() {
+        return week.getFirstKickoff();
+    }
+
+    public long getLastKickoff() {
+        return week.getLastKickoff();
+    }
+
+    public int getGameCount() {
+        return week.getGameCount();
+    }
+
+    /**
+     * @return epoch millis of the next kickoff, when picks for that game lock, or null if there are none left.
+     */
+    public Long getNextLockTime() {
+        return nextLockTime;
+    }
+}
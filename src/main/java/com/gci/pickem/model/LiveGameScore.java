@@ -0,0 +1,63 @@
+package com.gci.pickem.model;
+
+import java.util.Objects;
+
+public final class LiveGameScore {
+
+    private final long gameId;
+    private final int homeScore;
+    private final int awayScore;
+    private final boolean inProgress;
+    private final boolean completed;
+
+    public LiveGameScore(long gameId, int homeScore, int awayScore, boolean inProgress, boolean completed) {
+        this.gameId = gameId;
+        this.homeScore = homeScore;
+        this.awayScore = awayScore;
+        this.inProgress = inProgress;
+        this.completed = completed;
+    }
+
+    public long getGameId() {
+        return gameId;
+    }
+
+    public int getHomeScore() {
+        return homeScore;
+    }
+
+    public int getAwayScore() {
+        return awayScore;
+    }
+
+    public boolean isInProgress() {
+        return inProgress;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        LiveGameScore that = (LiveGameScore) o;
+        return gameId == that.gameId &&
+            homeScore == that.homeScore &&
+            awayScore == that.awayScore &&
+            inProgress == that.inProgress &&
+            completed == that.completed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(gameId, homeScore, awayScore, inProgress, completed);
+    }
+}
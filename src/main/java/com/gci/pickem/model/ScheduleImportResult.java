@@ -0,0 +1,68 @@
+package com.gci.pickem.model;
+
+public class ScheduleImportResult {
+
+    private int season;
+    private int gamesRead;
+    private int teams;
+    private int gamesAdded;
+    private int gamesUpdated;
+    private int gamesUnchanged;
+    private long elapsedMillis;
+
+    public int getSeason() {
+        return season;
+    }
+
+    public void setSeason(int season) {
+        this.season = season;
+    }
+
+    public int getGamesRead() {
+        return gamesRead;
+    }
+
+    public void setGamesRead(int gamesRead) {
+        this.gamesRead = gamesRead;
+    }
+
+    public int getTeams() {
+        return teams;
+    }
+
+    public void setTeams(int teams) {
+        this.teams = teams;
+    }
+
+    public int getGamesAdded() {
+        return gamesAdded;
+    }
+
+    public void setGamesAdded(int gamesAdded) {
+        this.gamesAdded = gamesAdded;
+    }
+
+    public int getGamesUpdated() {
+        return gamesUpdated;
+    }
+
+    public void setGamesUpdated(int gamesUpdated) {
+        this.gamesUpdated = gamesUpdated;
+    }
+
+    public int getGamesUnchanged() {
+        return gamesUnchanged;
+    }
+
+    public void setGamesUnchanged(int gamesUnchanged) {
+        this.gamesUnchanged = gamesUnchanged;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
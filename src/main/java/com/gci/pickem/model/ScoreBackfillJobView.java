@@ -0,0 +1,83 @@
+package com.gci.pickem.model;
+
+import com.gci.pickem.data.ScoreBackfillJob;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+public class ScoreBackfillJobView {
+
+    private Long id;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate nextDate;
+    private ScoreBackfillStatus status;
+    private int totalDates;
+    private int datesProcessed;
+    private int datesFailed;
+    private int gamesCompleted;
+    private String lastError;
+    private long updatedEpoch;
+
+    public ScoreBackfillJobView() {
+        // Default constructor for serialization and such.
+    }
+
+    public ScoreBackfillJobView(ScoreBackfillJob job) {
+        this.id = job.getScoreBackfillJobId();
+        this.startDate = job.getStartDate().toLocalDate();
+        this.endDate = job.getEndDate().toLocalDate();
+        this.nextDate = job.getNextDate().toLocalDate();
+        this.status = ScoreBackfillStatus.valueOf(job.getJobStatus());
+        this.totalDates = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        this.datesProcessed = job.getDatesProcessed();
+        this.datesFailed = job.getDatesFailed();
+        this.gamesCompleted = job.getGamesCompleted();
+        this.lastError = job.getLastError();
+        this.updatedEpoch = job.getUpdatedEpoch();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public LocalDate getNextDate() {
+        return nextDate;
+    }
+
+    public ScoreBackfillStatus getStatus() {
+        return status;
+    }
+
+    public int getTotalDates() {
+        return totalDates;
+    }
+
+    public int getDatesProcessed() {
+        return datesProcessed;
+    }
+
+    public int getDatesFailed() {
+        return datesFailed;
+    }
+
+    public int getGamesCompleted() {
+        return gamesCompleted;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public long getUpdatedEpoch() {
+        return updatedEpoch;
+    }
+}
@@ -0,0 +1,7 @@
+package com.gci.pickem.model;
+
+public enum ScoreBackfillStatus {
+    RUNNING,
+    COMPLETE,
+    FAILED
+}
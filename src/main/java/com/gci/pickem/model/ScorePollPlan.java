@@ -0,0 +1,43 @@
+package com.gci.pickem.model;
+
+import com.google.common.collect.ImmutableList;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public final class ScorePollPlan {
+
+    private final long plannedAt;
+    private final Long nextPollTime;
+    private final List<LocalDate> dates;
+    private final String reason;
+
+    public ScorePollPlan(long plannedAt, Long nextPollTime, List<LocalDate> dates, String reason) {
+        this.plannedAt = plannedAt;
+        this.nextPollTime = nextPollTime;
+        this.dates = ImmutableList.copyOf(dates);
+        this.reason = reason;
+    }
+
+    public long getPlannedAt() {
+        return plannedAt;
+    }
+
+    /**
+     * @return epoch millis of the next MSF poll, or null if nothing needs polling.
+     */
+    public Long getNextPollTime() {
+        return nextPollTime;
+    }
+
+    /**
+     * @return the ET scoreboard dates with games that may be finishing.
+     */
+    public List<LocalDate> getDates() {
+        return dates;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
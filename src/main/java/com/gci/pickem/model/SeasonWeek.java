@@ -0,0 +1,44 @@
+package com.gci.pickem.model;
+
+public final class SeasonWeek {
+
+    private final int season;
+    private final int week;
+    private final long firstKickoff;
+    private final long lastKickoff;
+    private final int gameCount;
+
+    public SeasonWeek(int season, int week, long firstKickoff, long lastKickoff, int gameCount) {
+        this.season = season;
+        this.week = week;
+        this.firstKickoff = firstKickoff;
+        this.lastKickoff = lastKickoff;
+        this.gameCount = gameCount;
+    }
+
+    public int getSeason() {
+        return season;
+    }
+
+    public int getWeek() {
+        return week;
+    }
+
+    /**
+     * @return epoch millis of the week's first kickoff.
+     */
+    public long getFirstKickoff() {
+        return firstKickoff;
+    }
+
+    /**
+     * @return epoch millis of the week's last kickoff.
+     */
+    public long getLastKickoff() {
+        return lastKickoff;
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+}
@@ -1,7 +1,9 @@
 package com.gci.pickem.repository;
 
 import com.gci.pickem.data.Game;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 import java.util.List;
@@ -12,5 +14,27 @@ public interface GameRepository extends CrudRepository<Game, Long> {
 
     Game findByExternalId(Integer externalId);
 
+    List<Game> findByExternalIdIn(Collection<Integer> externalIds);
+
     List<Game> findByGameTimeEpochBetween(long start, long end);
+
+    @Query(
+        "SELECT g " +
+        "FROM Game g " +
+        "WHERE g.isGameComplete = false AND " +
+        "   g.gameTimeEpoch BETWEEN :start AND :end " +
+        "ORDER BY g.gameTimeEpoch")
+    List<Game> findIncompleteGamesBetween(@Param("start") long start, @Param("end") long end);
+
+    Game findFirstByGameTimeEpochGreaterThanOrderByGameTimeEpochAsc(long epoch);
+
+    /**
+     * Season, week and kickoff of every game, earliest kickoff first.
+     */
+    @Query(
+        "SELECT g.season, g.week, g.gameTimeEpoch " +
+        "FROM Game g " +
+        "WHERE g.gameTimeEpoch IS NOT NULL " +
+        "ORDER BY g.gameTimeEpoch")
+    List<Object[]> findAllKickoffs();
 }
@@ -0,0 +1,53 @@
+package com.gci.pickem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Request counts shared by every node, one row per budget. The row only ever holds the current window; the first
+ * claim in a new window resets it.
+ */
+@Repository
+public class RequestBudgetRepository {
+
+    // A single statement, so the row lock makes check-and-increment atomic across nodes. A node whose clock is
+    // behind the stored window is refused rather than allowed to reset it.
+    private static final String CLAIM =
+        "update msf_request_budget set " +
+        "requests_used = case when window_start_epoch = ? then requests_used + 1 else 1 end, " +
+        "window_start_epoch = ? " +
+        "where budget_name = ? and (window_start_epoch < ? or (window_start_epoch = ? and requests_used < ?))";
+
+    private static final String FIND_USED =
+        "select case when window_start_epoch = ? then requests_used else 0 end " +
+        "from msf_request_budget where budget_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    RequestBudgetRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Counts one request against the window if fewer than limit have been made in it so far.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryClaim(String budgetName, long windowStartEpoch, int limit) {
+        if (limit <= 0) {
+            return false;
+        }
+
+        return jdbcTemplate.update(CLAIM, windowStartEpoch, windowStartEpoch, budgetName, windowStartEpoch, windowStartEpoch, limit) == 1;
+    }
+
+    public int getUsed(String budgetName, long windowStartEpoch) {
+        List<Integer> used = jdbcTemplate.queryForList(FIND_USED, Integer.class, windowStartEpoch, budgetName);
+        return used.isEmpty() ? 0 : used.get(0);
+    }
+}
@@ -0,0 +1,240 @@
+package com.gci.pickem.repository;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.data.Team;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.transaction.Transactional;
+import java.sql.PreparedStatement;
+import java.util.*;
+
+/**
+ * Set-based writes for schedule imports. Each method is a single statement no matter how many rows it touches:
+ * the rows go over as arrays and are unnested on the Postgres side.
+ */
+@Repository
+public class ScheduleBulkRepository {
+
+    // Like the games, only new or changed teams are written. Unchanged ones are read back alongside them, since
+    // every team's ID is needed for the games. The select sees the table as it was before the insert, so written
+    // teams come back once.
+    private static final String UPSERT_TEAMS =
+        "with written as (" +
+        "insert into teams (external_team_id, abbreviation, city, team_name) " +
+        "select * from unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::varchar[]) " +
+        "on conflict (external_team_id) do update set " +
+        "abbreviation = excluded.abbreviation, city = excluded.city, team_name = excluded.team_name " +
+        "where (teams.abbreviation, teams.city, teams.team_name) is distinct from " +
+        "(excluded.abbreviation, excluded.city, excluded.team_name) " +
+        "returning external_team_id, team_id) " +
+        "select external_team_id, team_id, true as written from written " +
+        "union all " +
+        "select external_team_id, team_id, false as written from teams " +
+        "where external_team_id = any(?::bigint[]) and external_team_id not in (select external_team_id from written)";
+
+    private static final String FIND_GAMES =
+        "select game_id, season, week, home_team_id, away_team_id, game_time_epoch, external_game_id, " +
+        "schedule_status, delayed_or_postponed_reason " +
+        "from game where external_game_id = any(?::bigint[])";
+
+    // Only rows that are new or actually changed are written (and returned). The same MSF-owned columns as the
+    // reconcile in ScheduleServiceImpl, so both paths store the same data.
+    private static final String UPSERT_GAMES =
+        "insert into game (season, week, home_team_id, away_team_id, game_time_epoch, external_game_id, " +
+        "schedule_status, delayed_or_postponed_reason) " +
+        "select * from unnest(?::integer[], ?::integer[], ?::bigint[], ?::bigint[], ?::bigint[], ?::bigint[], " +
+        "?::varchar[], ?::varchar[]) " +
+        "on conflict (external_game_id) do update set " +
+        "season = excluded.season, week = excluded.week, home_team_id = excluded.home_team_id, " +
+        "away_team_id = excluded.away_team_id, game_time_epoch = excluded.game_time_epoch, " +
+        "schedule_status = excluded.schedule_status, delayed_or_postponed_reason = excluded.delayed_or_postponed_reason " +
+        "where (game.season, game.week, game.home_team_id, game.away_team_id, game.game_time_epoch, " +
+        "game.schedule_status, game.delayed_or_postponed_reason) is distinct from " +
+        "(excluded.season, excluded.week, excluded.home_team_id, excluded.away_team_id, excluded.game_time_epoch, " +
+        "excluded.schedule_status, excluded.delayed_or_postponed_reason) " +
+        "returning external_game_id, game_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ScheduleBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Upserts the teams, then the games, in one transaction. Games only need their home and away teams set with
+     * external IDs, the team IDs are filled in from what the team upsert returns.
+     */
+    @Transactional
+    public ScheduleUpsert upsertSchedule(Collection<Team> teams, List<Game> games) {
+        Map<Long, Long> teamIds = new HashMap<>();
+        Set<Long> writtenTeams = upsertTeams(teams, teamIds);
+
+        for (Game game : games) {
+            game.setAwayTeamId(getTeamId(teamIds, game.getAwayTeam().getExternalId()));
+            game.setHomeTeamId(getTeamId(teamIds, game.getHomeTeam().getExternalId()));
+        }
+
+        Map<Integer, Game> existing = findGamesByExternalIds(games);
+        Map<Integer, Long> written = upsertGames(games);
+
+        return new ScheduleUpsert(teamIds.size(), writtenTeams, existing, written);
+    }
+
+    private Long getTeamId(Map<Long, Long> teamIds, Long externalId) {
+        Long teamId = teamIds.get(externalId);
+        if (teamId == null) {
+            throw new RuntimeException(String.format("No team found for external ID %d", externalId));
+        }
+
+        return teamId;
+    }
+
+    /**
+     * Fills in teamIds for every team and returns the external IDs of the teams that were inserted or changed.
+     */
+    private Set<Long> upsertTeams(Collection<Team> teams, Map<Long, Long> teamIds) {
+        Object[] externalIds = new Object[teams.size()];
+        Object[] abbreviations = new Object[teams.size()];
+        Object[] cities = new Object[teams.size()];
+        Object[] names = new Object[teams.size()];
+
+        int i = 0;
+        for (Team team : teams) {
+            externalIds[i] = team.getExternalId();
+            abbreviations[i] = team.getAbbreviation();
+            cities[i] = team.getCity();
+            names[i] = team.getTeamName();
+            i++;
+        }
+
+        Set<Long> written = new HashSet<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_TEAMS);
+            ps.setArray(1, con.createArrayOf("bigint", externalIds));
+            ps.setArray(2, con.createArrayOf("varchar", abbreviations));
+            ps.setArray(3, con.createArrayOf("varchar", cities));
+            ps.setArray(4, con.createArrayOf("varchar", names));
+            ps.setArray(5, con.createArrayOf("bigint", externalIds));
+            return ps;
+        }, rs -> {
+            teamIds.put(rs.getLong("external_team_id"), rs.getLong("team_id"));
+            if (rs.getBoolean("written")) {
+                written.add(rs.getLong("external_team_id"));
+            }
+        });
+
+        return written;
+    }
+
+    private Map<Integer, Game> findGamesByExternalIds(List<Game> games) {
+        Object[] externalIds = games.stream().map(game -> (long) game.getExternalId()).toArray();
+
+        Map<Integer, Game> existing = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(FIND_GAMES);
+            ps.setArray(1, con.createArrayOf("bigint", externalIds));
+            return ps;
+        }, rs -> {
+            Game game = new Game();
+            game.setGameId(rs.getLong("game_id"));
+            game.setSeason(rs.getInt("season"));
+            game.setWeek(rs.getInt("week"));
+            game.setHomeTeamId(rs.getLong("home_team_id"));
+            game.setAwayTeamId(rs.getLong("away_team_id"));
+            game.setExternalId(rs.getInt("external_game_id"));
+            game.setScheduleStatus(rs.getString("schedule_status"));
+            game.setDelayedOrPostponedReason(rs.getString("delayed_or_postponed_reason"));
+
+            // Older rows can be missing a kickoff.
+            long gameTimeEpoch = rs.getLong("game_time_epoch");
+            game.setGameTimeEpoch(rs.wasNull() ? null : gameTimeEpoch);
+
+            existing.put(game.getExternalId(), game);
+        });
+
+        return existing;
+    }
+
+    private Map<Integer, Long> upsertGames(List<Game> games) {
+        Object[] seasons = new Object[games.size()];
+        Object[] weeks = new Object[games.size()];
+        Object[] homeTeamIds = new Object[games.size()];
+        Object[] awayTeamIds = new Object[games.size()];
+        Object[] gameTimes = new Object[games.size()];
+        Object[] externalIds = new Object[games.size()];
+        Object[] scheduleStatuses = new Object[games.size()];
+        Object[] postponedReasons = new Object[games.size()];
+
+        for (int i = 0; i < games.size(); i++) {
+            Game game = games.get(i);
+            seasons[i] = game.getSeason();
+            weeks[i] = game.getWeek();
+            homeTeamIds[i] = game.getHomeTeamId();
+            awayTeamIds[i] = game.getAwayTeamId();
+            gameTimes[i] = game.getGameTimeEpoch();
+            externalIds[i] = (long) game.getExternalId();
+            scheduleStatuses[i] = game.getScheduleStatus();
+            postponedReasons[i] = game.getDelayedOrPostponedReason();
+        }
+
+        Map<Integer, Long> written = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_GAMES);
+            ps.setArray(1, con.createArrayOf("integer", seasons));
+            ps.setArray(2, con.createArrayOf("integer", weeks));
+            ps.setArray(3, con.createArrayOf("bigint", homeTeamIds));
+            ps.setArray(4, con.createArrayOf("bigint", awayTeamIds));
+            ps.setArray(5, con.createArrayOf("bigint", gameTimes));
+            ps.setArray(6, con.createArrayOf("bigint", externalIds));
+            ps.setArray(7, con.createArrayOf("varchar", scheduleStatuses));
+            ps.setArray(8, con.createArrayOf("varchar", postponedReasons));
+            return ps;
+        }, rs -> {
+            written.put(rs.getInt("external_game_id"), rs.getLong("game_id"));
+        });
+
+        return written;
+    }
+
+    public static class ScheduleUpsert {
+        private final int teams;
+        private final Set<Long> writtenTeams;
+        private final Map<Integer, Game> previous;
+        private final Map<Integer, Long> written;
+
+        public ScheduleUpsert(int teams, Set<Long> writtenTeams, Map<Integer, Game> previous, Map<Integer, Long> written) {
+            this.teams = teams;
+            this.writtenTeams = writtenTeams;
+            this.previous = previous;
+            this.written = written;
+        }
+
+        public int getTeams() {
+            return teams;
+        }
+
+        /**
+         * External IDs of the teams inserted or changed by the import.
+         */
+        public Set<Long> getWrittenTeams() {
+            return writtenTeams;
+        }
+
+        /**
+         * Games that already existed before the import, keyed by external ID.
+         */
+        public Map<Integer, Game> getPrevious() {
+            return previous;
+        }
+
+        /**
+         * Game IDs of every game inserted or changed by the import, keyed by external ID.
+         */
+        public Map<Integer, Long> getWritten() {
+            return written;
+        }
+    }
+}
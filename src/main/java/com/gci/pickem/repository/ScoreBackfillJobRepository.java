@@ -0,0 +1,31 @@
+package com.gci.pickem.repository;
+
+import com.gci.pickem.data.ScoreBackfillJob;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ScoreBackfillJobRepository extends CrudRepository<ScoreBackfillJob, Long> {
+
+    List<ScoreBackfillJob> findByJobStatus(String jobStatus);
+
+    /**
+     * Takes or renews the lease on a running job. A single statement, so when several nodes try for the same job
+     * only one of them gets it.
+     *
+     * @return 1 if the lease is now held by owner, 0 if another node holds it or the job is no longer running.
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        "UPDATE ScoreBackfillJob j " +
+        "SET j.leaseOwner = :owner, j.leaseExpiresEpoch = :expires " +
+        "WHERE j.scoreBackfillJobId = :jobId AND " +
+        "   j.jobStatus = 'RUNNING' AND " +
+        "   (j.leaseOwner = :owner OR j.leaseExpiresEpoch IS NULL OR j.leaseExpiresEpoch < :now)")
+    int claim(@Param("jobId") long jobId, @Param("owner") String owner, @Param("now") long now, @Param("expires") long expires);
+}
@@ -0,0 +1,16 @@
+package com.gci.pickem.service.backfill;
+
+import com.gci.pickem.model.ScoreBackfillJobView;
+
+import java.time.LocalDate;
+
+public interface ScoreBackfillService {
+
+    /**
+     * Starts an asynchronous job recording final scores for every ET date from start to end, inclusive, that has a
+     * stored game still missing its result.
+     */
+    ScoreBackfillJobView startBackfill(LocalDate start, LocalDate end);
+
+    ScoreBackfillJobView getBackfillJob(long jobId);
+}
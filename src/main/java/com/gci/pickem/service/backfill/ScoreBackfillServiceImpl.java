@@ -0,0 +1,384 @@
+package com.gci.pickem.service.backfill;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.data.ScoreBackfillJob;
+import com.gci.pickem.model.ScoreBackfillJobView;
+import com.gci.pickem.model.ScoreBackfillStatus;
+import com.gci.pickem.model.mysportsfeeds.Scoreboard;
+import com.gci.pickem.repository.ScoreBackfillJobRepository;
+import com.gci.pickem.service.game.GamesService;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsBackoffException;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsPriority;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsService;
+import com.gci.pickem.service.schedule.ScheduleService;
+import com.gci.pickem.util.ScheduleUtil;
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+public class ScoreBackfillServiceImpl implements ScoreBackfillService {
+    private static final Logger log = LoggerFactory.getLogger(ScoreBackfillServiceImpl.class);
+
+    private static final ZoneId EASTERN = ZoneId.of("America/New_York");
+
+    private ScoreBackfillJobRepository scoreBackfillJobRepository;
+    private MySportsFeedsService mySportsFeedsService;
+    private ScheduleService scheduleService;
+    private GamesService gamesService;
+
+    // Jobs run one at a time; their scoreboard fetches fan out over the fetch pool.
+    private final ExecutorService jobExecutor;
+    private final ExecutorService fetchExecutor;
+    private final RateLimiter rateLimiter;
+
+    private final int batchDays;
+    private final int maxDays;
+    private final int maxAttempts;
+    private final long leaseMillis;
+    private final long retryDelayMillis;
+
+    // Identifies this node's leases. A fresh one per start, so a restarted node doesn't think it still holds a job.
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    // Jobs queued or running here, so the resume check doesn't queue one twice.
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    ScoreBackfillServiceImpl(
+        ScoreBackfillJobRepository scoreBackfillJobRepository,
+        MySportsFeedsService mySportsFeedsService,
+        ScheduleService scheduleService,
+        GamesService gamesService,
+        @Value("${pickem.backfill.batch-days:7}") int batchDays,
+        @Value("${pickem.backfill.concurrency:4}") int concurrency,
+        @Value("${pickem.backfill.requests-per-second:1.0}") double requestsPerSecond,
+        @Value("${pickem.backfill.max-days:400}") int maxDays,
+        @Value("${pickem.backfill.max-attempts:3}") int maxAttempts,
+        @Value("${pickem.backfill.lease-seconds:600}") long leaseSeconds,
+        @Value("${pickem.backfill.retry-delay-seconds:30}") long retryDelaySeconds
+    ) {
+        this(
+            scoreBackfillJobRepository,
+            mySportsFeedsService,
+            scheduleService,
+            gamesService,
+            Executors.newSingleThreadExecutor(),
+            Executors.newFixedThreadPool(concurrency),
+            RateLimiter.create(requestsPerSecond),
+            batchDays,
+            maxDays,
+            maxAttempts,
+            TimeUnit.SECONDS.toMillis(leaseSeconds),
+            TimeUnit.SECONDS.toMillis(retryDelaySeconds));
+    }
+
+    ScoreBackfillServiceImpl(
+        ScoreBackfillJobRepository scoreBackfillJobRepository,
+        MySportsFeedsService mySportsFeedsService,
+        ScheduleService scheduleService,
+        GamesService gamesService,
+        ExecutorService jobExecutor,
+        ExecutorService fetchExecutor,
+        RateLimiter rateLimiter,
+        int batchDays,
+        int maxDays,
+        int maxAttempts,
+        long leaseMillis,
+        long retryDelayMillis
+    ) {
+        this.scoreBackfillJobRepository = scoreBackfillJobRepository;
+        this.mySportsFeedsService = mySportsFeedsService;
+        this.scheduleService = scheduleService;
+        this.gamesService = gamesService;
+        this.jobExecutor = jobExecutor;
+        this.fetchExecutor = fetchExecutor;
+        this.rateLimiter = rateLimiter;
+        this.batchDays = batchDays;
+        this.maxDays = maxDays;
+        this.maxAttempts = maxAttempts;
+        this.leaseMillis = leaseMillis;
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${pickem.backfill.resume-check-ms:60000}")
+    public void resumeBackfillJobs() {
+        // A running job whose lease has lapsed was interrupted by a crash or redeploy. Pick it up from its checkpoint;
+        // if several nodes try at once, the claim in runJob lets only one of them run it.
+        long now = System.currentTimeMillis();
+        for (ScoreBackfillJob job : scoreBackfillJobRepository.findByJobStatus(ScoreBackfillStatus.RUNNING.name())) {
+            if (job.getLeaseExpiresEpoch() != null && job.getLeaseExpiresEpoch() >= now) {
+                continue;
+            }
+
+            if (submit(job.getScoreBackfillJobId())) {
+                log.info("Resuming score backfill job {} from {}", job.getScoreBackfillJobId(), job.getNextDate());
+            }
+        }
+    }
+
+    @Override
+    public ScoreBackfillJobView startBackfill(LocalDate start, LocalDate end) {
+        if (start == null || end == null) {
+            throw new RuntimeException("Both a start and end date are required for a score backfill.");
+        }
+
+        if (end.isBefore(start)) {
+            throw new RuntimeException(String.format("Backfill end date %s is before start date %s", end, start));
+        }
+
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        if (days > maxDays) {
+            throw new RuntimeException(String.format("Backfill covers %d days, but at most %d are allowed.", days, maxDays));
+        }
+
+        long now = System.currentTimeMillis();
+
+        ScoreBackfillJob job = new ScoreBackfillJob();
+        job.setStartDate(Date.valueOf(start));
+        job.setEndDate(Date.valueOf(end));
+        job.setNextDate(Date.valueOf(start));
+        job.setCreatedEpoch(now);
+        job.setUpdatedEpoch(now);
+        job.setLeaseOwner(leaseOwner);
+        job.setLeaseExpiresEpoch(now + leaseMillis);
+
+        job = scoreBackfillJobRepository.save(job);
+
+        log.info("Starting score backfill job {} for {} through {}", job.getScoreBackfillJobId(), start, end);
+
+        submit(job.getScoreBackfillJobId());
+
+        return new ScoreBackfillJobView(job);
+    }
+
+    @Override
+    public ScoreBackfillJobView getBackfillJob(long jobId) {
+        ScoreBackfillJob job = scoreBackfillJobRepository.findOne(jobId);
+        if (job == null) {
+            throw new RuntimeException(String.format("No score backfill job found with ID %d", jobId));
+        }
+
+        return new ScoreBackfillJobView(job);
+    }
+
+    private boolean submit(long jobId) {
+        if (!activeJobs.add(jobId)) {
+            return false;
+        }
+
+        jobExecutor.submit(() -> {
+            try {
+                runJob(jobId);
+            } finally {
+                activeJobs.remove(jobId);
+            }
+        });
+
+        return true;
+    }
+
+    private void runJob(long jobId) {
+        if (!claim(jobId, System.currentTimeMillis())) {
+            log.info("Score backfill job {} is finished or held by another node, not running it here.", jobId);
+            return;
+        }
+
+        ScoreBackfillJob job = scoreBackfillJobRepository.findOne(jobId);
+        if (job == null) {
+            log.warn("Score backfill job {} no longer exists.", jobId);
+            return;
+        }
+
+        try {
+            LocalDate start = job.getStartDate().toLocalDate();
+            LocalDate end = job.getEndDate().toLocalDate();
+            LocalDate next = job.getNextDate().toLocalDate();
+
+            List<LocalDate> dates = getScoreboardDates(next, end);
+            log.info("Backfill job {} has {} dates with games to fetch from {} through {}.", jobId, dates.size(), next, end);
+
+            int attempts = 0;
+            int i = 0;
+            while (i < dates.size()) {
+                List<LocalDate> batch = dates.subList(i, Math.min(i + batchDays, dates.size()));
+
+                Map<LocalDate, CompletableFuture<Scoreboard>> requests = new LinkedHashMap<>();
+                for (LocalDate date : batch) {
+                    // Uncached and at the lowest priority, so a long backfill neither pushes the polled scoreboards
+                    // out of the cache nor uses up the budget they need.
+                    requests.put(date, CompletableFuture.supplyAsync(() -> {
+                        rateLimiter.acquire();
+                        return mySportsFeedsService.fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(date), MySportsFeedsPriority.BACKFILL);
+                    }, fetchExecutor));
+                }
+
+                LocalDate firstFailed = null;
+                boolean refused = false;
+                Map<LocalDate, Scoreboard> scoreboards = new LinkedHashMap<>();
+                for (Map.Entry<LocalDate, CompletableFuture<Scoreboard>> request : requests.entrySet()) {
+                    try {
+                        scoreboards.put(request.getKey(), request.getValue().join());
+                    } catch (CompletionException e) {
+                        log.warn("Backfill job {} unable to retrieve scores for {}: {}", jobId, request.getKey(), e.getCause().getMessage());
+
+                        if (firstFailed == null) {
+                            firstFailed = request.getKey();
+                        }
+
+                        refused |= e.getCause() instanceof MySportsFeedsBackoffException;
+
+                        job.setDatesFailed(job.getDatesFailed() + 1);
+                        job.setLastError(StringUtils.abbreviate(String.format("%s: %s", request.getKey(), e.getCause().getMessage()), 1024));
+                    }
+                }
+
+                // Whatever was fetched is recorded, even past a failed date. Recording is idempotent, so the retry
+                // re-fetching those dates does no harm.
+                List<Game> completed = scheduleService.recordFinalScores(scoreboards);
+                job.setGamesCompleted(job.getGamesCompleted() + completed.size());
+
+                // The checkpoint never moves past a date we failed to fetch.
+                if (firstFailed == null) {
+                    attempts = 0;
+                    i += batch.size();
+                    next = i < dates.size() ? dates.get(i) : end.plusDays(1);
+                } else {
+                    if (!refused) {
+                        attempts++;
+                    }
+
+                    i += batch.indexOf(firstFailed);
+                    next = firstFailed;
+                }
+
+                job.setNextDate(Date.valueOf(next));
+                job.setDatesProcessed((int) ChronoUnit.DAYS.between(start, next));
+
+                if (!checkpoint(job)) {
+                    return;
+                }
+
+                if (refused) {
+                    // MSF wasn't asked at all: the circuit is open or the budget is spent. Both clear up on their
+                    // own, so rather than using up attempts, leave the job running with a lease that lapses after the
+                    // retry delay and let the resume check pick it up again.
+                    park(job);
+                    return;
+                }
+
+                if (attempts >= maxAttempts) {
+                    throw new RuntimeException(
+                        String.format("Unable to retrieve scores for %s after %d attempts. Last error: %s", next, attempts, job.getLastError()));
+                }
+
+                if (firstFailed != null && !pause(jobId, retryDelayMillis * attempts)) {
+                    return;
+                }
+
+                log.info("Backfill job {} processed up to {}, {} games completed so far.", jobId, next, job.getGamesCompleted());
+            }
+
+            job.setNextDate(Date.valueOf(end.plusDays(1)));
+            job.setDatesProcessed((int) ChronoUnit.DAYS.between(start, end) + 1);
+            job.setJobStatus(ScoreBackfillStatus.COMPLETE.name());
+        } catch (Exception e) {
+            log.error("Score backfill job {} failed: {}", jobId, e.getMessage());
+            log.trace("", e);
+
+            // The checkpoint stays at the first date still missing.
+            job.setJobStatus(ScoreBackfillStatus.FAILED.name());
+            job.setLastError(StringUtils.abbreviate(e.getMessage(), 1024));
+        }
+
+        checkpoint(job);
+    }
+
+    /**
+     * The ET dates in [from, to] that have a stored game still without a result. Dates with no games, or only
+     * finished ones, have nothing to fetch.
+     */
+    private List<LocalDate> getScoreboardDates(LocalDate from, LocalDate to) {
+        long start = from.atStartOfDay(EASTERN).toInstant().toEpochMilli();
+        long end = to.plusDays(1).atStartOfDay(EASTERN).toInstant().toEpochMilli() - 1;
+
+        Set<LocalDate> dates =
+            gamesService.findIncompleteGamesBetween(start, end).stream()
+                .map(game -> ScheduleUtil.getScoreboardDate(game.getGameTimeEpoch()))
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        return new ArrayList<>(dates);
+    }
+
+    private void park(ScoreBackfillJob job) {
+        long now = System.currentTimeMillis();
+        log.info("Backfill job {} paused at {} while MSF is unavailable, resuming after {}ms.", job.getScoreBackfillJobId(), job.getNextDate(), retryDelayMillis);
+        scoreBackfillJobRepository.claim(job.getScoreBackfillJobId(), leaseOwner, now, now + retryDelayMillis);
+    }
+
+    /**
+     * Waits before retrying a failed batch. False if interrupted, in which case the job is left running for the resume
+     * check once its lease lapses.
+     */
+    private boolean pause(long jobId, long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Backfill job {} interrupted while waiting to retry.", jobId);
+            return false;
+        }
+    }
+
+    private boolean claim(long jobId, long now) {
+        return scoreBackfillJobRepository.claim(jobId, leaseOwner, now, now + leaseMillis) == 1;
+    }
+
+    /**
+     * Renews the lease and saves the job's progress. If the lease was lost, another node has the job and nothing is
+     * written.
+     */
+    private boolean checkpoint(ScoreBackfillJob job) {
+        long now = System.currentTimeMillis();
+        if (!claim(job.getScoreBackfillJobId(), now)) {
+            log.warn("Score backfill job {} lost its lease to another node, stopping here.", job.getScoreBackfillJobId());
+            return false;
+        }
+
+        job.setLeaseOwner(leaseOwner);
+        job.setLeaseExpiresEpoch(now + leaseMillis);
+        job.setUpdatedEpoch(now);
+
+        scoreBackfillJobRepository.save(job);
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.gci.pickem.service.event;
+
+import com.gci.pickem.data.Game;
+
+public class GameAdded extends GameEvent {
+
+    private final long gameTimeEpoch;
+
+    public GameAdded(Game game) {
+        super(game);
+        this.gameTimeEpoch = game.getGameTimeEpoch();
+    }
+
+    public long getGameTimeEpoch() {
+        return gameTimeEpoch;
+    }
+}
@@ -0,0 +1,44 @@
+package com.gci.pickem.service.event;
+
+import com.gci.pickem.data.Game;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A stored game changed in some way other than its kickoff time, which is a {@link GameRescheduled}.
+ */
+public class GameChanged extends GameEvent {
+
+    public enum Field {
+        WEEK,
+        HOME_TEAM,
+        AWAY_TEAM,
+        SCHEDULE_STATUS,
+        POSTPONED_REASON
+    }
+
+    private final int previousSeason;
+    private final int previousWeek;
+    private final Set<Field> fields;
+
+    public GameChanged(Game game, int previousSeason, int previousWeek, Set<Field> fields) {
+        super(game);
+        this.previousSeason = previousSeason;
+        this.previousWeek = previousWeek;
+        this.fields = Collections.unmodifiableSet(EnumSet.copyOf(fields));
+    }
+
+    public int getPreviousSeason() {
+        return previousSeason;
+    }
+
+    public int getPreviousWeek() {
+        return previousWeek;
+    }
+
+    public Set<Field> getFields() {
+        return fields;
+    }
+}
@@ -0,0 +1,17 @@
+package com.gci.pickem.service.event;
+
+import com.gci.pickem.data.Game;
+
+public class GameCompleted extends GameEvent {
+
+    private final Long winningTeamId;
+
+    public GameCompleted(Game game) {
+        super(game);
+        this.winningTeamId = game.getWinningTeamId();
+    }
+
+    public Long getWinningTeamId() {
+        return winningTeamId;
+    }
+}
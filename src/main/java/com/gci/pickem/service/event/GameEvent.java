@@ -0,0 +1,39 @@
+package com.gci.pickem.service.event;
+
+import com.gci.pickem.data.Game;
+
+public abstract class GameEvent {
+
+    private final long gameId;
+    private final int season;
+    private final int week;
+    private final long occurredAt;
+
+    GameEvent(Game game) {
+        this.gameId = game.getGameId();
+        this.season = game.getSeason();
+        this.week = game.getWeek();
+        this.occurredAt = System.currentTimeMillis();
+    }
+
+    public long getGameId() {
+        return gameId;
+    }
+
+    public int getSeason() {
+        return season;
+    }
+
+    public int getWeek() {
+        return week;
+    }
+
+    public long getOccurredAt() {
+        return occurredAt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[gameId=%d, season=%d, week=%d]", getClass().getSimpleName(), gameId, season, week);
+    }
+}
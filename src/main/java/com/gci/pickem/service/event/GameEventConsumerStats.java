@@ -0,0 +1,72 @@
+package com.gci.pickem.service.event;
+
+public class GameEventConsumerStats {
+
+    private final String name;
+    private final int queueDepth;
+    private final int remainingCapacity;
+    private final long published;
+    private final long processed;
+    private final long failed;
+    private final long dropped;
+    private final long lastLagMillis;
+    private final long maxLagMillis;
+
+    GameEventConsumerStats(
+        String name,
+        int queueDepth,
+        int remainingCapacity,
+        long published,
+        long processed,
+        long failed,
+        long dropped,
+        long lastLagMillis,
+        long maxLagMillis
+    ) {
+        this.name = name;
+        this.queueDepth = queueDepth;
+        this.remainingCapacity = remainingCapacity;
+        this.published = published;
+        this.processed = processed;
+        this.failed = failed;
+        this.dropped = dropped;
+        this.lastLagMillis = lastLagMillis;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getRemainingCapacity() {
+        return remainingCapacity;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+}
@@ -0,0 +1,11 @@
+package com.gci.pickem.service.event;
+
+public interface GameEventListener {
+
+    /**
+     * Name used for the consumer's worker threads and in lag metrics.
+     */
+    String getName();
+
+    void onGameEvent(GameEvent event);
+}
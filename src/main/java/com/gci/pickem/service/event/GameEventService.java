@@ -0,0 +1,16 @@
+package com.gci.pickem.service.event;
+
+import java.util.List;
+
+public interface GameEventService {
+
+    /**
+     * Hands the event to every subscribed consumer. If called inside a transaction, delivery is held
+     * until the transaction commits so consumers never see uncommitted games.
+     */
+    void publish(GameEvent event);
+
+    void subscribe(GameEventListener listener);
+
+    List<GameEventConsumerStats> getConsumerStats();
+}
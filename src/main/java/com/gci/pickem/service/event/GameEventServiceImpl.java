@@ -0,0 +1,169 @@
+package com.gci.pickem.service.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+public class GameEventServiceImpl implements GameEventService {
+    private static final Logger log = LoggerFactory.getLogger(GameEventServiceImpl.class);
+
+    private final int queueCapacity;
+    private final int consumerThreads;
+    private final long publishTimeoutMillis;
+
+    private final List<Consumer> consumers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running = true;
+
+    @Autowired
+    GameEventServiceImpl(
+        @Value("${pickem.events.queue-capacity:1000}") int queueCapacity,
+        @Value("${pickem.events.consumer-threads:1}") int consumerThreads,
+        @Value("${pickem.events.publish-timeout-ms:250}") long publishTimeoutMillis
+    ) {
+        this.queueCapacity = queueCapacity;
+        this.consumerThreads = consumerThreads;
+        this.publishTimeoutMillis = publishTimeoutMillis;
+    }
+
+    @Override
+    public void publish(GameEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Don't let anyone react to a game that might still be rolled back.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    @Override
+    public void subscribe(GameEventListener listener) {
+        Consumer consumer = new Consumer(listener, new ArrayBlockingQueue<>(queueCapacity));
+
+        for (int i = 0; i < consumerThreads; i++) {
+            Thread thread = new Thread(consumer, String.format("GameEvents-%s-%d", listener.getName(), i));
+            thread.setDaemon(true);
+            thread.start();
+
+            consumer.threads.add(thread);
+        }
+
+        consumers.add(consumer);
+
+        log.info("Subscribed {} to game events with {} consumer thread(s).", listener.getName(), consumerThreads);
+    }
+
+    @Override
+    public List<GameEventConsumerStats> getConsumerStats() {
+        return consumers.stream().map(Consumer::getStats).collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        consumers.forEach(consumer -> consumer.threads.forEach(Thread::interrupt));
+    }
+
+    private void dispatch(GameEvent event) {
+        for (Consumer consumer : consumers) {
+            consumer.offer(event);
+        }
+    }
+
+    private class Consumer implements Runnable {
+        private final GameEventListener listener;
+        private final BlockingQueue<GameEvent> queue;
+        private final List<Thread> threads = new ArrayList<>();
+
+        private final AtomicLong published = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong lastLag = new AtomicLong();
+        private final AtomicLong maxLag = new AtomicLong();
+
+        Consumer(GameEventListener listener, BlockingQueue<GameEvent> queue) {
+            this.listener = listener;
+            this.queue = queue;
+        }
+
+        void offer(GameEvent event) {
+            published.incrementAndGet();
+
+            try {
+                // A full queue pushes back on the publisher, but only for so long. The score poll has to finish.
+                if (!queue.offer(event, publishTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    dropped.incrementAndGet();
+                    log.warn("Consumer {} is backed up with {} pending events, dropping {}", listener.getName(), queue.size(), event);
+                }
+            } catch (InterruptedException e) {
+                dropped.incrementAndGet();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                GameEvent event;
+                try {
+                    event = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                if (event == null) {
+                    continue;
+                }
+
+                long lag = System.currentTimeMillis() - event.getOccurredAt();
+                lastLag.set(lag);
+                maxLag.accumulateAndGet(lag, Math::max);
+
+                try {
+                    listener.onGameEvent(event);
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    log.error("Consumer {} failed to process {}: {}", listener.getName(), event, e.getMessage());
+                    log.trace("", e);
+                } finally {
+                    processed.incrementAndGet();
+                }
+            }
+        }
+
+        GameEventConsumerStats getStats() {
+            return new GameEventConsumerStats(
+                listener.getName(),
+                queue.size(),
+                queue.remainingCapacity(),
+                published.get(),
+                processed.get(),
+                failed.get(),
+                dropped.get(),
+                lastLag.get(),
+                maxLag.get());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.gci.pickem.service.event;
+
+import com.gci.pickem.data.Game;
+
+public class GameRescheduled extends GameEvent {
+
+    // Null if the stored game had no kickoff.
+    private final Long previousGameTimeEpoch;
+    private final long gameTimeEpoch;
+
+    public GameRescheduled(Game game, Long previousGameTimeEpoch) {
+        super(game);
+        this.previousGameTimeEpoch = previousGameTimeEpoch;
+        this.gameTimeEpoch = game.getGameTimeEpoch();
+    }
+
+    public Long getPreviousGameTimeEpoch() {
+        return previousGameTimeEpoch;
+    }
+
+    public long getGameTimeEpoch() {
+        return gameTimeEpoch;
+    }
+}
@@ -3,12 +3,26 @@ package com.gci.pickem.service.game;
 import com.gci.pickem.data.Game;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface GamesService {
 
     Game findByExternalId(Integer externalId);
 
+    List<Game> findByExternalIds(Collection<Integer> externalIds);
+
     Game saveGame(Game game);
 
+    List<Game> saveGames(Collection<Game> games);
+
     Collection<Game> findAllBySeasonAndWeek(int season, int week);
+
+    List<Game> findGamesBetween(long start, long end);
+
+    List<Game> findIncompleteGamesBetween(long start, long end);
+
+    /**
+     * @return the first game kicking off after the given epoch, or null if none are scheduled.
+     */
+    Game findNextGameAfter(long epoch);
 }
@@ -2,11 +2,14 @@ package com.gci.pickem.service.game;
 
 import com.gci.pickem.data.Game;
 import com.gci.pickem.repository.GameRepository;
+import com.google.common.collect.Lists;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 @Service
 public class GamesServiceImpl implements GamesService {
@@ -25,14 +28,44 @@ public class GamesServiceImpl implements GamesService {
        return gameRepository.findByExternalId(externalId);
     }
 
+    @Override
+    public List<Game> findByExternalIds(Collection<Integer> externalIds) {
+        if (externalIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return gameRepository.findByExternalIdIn(externalIds);
+    }
+
     @Override
     @Transactional
     public Game saveGame(Game game) {
         return gameRepository.save(game);
     }
 
+    @Override
+    @Transactional
+    public List<Game> saveGames(Collection<Game> games) {
+        return Lists.newArrayList(gameRepository.save(games));
+    }
+
     @Override
     public Collection<Game> findAllBySeasonAndWeek(int season, int week) {
         return gameRepository.findAllBySeasonAndWeek(season, week);
     }
+
+    @Override
+    public List<Game> findGamesBetween(long start, long end) {
+        return gameRepository.findByGameTimeEpochBetween(start, end);
+    }
+
+    @Override
+    public List<Game> findIncompleteGamesBetween(long start, long end) {
+        return gameRepository.findIncompleteGamesBetween(start, end);
+    }
+
+    @Override
+    public Game findNextGameAfter(long epoch) {
+        return gameRepository.findFirstByGameTimeEpochGreaterThanOrderByGameTimeEpochAsc(epoch);
+    }
 }
@@ -0,0 +1,22 @@
+package com.gci.pickem.service.livescore;
+
+import com.gci.pickem.model.LiveGameScore;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+public interface LiveScoreService {
+
+    /**
+     * Registers a new client. The client is sent the current snapshot right away and then only the
+     * scores that change on each poll.
+     */
+    SseEmitter subscribe();
+
+    /**
+     * Polls MSF once for every date with a game that could be in progress and broadcasts any changes.
+     */
+    void pollLiveScores();
+
+    Collection<LiveGameScore> getCurrentScores();
+}
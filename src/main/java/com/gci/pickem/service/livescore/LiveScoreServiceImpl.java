@@ -0,0 +1,181 @@
+package com.gci.pickem.service.livescore;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.model.LiveGameScore;
+import com.gci.pickem.model.mysportsfeeds.GameScore;
+import com.gci.pickem.model.mysportsfeeds.Scoreboard;
+import com.gci.pickem.service.game.GamesService;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsBackoffException;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsService;
+import org.apache.commons.collections4.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Service
+public class LiveScoreServiceImpl implements LiveScoreService {
+    private static final Logger log = LoggerFactory.getLogger(LiveScoreServiceImpl.class);
+
+    // Long enough to cover overtime and weather delays.
+    private static final long GAME_WINDOW_MILLIS = TimeUnit.HOURS.toMillis(5);
+
+    private MySportsFeedsService mySportsFeedsService;
+    private GamesService gamesService;
+    private Supplier<SseEmitter> emitterFactory;
+
+    @Value("${pickem.scores.live.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMillis;
+
+    private final Map<Long, LiveGameScore> snapshot = new ConcurrentHashMap<>();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    LiveScoreServiceImpl(
+        MySportsFeedsService mySportsFeedsService,
+        GamesService gamesService
+    ) {
+        this.mySportsFeedsService = mySportsFeedsService;
+        this.gamesService = gamesService;
+        this.emitterFactory = () -> new SseEmitter(emitterTimeoutMillis);
+    }
+
+    LiveScoreServiceImpl(
+        MySportsFeedsService mySportsFeedsService,
+        GamesService gamesService,
+        Supplier<SseEmitter> emitterFactory
+    ) {
+        this.mySportsFeedsService = mySportsFeedsService;
+        this.gamesService = gamesService;
+        this.emitterFactory = emitterFactory;
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        SseEmitter emitter = emitterFactory.get();
+        emitter.onCompletion(() -> remove(emitter));
+        emitter.onTimeout(() -> remove(emitter));
+
+        emitters.add(emitter);
+
+        if (!snapshot.isEmpty()) {
+            send(emitter, new ArrayList<>(snapshot.values()));
+        }
+
+        return emitter;
+    }
+
+    @Override
+    public void pollLiveScores() {
+        if (emitters.isEmpty()) {
+            // Nobody is listening, don't spend MSF requests on it.
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Game> games = gamesService.findGamesBetween(now - GAME_WINDOW_MILLIS, now);
+        if (games.isEmpty()) {
+            snapshot.clear();
+            return;
+        }
+
+        Map<Integer, Game> gamesByExternalId = new HashMap<>();
+        Map<LocalDate, Instant> scoreboardDates = new TreeMap<>();
+        for (Game game : games) {
+            gamesByExternalId.put(game.getExternalId(), game);
+
+            Instant kickoff = Instant.ofEpochMilli(game.getGameTimeEpoch());
+            scoreboardDates.putIfAbsent(kickoff.atZone(ZoneId.of("America/New_York")).toLocalDate(), kickoff);
+        }
+
+        List<LiveGameScore> changed = new ArrayList<>();
+        for (Instant date : scoreboardDates.values()) {
+            Scoreboard scoreboard;
+            try {
+                scoreboard = mySportsFeedsService.getLiveGameScores(date);
+            } catch (MySportsFeedsBackoffException e) {
+                // The other dates would be refused too. Try again next poll.
+                log.info("MSF is unavailable, skipping the rest of this live score poll: {}", e.getMessage());
+                break;
+            } catch (RuntimeException e) {
+                log.warn("Unable to retrieve live scores for {}: {}", date, e.getMessage());
+                continue;
+            }
+
+            if (scoreboard == null || CollectionUtils.isEmpty(scoreboard.getGameScores())) {
+                continue;
+            }
+
+            for (GameScore gameScore : scoreboard.getGameScores()) {
+                Game game = gamesByExternalId.get(gameScore.getGame().getId());
+                if (game == null) {
+                    continue;
+                }
+
+                LiveGameScore current = toLiveGameScore(game, gameScore);
+                LiveGameScore previous = snapshot.put(game.getGameId(), current);
+                if (!current.equals(previous)) {
+                    changed.add(current);
+                }
+            }
+        }
+
+        // Games that have aged out of the window don't need to be tracked anymore.
+        snapshot.keySet().retainAll(games.stream().map(Game::getGameId).collect(Collectors.toSet()));
+
+        if (!changed.isEmpty()) {
+            log.debug("Broadcasting {} changed live scores to {} clients.", changed.size(), emitters.size());
+            emitters.forEach(emitter -> send(emitter, changed));
+        }
+    }
+
+    @Override
+    public Collection<LiveGameScore> getCurrentScores() {
+        return Collections.unmodifiableCollection(snapshot.values());
+    }
+
+    int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    private LiveGameScore toLiveGameScore(Game game, GameScore gameScore) {
+        return new LiveGameScore(
+            game.getGameId(),
+            gameScore.getHomeScore() == null ? 0 : gameScore.getHomeScore(),
+            gameScore.getAwayScore() == null ? 0 : gameScore.getAwayScore(),
+            "true".equalsIgnoreCase(gameScore.getIsInProgress()),
+            "true".equalsIgnoreCase(gameScore.getIsCompleted()));
+    }
+
+    private void send(SseEmitter emitter, List<LiveGameScore> scores) {
+        try {
+            emitter.send(SseEmitter.event().name("scores").data(scores, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away.
+            log.debug("Dropping live score client: {}", e.getMessage());
+            remove(emitter);
+        }
+    }
+
+    private void remove(SseEmitter emitter) {
+        // Polling stops with the last client, so the snapshot stops being kept current. Drop it rather than hand
+        // the next subscriber scores from whenever that was.
+        if (emitters.remove(emitter) && emitters.isEmpty()) {
+            snapshot.clear();
+        }
+    }
+}
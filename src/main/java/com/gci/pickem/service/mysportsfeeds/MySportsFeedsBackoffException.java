@@ -0,0 +1,12 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+/**
+ * Unchecked form of {@link MySportsFeedsUnavailableException} for callers of {@link MySportsFeedsService}. MSF wasn't
+ * contacted at all, so rather than retrying straight away, callers should wait for their next scheduled run.
+ */
+public class MySportsFeedsBackoffException extends RuntimeException {
+
+    public MySportsFeedsBackoffException(String message, MySportsFeedsUnavailableException cause) {
+        super(message, cause);
+    }
+}
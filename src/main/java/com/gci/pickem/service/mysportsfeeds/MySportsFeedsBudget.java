@@ -0,0 +1,113 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.gci.pickem.repository.RequestBudgetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MSF request budget shared by every node. The count for the current fixed window lives in Postgres, so adding
+ * nodes doesn't multiply what we send. Each {@link MySportsFeedsPriority} may use its share of the window; a request
+ * past its share is deferred, not sent.
+ *
+ * If the budget row can't be reached the request is let through; missing final scores is worse than going over.
+ */
+@Component
+public class MySportsFeedsBudget {
+    private static final Logger log = LoggerFactory.getLogger(MySportsFeedsBudget.class);
+
+    private static final String BUDGET_NAME = "mysportsfeeds";
+
+    private final RequestBudgetRepository repository;
+    private final int requestsPerWindow;
+    private final long windowMillis;
+
+    private final Map<MySportsFeedsPriority, AtomicLong> granted = new EnumMap<>(MySportsFeedsPriority.class);
+    private final Map<MySportsFeedsPriority, AtomicLong> deferred = new EnumMap<>(MySportsFeedsPriority.class);
+
+    @Autowired
+    MySportsFeedsBudget(
+        RequestBudgetRepository repository,
+        @Value("${mysportsfeeds.budget.requests-per-window:250}") int requestsPerWindow,
+        @Value("${mysportsfeeds.budget.window-seconds:300}") long windowSeconds
+    ) {
+        this.repository = repository;
+        this.requestsPerWindow = requestsPerWindow;
+        this.windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+
+        for (MySportsFeedsPriority priority : MySportsFeedsPriority.values()) {
+            granted.put(priority, new AtomicLong());
+            deferred.put(priority, new AtomicLong());
+        }
+    }
+
+    /**
+     * Whether a request at the given priority may be sent now. A zero or negative budget means unlimited.
+     */
+    public boolean tryAcquire(MySportsFeedsPriority priority) {
+        if (requestsPerWindow <= 0) {
+            granted.get(priority).incrementAndGet();
+            return true;
+        }
+
+        boolean claimed;
+        try {
+            claimed = repository.tryClaim(BUDGET_NAME, getWindowStart(), priority.getLimit(requestsPerWindow));
+        } catch (DataAccessException e) {
+            log.warn("Unable to check the MSF request budget, allowing the request: {}", e.getMessage());
+            claimed = true;
+        }
+
+        (claimed ? granted : deferred).get(priority).incrementAndGet();
+        return claimed;
+    }
+
+    public MySportsFeedsBudgetStats getStats() {
+        long windowStart = getWindowStart();
+
+        MySportsFeedsBudgetStats stats = new MySportsFeedsBudgetStats();
+        stats.setRequestsPerWindow(requestsPerWindow);
+        stats.setWindowSeconds(TimeUnit.MILLISECONDS.toSeconds(windowMillis));
+        stats.setWindowStartEpoch(windowStart);
+
+        if (requestsPerWindow > 0) {
+            try {
+                stats.setUsed(repository.getUsed(BUDGET_NAME, windowStart));
+            } catch (DataAccessException e) {
+                log.warn("Unable to read the MSF request budget: {}", e.getMessage());
+            }
+        }
+
+        List<MySportsFeedsBudgetStats.PriorityUsage> priorities = new ArrayList<>();
+        for (MySportsFeedsPriority priority : MySportsFeedsPriority.values()) {
+            priorities.add(new MySportsFeedsBudgetStats.PriorityUsage(
+                priority.name(),
+                requestsPerWindow > 0 ? priority.getLimit(requestsPerWindow) : 0,
+                granted.get(priority).get(),
+                deferred.get(priority).get()));
+        }
+
+        stats.setPriorities(priorities);
+
+        return stats;
+    }
+
+    private long getWindowStart() {
+        if (windowMillis <= 0) {
+            return 0;
+        }
+
+        long now = System.currentTimeMillis();
+        return now - now % windowMillis;
+    }
+}
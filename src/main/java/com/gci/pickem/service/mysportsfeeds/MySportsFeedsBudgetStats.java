@@ -0,0 +1,89 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MySportsFeedsBudgetStats {
+
+    private int requestsPerWindow;
+    private long windowSeconds;
+    private long windowStartEpoch;
+    private int used;
+    private List<PriorityUsage> priorities = new ArrayList<>();
+
+    public int getRequestsPerWindow() {
+        return requestsPerWindow;
+    }
+
+    public void setRequestsPerWindow(int requestsPerWindow) {
+        this.requestsPerWindow = requestsPerWindow;
+    }
+
+    public long getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(long windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public long getWindowStartEpoch() {
+        return windowStartEpoch;
+    }
+
+    public void setWindowStartEpoch(long windowStartEpoch) {
+        this.windowStartEpoch = windowStartEpoch;
+    }
+
+    /**
+     * Requests made in the current window by every node.
+     */
+    public int getUsed() {
+        return used;
+    }
+
+    public void setUsed(int used) {
+        this.used = used;
+    }
+
+    public List<PriorityUsage> getPriorities() {
+        return priorities;
+    }
+
+    public void setPriorities(List<PriorityUsage> priorities) {
+        this.priorities = priorities;
+    }
+
+    /**
+     * Per priority, how far into the window it may go and what this node has granted and deferred since startup.
+     */
+    public static class PriorityUsage {
+        private final String priority;
+        private final int limit;
+        private final long granted;
+        private final long deferred;
+
+        public PriorityUsage(String priority, int limit, long granted, long deferred) {
+            this.priority = priority;
+            this.limit = limit;
+            this.granted = granted;
+            this.deferred = deferred;
+        }
+
+        public String getPriority() {
+            return priority;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public long getGranted() {
+            return granted;
+        }
+
+        public long getDeferred() {
+            return deferred;
+        }
+    }
+}
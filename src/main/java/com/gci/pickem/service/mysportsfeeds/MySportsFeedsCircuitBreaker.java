@@ -0,0 +1,120 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops sending requests to MSF once it has failed enough times in a row. After a cool-down a single probe request
+ * is let through; if it succeeds the circuit closes again, if it fails the cool-down starts over.
+ */
+@Component
+public class MySportsFeedsCircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(MySportsFeedsCircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long opened;
+
+    @Autowired
+    MySportsFeedsCircuitBreaker(
+        @Value("${mysportsfeeds.breaker.failure-threshold:5}") int failureThreshold,
+        @Value("${mysportsfeeds.breaker.open-seconds:30}") long openSeconds
+    ) {
+        this(failureThreshold, TimeUnit.SECONDS.toMillis(openSeconds), System::currentTimeMillis);
+    }
+
+    MySportsFeedsCircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether a request may go out now. Every call that returns true must be followed by {@link #onSuccess()} or
+     * {@link #onFailure()}.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() - openedAt < openMillis) {
+                    return false;
+                }
+
+                log.info("MSF circuit half-open, sending a probe request.");
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * Hands back a permit from {@link #tryAcquire()} that ended up not being used, without counting a result.
+     */
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("MSF circuit closed.");
+        }
+
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            log.warn("MSF circuit open after {} consecutive failures, retrying in {}ms.", consecutiveFailures, openMillis);
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            opened++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Number of times the circuit has opened.
+     */
+    public synchronized long getOpenedCount() {
+        return opened;
+    }
+}
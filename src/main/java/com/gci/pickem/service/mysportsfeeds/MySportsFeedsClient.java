@@ -0,0 +1,521 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP transport for MySportsFeeds. Connections are pooled and kept alive between polls, every request asks
+ * for a gzipped body, and the body is handed to the caller as a decompressing stream rather than a String.
+ *
+ * Requests go through a bulkhead (a bounded number in flight at once), a {@link MySportsFeedsCircuitBreaker} and
+ * the cluster-wide {@link MySportsFeedsBudget}. A request turned away by any of them gets the last response we have
+ * for its URL, or fails immediately with {@link MySportsFeedsUnavailableException}, rather than waiting on a
+ * struggling MSF or spending budget we don't have.
+ */
+@Component
+public class MySportsFeedsClient {
+    private static final Logger log = LoggerFactory.getLogger(MySportsFeedsClient.class);
+
+    @FunctionalInterface
+    public interface ResponseBodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ShortCircuit<T> {
+        T apply(HttpResponse response) throws IOException;
+    }
+
+    private final CloseableHttpClient httpClient;
+    private final MySportsFeedsResponseStore store;
+    private final long storeReuseMillis;
+    private final MySportsFeedsCircuitBreaker circuitBreaker;
+    private final MySportsFeedsBudget budget;
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitMillis;
+
+    // Validators and the object parsed from the last 200 for each URL, so a 304 costs no parsing at all.
+    private final Cache<String, ValidatedResponse> validatedResponses = CacheBuilder.newBuilder().maximumSize(1000).build();
+
+    // URLs requested since startup. Only the first request for a URL may be answered from the store unasked.
+    private final Set<String> requestedUrls = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong conditionalRequests = new AtomicLong();
+    private final AtomicLong notModifiedResponses = new AtomicLong();
+    private final AtomicLong storedResponses = new AtomicLong();
+    private final AtomicLong staleResponses = new AtomicLong();
+    private final AtomicLong circuitRejections = new AtomicLong();
+    private final AtomicLong bulkheadRejections = new AtomicLong();
+
+    @Autowired
+    MySportsFeedsClient(
+        @Value("${mysportsfeeds.username}") String username,
+        @Value("${mysportsfeeds.password}") String password,
+        @Value("${mysportsfeeds.http.connect-timeout-ms:5000}") int connectTimeoutMillis,
+        @Value("${mysportsfeeds.http.read-timeout-ms:20000}") int readTimeoutMillis,
+        @Value("${mysportsfeeds.http.max-connections:8}") int maxConnections,
+        MySportsFeedsResponseStore store,
+        @Value("${mysportsfeeds.store.reuse-seconds:120}") long storeReuseSeconds,
+        MySportsFeedsCircuitBreaker circuitBreaker,
+        MySportsFeedsBudget budget,
+        @Value("${mysportsfeeds.bulkhead.max-concurrent:4}") int bulkheadMaxConcurrent,
+        @Value("${mysportsfeeds.bulkhead.wait-ms:2000}") long bulkheadWaitMillis
+    ) {
+        this.store = store;
+        this.storeReuseMillis = TimeUnit.SECONDS.toMillis(storeReuseSeconds);
+        this.circuitBreaker = circuitBreaker;
+        this.budget = budget;
+        this.bulkhead = new Semaphore(bulkheadMaxConcurrent);
+        this.bulkheadWaitMillis = bulkheadWaitMillis;
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        RequestConfig requestConfig =
+            RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setConnectionRequestTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                .build();
+
+        String credentials = Base64.getEncoder().encodeToString(String.format("%s:%s", username, password).getBytes(StandardCharsets.UTF_8));
+
+        this.httpClient =
+            HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setDefaultHeaders(Arrays.asList(
+                    new BasicHeader(HttpHeaders.AUTHORIZATION, "Basic " + credentials),
+                    new BasicHeader(HttpHeaders.ACCEPT_ENCODING, "gzip")))
+                // We decode gzip ourselves so it streams straight into the reader.
+                .disableContentCompression()
+                .build();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    public <T> T get(String url, ResponseBodyReader<T> reader) throws IOException {
+        return execute(new HttpGet(url), reader);
+    }
+
+    /**
+     * Like {@link #get}, but remembers the ETag and Last-Modified of each response and sends them back on the next
+     * request for the same URL. When MSF answers 304 the previously parsed object is returned as-is.
+     *
+     * When there are no validators in memory (first request since startup, MSF sent none, or the entry was evicted)
+     * they come from the response store instead. MSF is always asked.
+     */
+    public <T> T getConditional(String url, Class<T> type, ResponseBodyReader<T> reader) throws IOException {
+        return getConditional(url, type, reader, false);
+    }
+
+    /**
+     * As {@link #getConditional(String, Class, ResponseBodyReader)}. With reuseStored, the first request for a URL
+     * since startup is answered from a stored response that's only a few minutes old without asking MSF at all, so
+     * a redeploy doesn't hammer the API. Only for data that can stand being that stale; never for scores.
+     */
+    public <T> T getConditional(String url, Class<T> type, ResponseBodyReader<T> reader, boolean reuseStored) throws IOException {
+        HttpGet request = new HttpGet(url);
+
+        boolean firstRequest = requestedUrls.add(url);
+
+        ValidatedResponse previous = validatedResponses.getIfPresent(url);
+        MySportsFeedsResponseStore.StoredResponse stored = null;
+        if (previous != null && type.isInstance(previous.value)) {
+            setValidators(request, previous.etag, previous.lastModified);
+        } else {
+            previous = null;
+
+            if (store.getMode().isRecording()) {
+                stored = store.getLatest(url).orElse(null);
+                if (reuseStored && firstRequest && stored != null && System.currentTimeMillis() - stored.getFetchedAt() < storeReuseMillis) {
+                    return fromStore(url, stored, reader);
+                }
+
+                if (stored != null) {
+                    setValidators(request, stored.getEtag(), stored.getLastModified());
+                }
+            }
+        }
+
+        ValidatedResponse latest = previous;
+        MySportsFeedsResponseStore.StoredResponse latestStored = stored;
+        T value = execute(request, () -> latest == null ? null : type.cast(latest.value), response -> {
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_NOT_MODIFIED) {
+                return null;
+            }
+
+            if (latest != null) {
+                notModifiedResponses.incrementAndGet();
+                return type.cast(latest.value);
+            }
+
+            if (latestStored != null) {
+                notModifiedResponses.incrementAndGet();
+
+                T parsed = fromStore(url, latestStored, reader);
+                validatedResponses.put(url, new ValidatedResponse(latestStored.getEtag(), latestStored.getLastModified(), parsed));
+                return parsed;
+            }
+
+            return null;
+        }, reader, (response, parsed) -> {
+            String etag = getHeaderValue(response, HttpHeaders.ETAG);
+            String lastModified = getHeaderValue(response, HttpHeaders.LAST_MODIFIED);
+            if (etag != null || lastModified != null) {
+                validatedResponses.put(url, new ValidatedResponse(etag, lastModified, parsed));
+            } else {
+                validatedResponses.invalidate(url);
+            }
+        });
+
+        return value;
+    }
+
+    public MySportsFeedsStats getStats() {
+        MySportsFeedsStats stats = new MySportsFeedsStats();
+
+        stats.setRequests(requests.get());
+        stats.setConditionalRequests(conditionalRequests.get());
+        stats.setNotModifiedResponses(notModifiedResponses.get());
+        stats.setStoreMode(store.getMode().name());
+        stats.setStoredResponses(storedResponses.get());
+        stats.setStoreUrls(store.getUrlCount());
+        stats.setStoreSegments(store.getSegmentCount());
+        stats.setCircuitState(circuitBreaker.getState().name());
+        stats.setCircuitOpenedCount(circuitBreaker.getOpenedCount());
+        stats.setCircuitRejections(circuitRejections.get());
+        stats.setBulkheadRejections(bulkheadRejections.get());
+        stats.setBulkheadAvailable(bulkhead.availablePermits());
+        stats.setStaleResponses(staleResponses.get());
+
+        return stats;
+    }
+
+    private <T> T execute(HttpGet request, ResponseBodyReader<T> reader) throws IOException {
+        return execute(request, () -> null, response -> null, reader, (response, parsed) -> { });
+    }
+
+    private <T> T execute(
+        HttpGet request,
+        Supplier<T> stale,
+        ShortCircuit<T> shortCircuit,
+        ResponseBodyReader<T> reader,
+        BiConsumer<HttpResponse, T> onParsed
+    ) throws IOException {
+        String url = request.getURI().toString();
+
+        if (store.getMode() == MySportsFeedsResponseStore.Mode.REPLAY) {
+            MySportsFeedsResponseStore.StoredResponse stored =
+                store.getLatest(url).orElseThrow(() -> new IOException(String.format("No stored response to replay for request URL %s", url)));
+
+            return fromStore(url, stored, reader);
+        }
+
+        if (!acquireBulkhead()) {
+            bulkheadRejections.incrementAndGet();
+            return getStale(url, stale, reader, "too many requests already in flight");
+        }
+
+        try {
+            if (!circuitBreaker.tryAcquire()) {
+                circuitRejections.incrementAndGet();
+                return getStale(url, stale, reader, "circuit is open");
+            }
+
+            MySportsFeedsPriority priority = MySportsFeedsPriority.current();
+            if (!budget.tryAcquire(priority)) {
+                circuitBreaker.release();
+                return getStale(url, stale, reader, String.format("over the %s request budget", priority));
+            }
+
+            T parsed;
+            try {
+                parsed = send(request, shortCircuit, reader, onParsed);
+            } catch (IOException | RuntimeException e) {
+                if (e instanceof UnexpectedStatusException && !((UnexpectedStatusException) e).isServerFailure()) {
+                    // MSF answered, it just didn't like the request.
+                    circuitBreaker.onSuccess();
+                } else {
+                    circuitBreaker.onFailure();
+                }
+
+                if (e instanceof IOException && store.getMode() == MySportsFeedsResponseStore.Mode.FALLBACK) {
+                    Optional<MySportsFeedsResponseStore.StoredResponse> stored = store.getLatest(url);
+                    if (stored.isPresent()) {
+                        log.warn("Request to {} failed ({}), falling back to response stored at {}", url, e.getMessage(), Instant.ofEpochMilli(stored.get().getFetchedAt()));
+                        return fromStore(url, stored.get(), reader);
+                    }
+                }
+
+                throw e;
+            }
+
+            circuitBreaker.onSuccess();
+            return parsed;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private <T> T send(
+        HttpGet request,
+        ShortCircuit<T> shortCircuit,
+        ResponseBodyReader<T> reader,
+        BiConsumer<HttpResponse, T> onParsed
+    ) throws IOException {
+        long start = System.currentTimeMillis();
+        String url = request.getURI().toString();
+
+        requests.incrementAndGet();
+
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            HttpEntity entity = response.getEntity();
+
+            T existing = shortCircuit.apply(response);
+            if (existing != null) {
+                EntityUtils.consumeQuietly(entity);
+                return existing;
+            }
+
+            int status = response.getStatusLine().getStatusCode();
+            if (status != HttpStatus.SC_OK) {
+                EntityUtils.consumeQuietly(entity);
+                throw new UnexpectedStatusException(status, url);
+            }
+
+            if (entity == null) {
+                throw new IOException(String.format("Empty response body for request URL %s", url));
+            }
+
+            // Closing the fully-read stream hands the connection back to the pool.
+            T parsed;
+            if (store.getMode().isRecording()) {
+                byte[] recorded;
+                try (RecordingInputStream body = new RecordingInputStream(decode(entity))) {
+                    parsed = reader.read(body);
+                    recorded = body.finish();
+                }
+
+                try {
+                    store.put(url, start, getHeaderValue(response, HttpHeaders.ETAG), getHeaderValue(response, HttpHeaders.LAST_MODIFIED), recorded);
+                } catch (IOException e) {
+                    log.warn("Failed to store response for {}: {}", url, e.getMessage());
+                }
+            } else {
+                try (InputStream body = decode(entity)) {
+                    parsed = reader.read(body);
+                }
+            }
+
+            onParsed.accept(response, parsed);
+
+            return parsed;
+        } finally {
+            log.debug("Request to {} took {}ms", url, System.currentTimeMillis() - start);
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * The last response we have for the URL, for when MSF isn't being asked: the parsed object from the last
+     * conditional request, or failing that whatever the response store has.
+     */
+    private <T> T getStale(String url, Supplier<T> stale, ResponseBodyReader<T> reader, String reason) throws IOException {
+        T value = stale.get();
+        if (value != null) {
+            staleResponses.incrementAndGet();
+            log.warn("Not requesting {} ({}), serving the last response instead.", url, reason);
+            return value;
+        }
+
+        if (store.getMode().isRecording()) {
+            Optional<MySportsFeedsResponseStore.StoredResponse> stored = store.getLatest(url);
+            if (stored.isPresent()) {
+                staleResponses.incrementAndGet();
+                log.warn("Not requesting {} ({}), serving response stored at {}.", url, reason, Instant.ofEpochMilli(stored.get().getFetchedAt()));
+                return fromStore(url, stored.get(), reader);
+            }
+        }
+
+        throw new MySportsFeedsUnavailableException(String.format("Not requesting %s (%s) and no earlier response to serve", url, reason));
+    }
+
+    private <T> T fromStore(String url, MySportsFeedsResponseStore.StoredResponse stored, ResponseBodyReader<T> reader) throws IOException {
+        storedResponses.incrementAndGet();
+        log.debug("Serving {} from response stored at {}", url, Instant.ofEpochMilli(stored.getFetchedAt()));
+
+        try (InputStream body = stored.openBody()) {
+            return reader.read(body);
+        }
+    }
+
+    private void setValidators(HttpGet request, String etag, String lastModified) {
+        if (etag != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+
+        if (lastModified != null) {
+            request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+
+        if (etag != null || lastModified != null) {
+            conditionalRequests.incrementAndGet();
+        }
+    }
+
+    private String getHeaderValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    private InputStream decode(HttpEntity entity) throws IOException {
+        InputStream content = entity.getContent();
+
+        Header encoding = entity.getContentEncoding();
+        if (encoding != null && "gzip".equalsIgnoreCase(encoding.getValue())) {
+            return new GZIPInputStream(content);
+        }
+
+        return content;
+    }
+
+    /**
+     * Copies everything read through it into a gzipped buffer for the response store.
+     */
+    private static class RecordingInputStream extends FilterInputStream {
+        private final ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+        private final GZIPOutputStream gzip;
+
+        RecordingInputStream(InputStream in) throws IOException {
+            super(in);
+            this.gzip = new GZIPOutputStream(recorded);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                gzip.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int count = super.read(bytes, offset, length);
+            if (count > 0) {
+                gzip.write(bytes, offset, count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[8192];
+            long skipped = 0;
+            while (skipped < n) {
+                int count = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (count < 0) {
+                    break;
+                }
+                skipped += count;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        /**
+         * Reads whatever the reader left behind and returns the complete gzipped body.
+         */
+        byte[] finish() throws IOException {
+            byte[] buffer = new byte[8192];
+            while (read(buffer, 0, buffer.length) >= 0) {
+                // Drain.
+            }
+
+            gzip.close();
+            return recorded.toByteArray();
+        }
+    }
+
+    private static class UnexpectedStatusException extends IOException {
+        private final int status;
+
+        UnexpectedStatusException(int status, String url) {
+            super(String.format("Unexpected HTTP status %d for request URL %s", status, url));
+            this.status = status;
+        }
+
+        boolean isServerFailure() {
+            return status >= 500 || status == 429;
+        }
+    }
+
+    private static class ValidatedResponse {
+        private final String etag;
+        private final String lastModified;
+        private final Object value;
+
+        ValidatedResponse(String etag, String lastModified, Object value) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+    }
+}
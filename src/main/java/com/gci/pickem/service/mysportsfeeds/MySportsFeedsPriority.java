@@ -0,0 +1,59 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+/**
+ * Who an MSF request is for, which decides how much of the request budget it may use. Lower priorities stop short
+ * of the full budget so there's always room left for final scores.
+ *
+ * The priority travels with the thread: wrap the calls in {@link #enter()}. Requests made outside of any scope
+ * are treated as user schedule loads.
+ */
+public enum MySportsFeedsPriority {
+    FINAL_SCORES(1.0),
+    USER_SCHEDULE(0.8),
+    LIVE_SCORES(0.6),
+    PREFETCH(0.5),
+    BACKFILL(0.4);
+
+    private static final ThreadLocal<MySportsFeedsPriority> CURRENT = new ThreadLocal<>();
+
+    private final double budgetShare;
+
+    MySportsFeedsPriority(double budgetShare) {
+        this.budgetShare = budgetShare;
+    }
+
+    public int getLimit(int requestsPerWindow) {
+        return (int) (requestsPerWindow * budgetShare);
+    }
+
+    public static MySportsFeedsPriority current() {
+        MySportsFeedsPriority priority = CURRENT.get();
+        return priority == null ? USER_SCHEDULE : priority;
+    }
+
+    /**
+     * Makes this the current thread's priority until the returned scope is closed.
+     */
+    public Scope enter() {
+        MySportsFeedsPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous);
+    }
+
+    public static class Scope implements AutoCloseable {
+        private final MySportsFeedsPriority previous;
+
+        private Scope(MySportsFeedsPriority previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
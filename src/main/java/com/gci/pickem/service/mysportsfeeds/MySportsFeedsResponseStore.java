@@ -0,0 +1,451 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Durable copy of every MSF response body, so a restart doesn't mean re-downloading everything and we still have
+ * something to serve when MSF is down.
+ *
+ * Bodies are gzipped and appended to segment files in the store directory, and each append is forced to disk before
+ * it's indexed. Each record carries its own URL and fetch time, so the in-memory index (the latest record for each
+ * URL) is rebuilt by scanning the segments on startup. Reads go through a memory map of the segment. Once there are
+ * more than max-segments files the oldest is deleted.
+ */
+@Component
+public class MySportsFeedsResponseStore {
+    private static final Logger log = LoggerFactory.getLogger(MySportsFeedsResponseStore.class);
+
+    public enum Mode {
+        // Nothing is read or written.
+        OFF,
+        // Every 200 is written, and stored validators are used after a restart.
+        RECORD,
+        // As RECORD, and the latest stored body is served when MSF can't be reached.
+        FALLBACK,
+        // MSF is never called, every response comes from the store.
+        REPLAY;
+
+        boolean isRecording() {
+            return this == RECORD || this == FALLBACK;
+        }
+    }
+
+    private static final int MAGIC = 0x4D534652;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".msf";
+
+    private final Mode mode;
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final int maxSegments;
+    private final long replayAt;
+
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+
+    private Segment active;
+
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+
+    @Autowired
+    MySportsFeedsResponseStore(
+        @Value("${mysportsfeeds.store.mode:off}") String mode,
+        @Value("${mysportsfeeds.store.directory:msf-store}") String directory,
+        @Value("${mysportsfeeds.store.max-segment-bytes:67108864}") long maxSegmentBytes,
+        @Value("${mysportsfeeds.store.max-segments:16}") int maxSegments,
+        @Value("${mysportsfeeds.store.replay-at-epoch:0}") long replayAt
+    ) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        this.directory = Paths.get(directory);
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegments = maxSegments;
+        this.replayAt = replayAt;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (mode == Mode.OFF) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files =
+                list.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .collect(Collectors.toList());
+        }
+
+        for (Path file : files) {
+            long id = getSegmentId(file);
+            if (id < 0) {
+                continue;
+            }
+
+            Segment segment = new Segment(id, file, FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            segments.put(id, segment);
+            scan(segment);
+        }
+
+        // Carry on appending to the newest segment rather than starting another one on every restart.
+        if (!segments.isEmpty()) {
+            active = segments.lastEntry().getValue();
+        }
+
+        log.info("Opened MSF response store in {} mode at {} with {} segments and {} URLs", mode, directory.toAbsolutePath(), segments.size(), index.size());
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+
+        segments.clear();
+        index.clear();
+        active = null;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * The most recent response stored for the URL. In replay mode this is the latest one fetched at or before the
+     * configured replay time, so repeated runs see exactly the same data.
+     */
+    public Optional<StoredResponse> getLatest(String url) {
+        if (mode == Mode.OFF) {
+            return Optional.empty();
+        }
+
+        Location location = index.get(url);
+        if (location == null) {
+            return Optional.empty();
+        }
+
+        reads.incrementAndGet();
+        return Optional.of(new StoredResponse(url, location));
+    }
+
+    /**
+     * Appends a response. The body must already be gzipped.
+     */
+    public synchronized void put(String url, long fetchedAt, String etag, String lastModified, byte[] gzippedBody) throws IOException {
+        if (!mode.isRecording()) {
+            return;
+        }
+
+        byte[] urlBytes = url.getBytes(StandardCharsets.UTF_8);
+        byte[] etagBytes = etag == null ? null : etag.getBytes(StandardCharsets.UTF_8);
+        byte[] lastModifiedBytes = lastModified == null ? null : lastModified.getBytes(StandardCharsets.UTF_8);
+
+        int headerLength = 8 + 4 + urlBytes.length + 4 + length(etagBytes) + 4 + length(lastModifiedBytes) + 4;
+        ByteBuffer record = ByteBuffer.allocate(8 + headerLength + gzippedBody.length);
+        record.putInt(MAGIC);
+        record.putInt(headerLength + gzippedBody.length);
+        record.putLong(fetchedAt);
+        putBytes(record, urlBytes);
+        putBytes(record, etagBytes);
+        putBytes(record, lastModifiedBytes);
+        putBytes(record, gzippedBody);
+        record.flip();
+
+        Segment segment = getActiveSegment(record.remaining());
+        long position = segment.channel.size();
+        while (record.hasRemaining()) {
+            segment.channel.write(record, position + record.position());
+        }
+
+        // On disk before anyone can be served it. A crash can still cut off a record mid-write, which the scan on
+        // the next start truncates.
+        segment.channel.force(false);
+
+        long bodyOffset = position + 8 + headerLength;
+        index(url, new Location(segment, fetchedAt, etag, lastModified, bodyOffset, gzippedBody.length));
+
+        writes.incrementAndGet();
+    }
+
+    public int getUrlCount() {
+        return index.size();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public long getWrites() {
+        return writes.get();
+    }
+
+    public long getReads() {
+        return reads.get();
+    }
+
+    private Segment getActiveSegment(int recordLength) throws IOException {
+        if (active == null || active.channel.size() + recordLength > maxSegmentBytes) {
+            long id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+            Path file = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+
+            active = new Segment(id, file, FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            segments.put(id, active);
+
+            while (segments.size() > maxSegments) {
+                dropSegment(segments.firstEntry().getValue());
+            }
+        }
+
+        return active;
+    }
+
+    private void dropSegment(Segment segment) throws IOException {
+        segments.remove(segment.id);
+        index.values().removeIf(location -> location.segment == segment);
+
+        segment.close();
+        Files.deleteIfExists(segment.file);
+
+        log.info("Dropped MSF response store segment {}", segment.file);
+    }
+
+    private void scan(Segment segment) throws IOException {
+        long size = segment.channel.size();
+        MappedByteBuffer buffer = segment.channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+        long good = 0;
+        try {
+            while (buffer.remaining() >= 8) {
+                int start = buffer.position();
+                if (buffer.getInt() != MAGIC) {
+                    break;
+                }
+
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    break;
+                }
+
+                long fetchedAt = buffer.getLong();
+                String url = getString(buffer);
+                String etag = getString(buffer);
+                String lastModified = getString(buffer);
+                int bodyLength = buffer.getInt();
+                int bodyOffset = buffer.position();
+
+                buffer.position(bodyOffset + bodyLength);
+                good = buffer.position();
+
+                // Replay never writes, so anything fetched after the replay time can be left out of the index.
+                if (mode != Mode.REPLAY || replayAt <= 0 || fetchedAt <= replayAt) {
+                    index(url, new Location(segment, fetchedAt, etag, lastModified, bodyOffset, bodyLength));
+                }
+
+                log.trace("Indexed {} bytes for {} at offset {}", length, url, start);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Corrupt record in MSF response store segment {}: {}", segment.file, e.getMessage());
+        }
+
+        if (good < size) {
+            // Most likely a write cut short by a crash. Drop the partial record so later appends stay readable.
+            log.warn("Truncating MSF response store segment {} from {} to {} bytes", segment.file, size, good);
+            segment.channel.truncate(good);
+        }
+    }
+
+    private void index(String url, Location location) {
+        // Segments are scanned in no particular order, so keep whichever was fetched last.
+        index.merge(url, location, (existing, added) -> added.fetchedAt >= existing.fetchedAt ? added : existing);
+    }
+
+    private long getSegmentId(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring unexpected file {} in MSF response store", file);
+            return -1;
+        }
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class Segment {
+        private final long id;
+        private final Path file;
+        private final FileChannel channel;
+
+        private volatile MappedByteBuffer mapped;
+        private volatile boolean closed;
+
+        Segment(long id, Path file, FileChannel channel) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+        }
+
+        ByteBuffer slice(long offset, int length) throws IOException {
+            // A response handed out before its segment was dropped. The mapping may outlive the file, but it's not
+            // ours to read any more.
+            if (closed) {
+                throw new IOException(String.format("MSF response store segment %s has been closed", file));
+            }
+
+            MappedByteBuffer current = mapped;
+            if (current == null || current.capacity() < offset + length) {
+                synchronized (this) {
+                    current = mapped;
+                    if (current == null || current.capacity() < offset + length) {
+                        // The active segment grows, so remap it whenever a read goes past the old mapping.
+                        current = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                        mapped = current;
+                    }
+                }
+            }
+
+            ByteBuffer slice = current.duplicate();
+            slice.position((int) offset);
+            slice.limit((int) offset + length);
+            return slice.slice();
+        }
+
+        synchronized void close() throws IOException {
+            closed = true;
+            mapped = null;
+            channel.close();
+        }
+    }
+
+    private static class Location {
+        private final Segment segment;
+        private final long fetchedAt;
+        private final String etag;
+        private final String lastModified;
+        private final long bodyOffset;
+        private final int bodyLength;
+
+        Location(Segment segment, long fetchedAt, String etag, String lastModified, long bodyOffset, int bodyLength) {
+            this.segment = segment;
+            this.fetchedAt = fetchedAt;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.bodyOffset = bodyOffset;
+            this.bodyLength = bodyLength;
+        }
+    }
+
+    public static class StoredResponse {
+        private final String url;
+        private final Location location;
+
+        private StoredResponse(String url, Location location) {
+            this.url = url;
+            this.location = location;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public long getFetchedAt() {
+            return location.fetchedAt;
+        }
+
+        public String getEtag() {
+            return location.etag;
+        }
+
+        public String getLastModified() {
+            return location.lastModified;
+        }
+
+        /**
+         * The decompressed body, read straight out of the mapped segment.
+         *
+         * @throws IOException if the segment has since been dropped or the store closed.
+         */
+        public InputStream openBody() throws IOException {
+            ByteBuffer body = location.segment.slice(location.bodyOffset, location.bodyLength);
+            return new GZIPInputStream(new ByteBufferInputStream(body));
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.gci.pickem.service.mysportsfeeds;
 
 import com.gci.pickem.model.mysportsfeeds.FullGameSchedule;
+import com.gci.pickem.model.mysportsfeeds.GameEntry;
 import com.gci.pickem.model.mysportsfeeds.GameScore;
 import com.gci.pickem.model.mysportsfeeds.Scoreboard;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.function.Consumer;
 
 public interface MySportsFeedsService {
 
@@ -15,5 +17,29 @@ public interface MySportsFeedsService {
 
     Scoreboard getFinalGameScores(Instant date);
 
+    /**
+     * {@link #getFinalGameScores(Instant)} straight from MSF at the given priority, without reading or filling the
+     * request cache.
+     */
+    Scoreboard fetchFinalGameScores(Instant date, MySportsFeedsPriority priority);
+
+    /**
+     * Always goes to MSF, bypassing the request cache, since live scores are only useful when fresh.
+     */
+    Scoreboard getLiveGameScores(Instant date);
+
     GameScore getGameScore(Instant date, Integer msfGameId);
+
+    /**
+     * Hands every game in the season's schedule to the consumer as it's read off the wire, without holding the
+     * whole response in memory. Not cached. Returns the number of games read.
+     */
+    int streamSeasonSchedule(int season, Consumer<GameEntry> consumer);
+
+    /**
+     * Streaming, uncached version of {@link #getFinalGameScores(Instant)}.
+     */
+    int streamFinalGameScores(Instant date, Consumer<GameScore> consumer);
+
+    MySportsFeedsStats getStats();
 }
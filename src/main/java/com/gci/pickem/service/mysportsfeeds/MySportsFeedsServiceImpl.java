@@ -3,39 +3,39 @@ package com.gci.pickem.service.mysportsfeeds;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gci.pickem.model.mysportsfeeds.*;
 import com.gci.pickem.util.ScheduleUtil;
+import com.google.common.base.Ticker;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 public class MySportsFeedsServiceImpl implements MySportsFeedsService {
     private static final Logger log = LoggerFactory.getLogger(MySportsFeedsServiceImpl.class);
 
-    @Value("${mysportsfeeds.username}")
-    private String username;
-
-    @Value("${mysportsfeeds.password}")
-    private String password;
-
     @Value("${mysportsfeeds.url.base}")
     private String baseUrl;
 
@@ -47,35 +47,146 @@ public class MySportsFeedsServiceImpl implements MySportsFeedsService {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final MySportsFeedsStreamReader STREAM_READER = new MySportsFeedsStreamReader(MAPPER);
+
+    private final MySportsFeedsClient client;
+
+    // Parsed responses, one cache per endpoint since schedules and scoreboards go stale at very different rates.
+    // Past the refresh interval an entry is still served while a single background reload runs; past the expiry
+    // it's too stale to serve and callers wait on a fetch. Reloads are conditional requests, so unchanged data
+    // still isn't downloaded or parsed.
+    private final LoadingCache<String, FullGameScheduleResponse> scheduleCache;
+    private final LoadingCache<String, ScoreboardResponse> scoreboardCache;
+
+    @Autowired
+    MySportsFeedsServiceImpl(
+        MySportsFeedsClient client,
+        ExecutorService executorService,
+        @Value("${mysportsfeeds.cache.schedule.refresh-minutes:60}") long scheduleRefreshMinutes,
+        @Value("${mysportsfeeds.cache.schedule.expire-minutes:360}") long scheduleExpireMinutes,
+        @Value("${mysportsfeeds.cache.schedule.max-weight-bytes:33554432}") long scheduleMaxWeight,
+        @Value("${mysportsfeeds.cache.scoreboard.refresh-seconds:60}") long scoreboardRefreshSeconds,
+        @Value("${mysportsfeeds.cache.scoreboard.expire-minutes:5}") long scoreboardExpireMinutes,
+        @Value("${mysportsfeeds.cache.scoreboard.max-weight-bytes:8388608}") long scoreboardMaxWeight
+    ) {
+        this(
+            client,
+            executorService,
+            scheduleRefreshMinutes,
+            scheduleExpireMinutes,
+            scheduleMaxWeight,
+            scoreboardRefreshSeconds,
+            scoreboardExpireMinutes,
+            scoreboardMaxWeight,
+            Ticker.systemTicker());
+    }
+
+    MySportsFeedsServiceImpl(
+        MySportsFeedsClient client,
+        ExecutorService executorService,
+        long scheduleRefreshMinutes,
+        long scheduleExpireMinutes,
+        long scheduleMaxWeight,
+        long scoreboardRefreshSeconds,
+        long scoreboardExpireMinutes,
+        long scoreboardMaxWeight,
+        Ticker ticker
+    ) {
+        this.client = client;
+
+        this.scheduleCache =
+            buildCache(
+                scheduleMaxWeight,
+                MySportsFeedsWeigher::weighSchedule,
+                TimeUnit.MINUTES.toMillis(scheduleRefreshMinutes),
+                TimeUnit.MINUTES.toMillis(scheduleExpireMinutes),
+                ticker,
+                CacheLoader.asyncReloading(new CacheLoader<String, FullGameScheduleResponse>() {
+                    @Override
+                    @ParametersAreNonnullByDefault
+                    public FullGameScheduleResponse load(String url) throws Exception {
+                        return fetchSchedule(url);
+                    }
+
+                    @Override
+                    @ParametersAreNonnullByDefault
+                    public ListenableFuture<FullGameScheduleResponse> reload(String url, FullGameScheduleResponse previous) throws Exception {
+                        // Nobody is waiting on a background refresh, it goes after everything else for budget.
+                        try (MySportsFeedsPriority.Scope ignored = MySportsFeedsPriority.PREFETCH.enter()) {
+                            return Futures.immediateFuture(fetchSchedule(url));
+                        }
+                    }
+                }, executorService));
+
+        this.scoreboardCache =
+            buildCache(
+                scoreboardMaxWeight,
+                MySportsFeedsWeigher::weighScoreboard,
+                TimeUnit.SECONDS.toMillis(scoreboardRefreshSeconds),
+                TimeUnit.MINUTES.toMillis(scoreboardExpireMinutes),
+                ticker,
+                CacheLoader.asyncReloading(new CacheLoader<String, ScoreboardResponse>() {
+                    @Override
+                    @ParametersAreNonnullByDefault
+                    public ScoreboardResponse load(String url) throws Exception {
+                        return fetchScoreboard(url, MySportsFeedsPriority.FINAL_SCORES);
+                    }
+                }, executorService));
+    }
 
-    private final CacheLoader<String, String> cacheLoader = new CacheLoader<String, String>() {
-        @Override
-        @ParametersAreNonnullByDefault
-        public String load(String key) throws Exception {
-            return getRawResponse(key);
+    private static <V> LoadingCache<String, V> buildCache(
+        long maxWeight,
+        Weigher<String, V> weigher,
+        long refreshMillis,
+        long expireMillis,
+        Ticker ticker,
+        CacheLoader<String, V> loader
+    ) {
+        CacheBuilder<String, V> builder =
+            CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .<String, V>weigher(weigher)
+                .expireAfterWrite(expireMillis, TimeUnit.MILLISECONDS)
+                .ticker(ticker)
+                .recordStats();
+
+        // Refreshing at or past the expiry would never happen, the entry is gone by then.
+        if (refreshMillis > 0 && refreshMillis < expireMillis) {
+            builder.refreshAfterWrite(refreshMillis, TimeUnit.MILLISECONDS);
         }
 
-        private String getRawResponse(String requestUrl) {
-            try {
-                URL url = new URL(requestUrl);
-                String encoding = Base64.getEncoder().encodeToString(String.format("%s:%s", username, password).getBytes());
+        return builder.build(loader);
+    }
 
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("GET");
-                connection.setDoOutput(true);
-                connection.setRequestProperty  ("Authorization", "Basic " + encoding);
+    private FullGameScheduleResponse fetchSchedule(String url) throws IOException {
+        // A schedule a couple of minutes old is fine to start up with. Scoreboards are always fetched.
+        return client.getConditional(url, FullGameScheduleResponse.class, body -> {
+            FullGameScheduleResponse response = MAPPER.readValue(body, FullGameScheduleResponse.class);
 
-                return IOUtils.toString(connection.getInputStream(), "UTF-8");
-            } catch (Exception e) {
-                log.trace("", e);
-                log.error(String.format("Unable to get successful response for request URL %s: %s", requestUrl, e.getMessage()));
+            // Cached responses are shared between callers, don't let anyone modify them.
+            FullGameSchedule schedule = response.getFullGameSchedule();
+            if (schedule != null && schedule.getGameEntries() != null) {
+                schedule.setGameEntries(ImmutableList.copyOf(schedule.getGameEntries()));
             }
 
-            return null;
-        }
-    };
+            return response;
+        }, true);
+    }
 
-    private final LoadingCache<String, String> requestCache = CacheBuilder.newBuilder().expireAfterAccess(5, TimeUnit.MINUTES).build(cacheLoader);
+    private ScoreboardResponse fetchScoreboard(String url, MySportsFeedsPriority priority) throws IOException {
+        try (MySportsFeedsPriority.Scope ignored = priority.enter()) {
+            return client.getConditional(url, ScoreboardResponse.class, body -> {
+                ScoreboardResponse response = MAPPER.readValue(body, ScoreboardResponse.class);
+
+                Scoreboard scoreboard = response.getScoreboard();
+                if (scoreboard != null && scoreboard.getGameScores() != null) {
+                    scoreboard.setGameScores(ImmutableList.copyOf(scoreboard.getGameScores()));
+                }
+
+                return response;
+            });
+        }
+    }
 
     private String getScheduleUrl(int season) {
         return getUrl(season, MySportsFeedEndpoint.FULL_GAME_SCHEDULE);
@@ -99,7 +210,7 @@ public class MySportsFeedsServiceImpl implements MySportsFeedsService {
 
     @Override
     public FullGameSchedule getGamesForSeasonAndWeek(int season, int week) {
-        FullGameScheduleResponse response = getResponse(String.format("%s?week=%d", getScheduleUrl(season), week), FullGameScheduleResponse.class);
+        FullGameScheduleResponse response = getResponse(scheduleCache, String.format("%s?week=%d", getScheduleUrl(season), week));
 
         if (response == null) {
             throw new RuntimeException(
@@ -114,8 +225,8 @@ public class MySportsFeedsServiceImpl implements MySportsFeedsService {
         int season = ScheduleUtil.getSeasonForDate(Instant.now());
         FullGameScheduleResponse response =
             getResponse(
-                String.format("%s?date=until-%d-days-from-now", getScheduleUrl(season), days),
-                FullGameScheduleResponse.class);
+                scheduleCache,
+                String.format("%s?date=until-%d-days-from-now", getScheduleUrl(season), days));
 
         if (response == null) {
             throw new RuntimeException(
@@ -130,11 +241,11 @@ public class MySportsFeedsServiceImpl implements MySportsFeedsService {
         String dateStr = DATE_TIME_FORMATTER.format(date.atZone(ZoneId.of("America/New_York")));
         ScoreboardResponse response =
             getResponse(
+                scoreboardCache,
                 String.format(
                     "%s?fordate=%s&status=final",
                     getScoreboardUrl(ScheduleUtil.getSeasonForDate(date)),
-                    dateStr),
-                ScoreboardResponse.class);
+                    dateStr));
 
         if (response == null) {
             throw new RuntimeException(
@@ -144,16 +255,73 @@ public class MySportsFeedsServiceImpl implements MySportsFeedsService {
         return response.getScoreboard();
     }
 
+    @Override
+    public Scoreboard fetchFinalGameScores(Instant date, MySportsFeedsPriority priority) {
+        String dateStr = DATE_TIME_FORMATTER.format(date.atZone(ZoneId.of("America/New_York")));
+        String url =
+            String.format(
+                "%s?fordate=%s&status=final",
+                getScoreboardUrl(ScheduleUtil.getSeasonForDate(date)),
+                dateStr);
+
+        ScoreboardResponse response;
+        try {
+            log.debug("Executing uncached request to {} at {} priority", url, priority);
+            response = fetchScoreboard(url, priority);
+        } catch (MySportsFeedsUnavailableException e) {
+            throw new MySportsFeedsBackoffException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                String.format("Failed to retrieve scoreboard for date %s: %s", dateStr, e.getMessage()), e);
+        }
+
+        if (response == null) {
+            throw new RuntimeException(
+                String.format("No response retrieved for scoreboard request for date %s", dateStr));
+        }
+
+        return response.getScoreboard();
+    }
+
+    @Override
+    public Scoreboard getLiveGameScores(Instant date) {
+        String dateStr = DATE_TIME_FORMATTER.format(date.atZone(ZoneId.of("America/New_York")));
+        String url =
+            String.format(
+                "%s?fordate=%s&status=in-progress,final",
+                getScoreboardUrl(ScheduleUtil.getSeasonForDate(date)),
+                dateStr);
+
+        ScoreboardResponse response = null;
+        try {
+            log.debug("Executing uncached request to {}", url);
+            // Nice to have, so it stops short of the share kept for final scores.
+            response = fetchScoreboard(url, MySportsFeedsPriority.LIVE_SCORES);
+        } catch (MySportsFeedsUnavailableException e) {
+            throw new MySportsFeedsBackoffException(e.getMessage(), e);
+        } catch (IOException e) {
+            log.trace("", e);
+            log.warn(String.format("Exception occurred while attempting to get live scoreboard response: %s", e.getMessage()));
+        }
+
+        if (response == null) {
+            throw new RuntimeException(
+                String.format("No response retrieved for live scoreboard request for date %s", dateStr));
+        }
+
+        return response.getScoreboard();
+    }
+
     @Override
     public GameScore getGameScore(Instant instant, Integer msfGameId) {
         String dateStr = DATE_TIME_FORMATTER.format(instant.atZone(ZoneId.of("America/New_York")));
         ScoreboardResponse response =
             getResponse(
+                scoreboardCache,
                 String.format(
                     "%s?fordate=%s&status=final",
                     getScoreboardUrl(ScheduleUtil.getSeasonForDate(instant)),
-                    dateStr),
-                ScoreboardResponse.class);
+                    dateStr));
 
         if (response == null || response.getScoreboard() == null) {
             throw new RuntimeException(String.format("No response retrieved for scoreboard request for date %s and game ID %d", instant.toString(), msfGameId));
@@ -176,13 +344,64 @@ public class MySportsFeedsServiceImpl implements MySportsFeedsService {
         return gameScore.get();
     }
 
-    private <T> T getResponse(String url, Class<T> clazz) {
+    @Override
+    public int streamSeasonSchedule(int season, Consumer<GameEntry> consumer) {
+        String url = getScheduleUrl(season);
+
+        try {
+            log.debug("Streaming request to {}", url);
+            return client.get(url, body -> STREAM_READER.readGameEntries(body, consumer));
+        } catch (MySportsFeedsUnavailableException e) {
+            throw new MySportsFeedsBackoffException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                String.format("Failed to stream full game schedule for season %d: %s", season, e.getMessage()), e);
+        }
+    }
+
+    @Override
+    public int streamFinalGameScores(Instant date, Consumer<GameScore> consumer) {
+        String dateStr = DATE_TIME_FORMATTER.format(date.atZone(ZoneId.of("America/New_York")));
+        String url =
+            String.format(
+                "%s?fordate=%s&status=final",
+                getScoreboardUrl(ScheduleUtil.getSeasonForDate(date)),
+                dateStr);
+
+        try (MySportsFeedsPriority.Scope ignored = MySportsFeedsPriority.FINAL_SCORES.enter()) {
+            log.debug("Streaming request to {}", url);
+            return client.get(url, body -> STREAM_READER.readGameScores(body, consumer));
+        } catch (MySportsFeedsUnavailableException e) {
+            throw new MySportsFeedsBackoffException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                String.format("Failed to stream scoreboard for date %s: %s", dateStr, e.getMessage()), e);
+        }
+    }
+
+    @Override
+    public MySportsFeedsStats getStats() {
+        MySportsFeedsStats stats = client.getStats();
+
+        stats.setCaches(Arrays.asList(
+            new RequestCacheStats(MySportsFeedEndpoint.FULL_GAME_SCHEDULE.getValue(), scheduleCache, MySportsFeedsWeigher::weighSchedule),
+            new RequestCacheStats(MySportsFeedEndpoint.SCOREBOARD.getValue(), scoreboardCache, MySportsFeedsWeigher::weighScoreboard)));
+
+        return stats;
+    }
+
+    private <T> T getResponse(LoadingCache<String, T> cache, String url) {
         try {
             log.debug("Executing request to {}", url);
-            return MAPPER.readValue(requestCache.get(url), clazz);
-        } catch (ExecutionException | IOException e) {
+            return cache.get(url);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // Circuit open or too many in flight: let the caller see it and back off, rather than a generic failure.
+            if (e.getCause() instanceof MySportsFeedsUnavailableException) {
+                throw new MySportsFeedsBackoffException(e.getCause().getMessage(), (MySportsFeedsUnavailableException) e.getCause());
+            }
+
             log.trace("", e);
-            log.warn(String.format("Exception occurred while attempting to get scoreboard response: %s", e.getMessage()));
+            log.warn(String.format("Exception occurred while attempting to get response from %s: %s", url, e.getMessage()));
         }
 
         return null;
@@ -0,0 +1,153 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MySportsFeedsStats {
+
+    private long requests;
+    private long conditionalRequests;
+    private long notModifiedResponses;
+    private String storeMode;
+    private long storedResponses;
+    private int storeUrls;
+    private int storeSegments;
+    private String circuitState;
+    private long circuitOpenedCount;
+    private long circuitRejections;
+    private long bulkheadRejections;
+    private int bulkheadAvailable;
+    private long staleResponses;
+    private List<RequestCacheStats> caches = new ArrayList<>();
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+
+    public long getConditionalRequests() {
+        return conditionalRequests;
+    }
+
+    public void setConditionalRequests(long conditionalRequests) {
+        this.conditionalRequests = conditionalRequests;
+    }
+
+    public long getNotModifiedResponses() {
+        return notModifiedResponses;
+    }
+
+    public void setNotModifiedResponses(long notModifiedResponses) {
+        this.notModifiedResponses = notModifiedResponses;
+    }
+
+    /**
+     * Share of conditional requests MSF answered with a 304.
+     */
+    public double getNotModifiedRatio() {
+        return conditionalRequests == 0 ? 0 : (double) notModifiedResponses / conditionalRequests;
+    }
+
+    public String getStoreMode() {
+        return storeMode;
+    }
+
+    public void setStoreMode(String storeMode) {
+        this.storeMode = storeMode;
+    }
+
+    /**
+     * Responses served from the on-disk store instead of MSF.
+     */
+    public long getStoredResponses() {
+        return storedResponses;
+    }
+
+    public void setStoredResponses(long storedResponses) {
+        this.storedResponses = storedResponses;
+    }
+
+    public int getStoreUrls() {
+        return storeUrls;
+    }
+
+    public void setStoreUrls(int storeUrls) {
+        this.storeUrls = storeUrls;
+    }
+
+    public int getStoreSegments() {
+        return storeSegments;
+    }
+
+    public void setStoreSegments(int storeSegments) {
+        this.storeSegments = storeSegments;
+    }
+
+    public String getCircuitState() {
+        return circuitState;
+    }
+
+    public void setCircuitState(String circuitState) {
+        this.circuitState = circuitState;
+    }
+
+    public long getCircuitOpenedCount() {
+        return circuitOpenedCount;
+    }
+
+    public void setCircuitOpenedCount(long circuitOpenedCount) {
+        this.circuitOpenedCount = circuitOpenedCount;
+    }
+
+    /**
+     * Requests not sent because the circuit was open.
+     */
+    public long getCircuitRejections() {
+        return circuitRejections;
+    }
+
+    public void setCircuitRejections(long circuitRejections) {
+        this.circuitRejections = circuitRejections;
+    }
+
+    /**
+     * Requests not sent because too many were already in flight.
+     */
+    public long getBulkheadRejections() {
+        return bulkheadRejections;
+    }
+
+    public void setBulkheadRejections(long bulkheadRejections) {
+        this.bulkheadRejections = bulkheadRejections;
+    }
+
+    public int getBulkheadAvailable() {
+        return bulkheadAvailable;
+    }
+
+    public void setBulkheadAvailable(int bulkheadAvailable) {
+        this.bulkheadAvailable = bulkheadAvailable;
+    }
+
+    /**
+     * Rejected requests that were answered with an earlier response instead of an error.
+     */
+    public long getStaleResponses() {
+        return staleResponses;
+    }
+
+    public void setStaleResponses(long staleResponses) {
+        this.staleResponses = staleResponses;
+    }
+
+    public List<RequestCacheStats> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(List<RequestCacheStats> caches) {
+        this.caches = caches;
+    }
+}
@@ -0,0 +1,91 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.gci.pickem.model.mysportsfeeds.GameEntry;
+import com.gci.pickem.model.mysportsfeeds.GameScore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads MSF schedule and scoreboard bodies one game at a time. Only the current game is ever bound to an object,
+ * so memory use doesn't grow with the size of the response.
+ */
+public class MySportsFeedsStreamReader {
+
+    private static final String GAME_ENTRIES_FIELD = "gameentry";
+    private static final String GAME_SCORES_FIELD = "gameScore";
+
+    private final ObjectMapper mapper;
+    private final ObjectReader gameEntryReader;
+    private final ObjectReader gameScoreReader;
+
+    public MySportsFeedsStreamReader(ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.gameEntryReader = mapper.readerFor(GameEntry.class);
+        this.gameScoreReader = mapper.readerFor(GameScore.class);
+    }
+
+    /**
+     * Hands each entry of a full_game_schedule body to the consumer, returning how many there were.
+     */
+    public int readGameEntries(InputStream body, Consumer<GameEntry> consumer) throws IOException {
+        return readArray(body, GAME_ENTRIES_FIELD, gameEntryReader, consumer);
+    }
+
+    /**
+     * Hands each game of a scoreboard body to the consumer, returning how many there were.
+     */
+    public int readGameScores(InputStream body, Consumer<GameScore> consumer) throws IOException {
+        return readArray(body, GAME_SCORES_FIELD, gameScoreReader, consumer);
+    }
+
+    private <T> int readArray(InputStream body, String field, ObjectReader reader, Consumer<T> consumer) throws IOException {
+        int count = 0;
+
+        try (JsonParser parser = mapper.getFactory().createParser(body)) {
+            if (!seekArray(parser, field)) {
+                return 0;
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                T value = reader.readValue(parser);
+                consumer.accept(value);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Moves the parser to the start of the named array, skipping over anything else along the way. Returns false
+     * if the body has no such array, which is how MSF responds when there are no games.
+     */
+    private boolean seekArray(JsonParser parser, String field) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token != JsonToken.FIELD_NAME) {
+                continue;
+            }
+
+            JsonToken value = parser.nextToken();
+            if (field.equals(parser.getCurrentName())) {
+                if (value == JsonToken.START_ARRAY) {
+                    return true;
+                }
+
+                parser.skipChildren();
+            } else if (value == JsonToken.START_ARRAY) {
+                // Any other array is just metadata, so don't descend into it.
+                parser.skipChildren();
+            }
+        }
+
+        return false;
+    }
+}
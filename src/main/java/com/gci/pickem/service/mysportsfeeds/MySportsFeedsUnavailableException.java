@@ -0,0 +1,14 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import java.io.IOException;
+
+/**
+ * Thrown without contacting MSF when the circuit is open or too many requests are already in flight, and there's
+ * no earlier response to serve instead.
+ */
+public class MySportsFeedsUnavailableException extends IOException {
+
+    public MySportsFeedsUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,77 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.gci.pickem.model.mysportsfeeds.*;
+
+/**
+ * Rough heap size, in bytes, of the parsed MSF responses we cache. It only needs to be close enough to keep the
+ * caches from growing without bound, so it counts object headers, references and string contents and ignores
+ * alignment.
+ */
+final class MySportsFeedsWeigher {
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 8;
+    private static final int INTEGER = 16;
+
+    private MySportsFeedsWeigher() {
+    }
+
+    static int weighSchedule(String url, FullGameScheduleResponse response) {
+        int weight = weigh(url) + OBJECT_HEADER + REFERENCE;
+
+        FullGameSchedule schedule = response.getFullGameSchedule();
+        if (schedule != null && schedule.getGameEntries() != null) {
+            weight += OBJECT_HEADER + 2 * REFERENCE;
+            for (GameEntry entry : schedule.getGameEntries()) {
+                weight += REFERENCE + weigh(entry);
+            }
+        }
+
+        return weight;
+    }
+
+    static int weighScoreboard(String url, ScoreboardResponse response) {
+        int weight = weigh(url) + OBJECT_HEADER + REFERENCE;
+
+        Scoreboard scoreboard = response.getScoreboard();
+        if (scoreboard != null && scoreboard.getGameScores() != null) {
+            weight += OBJECT_HEADER + REFERENCE;
+            for (GameScore score : scoreboard.getGameScores()) {
+                weight += REFERENCE + OBJECT_HEADER + 6 * REFERENCE + 2 * INTEGER;
+                weight += weigh(score.getIsUnplayed()) + weigh(score.getIsInProgress()) + weigh(score.getIsCompleted());
+                weight += weigh(score.getGame());
+            }
+        }
+
+        return weight;
+    }
+
+    private static int weigh(GameEntry entry) {
+        if (entry == null) {
+            return 0;
+        }
+
+        return OBJECT_HEADER + 11 * REFERENCE + 2 * INTEGER +
+            weigh(entry.getScheduleStatus()) +
+            weigh(entry.getOriginalDate()) +
+            weigh(entry.getOriginalTime()) +
+            weigh(entry.getDelayedOrPostponedReason()) +
+            weigh(entry.getDate()) +
+            weigh(entry.getTime()) +
+            weigh(entry.getLocation()) +
+            weigh(entry.getAwayTeam()) +
+            weigh(entry.getHomeTeam());
+    }
+
+    private static int weigh(Team team) {
+        if (team == null) {
+            return 0;
+        }
+
+        return OBJECT_HEADER + 4 * REFERENCE + INTEGER + weigh(team.getCity()) + weigh(team.getName()) + weigh(team.getAbbreviation());
+    }
+
+    private static int weigh(String value) {
+        // String object plus its backing char[].
+        return value == null ? 0 : 40 + 2 * value.length();
+    }
+}
@@ -0,0 +1,72 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+
+import java.util.Map;
+
+public class RequestCacheStats {
+
+    private final String name;
+    private final long size;
+    private final long weightBytes;
+    private final long hitCount;
+    private final long missCount;
+    private final double hitRate;
+    private final long evictionCount;
+    private final double averageLoadMillis;
+
+    <T> RequestCacheStats(String name, Cache<String, T> cache, Weigher<String, T> weigher) {
+        CacheStats stats = cache.stats();
+
+        long weight = 0;
+        for (Map.Entry<String, T> entry : cache.asMap().entrySet()) {
+            weight += weigher.weigh(entry.getKey(), entry.getValue());
+        }
+
+        this.name = name;
+        this.size = cache.size();
+        this.weightBytes = weight;
+        this.hitCount = stats.hitCount();
+        this.missCount = stats.missCount();
+        this.hitRate = stats.hitRate();
+        this.evictionCount = stats.evictionCount();
+        this.averageLoadMillis = stats.averageLoadPenalty() / 1_000_000d;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Approximate heap used by the cached objects.
+     */
+    public long getWeightBytes() {
+        return weightBytes;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public double getAverageLoadMillis() {
+        return averageLoadMillis;
+    }
+}
@@ -13,6 +13,8 @@ import com.gci.pickem.service.mail.MailService;
 import com.gci.pickem.service.mail.MailType;
 import com.gci.pickem.service.mail.SendEmailRequest;
 import com.gci.pickem.service.schedule.ScheduleService;
+import com.gci.pickem.service.schedule.SeasonCalendar;
+import com.gci.pickem.service.schedule.WeekScheduleCache;
 import org.apache.commons.collections4.CollectionUtils;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.slf4j.Logger;
@@ -36,6 +38,8 @@ public class PickServiceImpl implements PickService {
     private UserRepository userRepository;
     private ScheduleService scheduleService;
     private MailService mailService;
+    private WeekScheduleCache weekScheduleCache;
+    private SeasonCalendar seasonCalendar;
 
     @Autowired
     PickServiceImpl(
@@ -44,7 +48,9 @@ public class PickServiceImpl implements PickService {
         PoolRepository poolRepository,
         UserRepository userRepository,
         ScheduleService scheduleService,
-        MailService mailService
+        MailService mailService,
+        WeekScheduleCache weekScheduleCache,
+        SeasonCalendar seasonCalendar
     ) {
         this.pickRepository = pickRepository;
         this.gameRepository = gameRepository;
@@ -52,6 +58,8 @@ public class PickServiceImpl implements PickService {
         this.userRepository = userRepository;
         this.scheduleService = scheduleService;
         this.mailService = mailService;
+        this.weekScheduleCache = weekScheduleCache;
+        this.seasonCalendar = seasonCalendar;
     }
 
     @Override
@@ -144,7 +152,7 @@ public class PickServiceImpl implements PickService {
             throw new RuntimeException(String.format("No scoring method found for pool with ID %d", poolId));
         }
 
-        GamesList gamesList = scheduleService.getGamesForSeasonAndWeek(season, week);
+        GamesList gamesList = weekScheduleCache.get(season, week, () -> scheduleService.getGamesForSeasonAndWeek(season, week));
 
         switch (method) {
             case ABSOLUTE:
@@ -174,11 +182,16 @@ public class PickServiceImpl implements PickService {
         LocalDateTime todayMidnight = LocalDateTime.of(today, midnight);
         LocalDateTime tomorrowMidnight = todayMidnight.plusDays(1);
 
+        long start = todayMidnight.atZone(ZoneId.of("America/New_York")).toInstant().toEpochMilli();
+        long end = tomorrowMidnight.atZone(ZoneId.of("America/New_York")).toInstant().toEpochMilli();
+
+        if (!seasonCalendar.hasKickoffBetween(start, end)) {
+            // Most days have no games, no need to ask the database.
+            return;
+        }
+
         // Find all games
-        List<Game> games =
-            gameRepository.findByGameTimeEpochBetween(
-                todayMidnight.atZone(ZoneId.of("America/New_York")).toInstant().toEpochMilli(),
-                tomorrowMidnight.atZone(ZoneId.of("America/New_York")).toInstant().toEpochMilli());
+        List<Game> games = gameRepository.findByGameTimeEpochBetween(start, end);
 
         if (games.isEmpty()) {
             // There are no games in this 24-hour period, no alerts need to be sent out.
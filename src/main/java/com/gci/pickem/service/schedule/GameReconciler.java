@@ -0,0 +1,74 @@
+package com.gci.pickem.service.schedule;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.service.event.GameChanged;
+import com.gci.pickem.service.event.GameEvent;
+import com.gci.pickem.service.event.GameRescheduled;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Field-by-field comparison of a stored game against a fresh conversion of its MSF entry. Only the fields MSF owns
+ * are compared; completion and the winner come from the scoreboard and are left alone.
+ */
+final class GameReconciler {
+
+    private GameReconciler() {
+    }
+
+    /**
+     * Copies every field of {@code incoming} that differs onto {@code stored} and returns the events describing the
+     * change. An empty list means the stored game is already up to date and doesn't need to be written.
+     */
+    static List<GameEvent> reconcile(Game stored, Game incoming) {
+        // Older rows can be missing a kickoff.
+        Long previousEpoch = stored.getGameTimeEpoch();
+        int previousSeason = stored.getSeason();
+        int previousWeek = stored.getWeek();
+
+        Set<GameChanged.Field> fields = EnumSet.noneOf(GameChanged.Field.class);
+
+        if (!Objects.equals(stored.getSeason(), incoming.getSeason()) || !Objects.equals(stored.getWeek(), incoming.getWeek())) {
+            stored.setSeason(incoming.getSeason());
+            stored.setWeek(incoming.getWeek());
+            fields.add(GameChanged.Field.WEEK);
+        }
+
+        if (!Objects.equals(stored.getHomeTeamId(), incoming.getHomeTeamId())) {
+            stored.setHomeTeamId(incoming.getHomeTeamId());
+            fields.add(GameChanged.Field.HOME_TEAM);
+        }
+
+        if (!Objects.equals(stored.getAwayTeamId(), incoming.getAwayTeamId())) {
+            stored.setAwayTeamId(incoming.getAwayTeamId());
+            fields.add(GameChanged.Field.AWAY_TEAM);
+        }
+
+        if (!Objects.equals(stored.getScheduleStatus(), incoming.getScheduleStatus())) {
+            stored.setScheduleStatus(incoming.getScheduleStatus());
+            fields.add(GameChanged.Field.SCHEDULE_STATUS);
+        }
+
+        if (!Objects.equals(stored.getDelayedOrPostponedReason(), incoming.getDelayedOrPostponedReason())) {
+            stored.setDelayedOrPostponedReason(incoming.getDelayedOrPostponedReason());
+            fields.add(GameChanged.Field.POSTPONED_REASON);
+        }
+
+        List<GameEvent> events = new ArrayList<>(2);
+
+        if (!Objects.equals(previousEpoch, incoming.getGameTimeEpoch())) {
+            stored.setGameTimeEpoch(incoming.getGameTimeEpoch());
+            events.add(new GameRescheduled(stored, previousEpoch));
+        }
+
+        if (!fields.isEmpty()) {
+            events.add(new GameChanged(stored, previousSeason, previousWeek, fields));
+        }
+
+        return events;
+    }
+}
@@ -0,0 +1,12 @@
+package com.gci.pickem.service.schedule;
+
+import com.gci.pickem.model.ScheduleImportResult;
+
+public interface ScheduleImportService {
+
+    /**
+     * Pulls the whole season's schedule from MSF and upserts every team and game in a few set-based statements.
+     * Safe to re-run, only new or changed games are written.
+     */
+    ScheduleImportResult importSeason(int season);
+}
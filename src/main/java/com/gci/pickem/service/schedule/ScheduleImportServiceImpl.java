@@ -0,0 +1,137 @@
+package com.gci.pickem.service.schedule;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.data.Team;
+import com.gci.pickem.model.ScheduleImportResult;
+import com.gci.pickem.model.mysportsfeeds.GameEntry;
+import com.gci.pickem.repository.ScheduleBulkRepository;
+import com.gci.pickem.service.event.GameAdded;
+import com.gci.pickem.service.event.GameEventService;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsService;
+import com.gci.pickem.service.team.TeamService;
+import com.gci.pickem.util.ScheduleUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+
+@Service
+public class ScheduleImportServiceImpl implements ScheduleImportService {
+    private static final Logger log = LoggerFactory.getLogger(ScheduleImportServiceImpl.class);
+
+    private MySportsFeedsService mySportsFeedsService;
+    private ScheduleBulkRepository scheduleBulkRepository;
+    private GameEventService gameEventService;
+    private TeamService teamService;
+    private WeekScheduleCache weekScheduleCache;
+
+    @Autowired
+    ScheduleImportServiceImpl(
+        MySportsFeedsService mySportsFeedsService,
+        ScheduleBulkRepository scheduleBulkRepository,
+        GameEventService gameEventService,
+        TeamService teamService,
+        WeekScheduleCache weekScheduleCache
+    ) {
+        this.mySportsFeedsService = mySportsFeedsService;
+        this.scheduleBulkRepository = scheduleBulkRepository;
+        this.gameEventService = gameEventService;
+        this.teamService = teamService;
+        this.weekScheduleCache = weekScheduleCache;
+    }
+
+    @Override
+    public ScheduleImportResult importSeason(int season) {
+        long start = System.currentTimeMillis();
+
+        // Entries are converted as they come off the wire, so only the slimmed down rows are ever held.
+        Map<Long, Team> teams = new LinkedHashMap<>();
+        Map<Integer, Game> games = new LinkedHashMap<>();
+        int read = mySportsFeedsService.streamSeasonSchedule(season, entry -> {
+            Team away = toTeam(entry.getAwayTeam());
+            Team home = toTeam(entry.getHomeTeam());
+            teams.putIfAbsent(away.getExternalId(), away);
+            teams.putIfAbsent(home.getExternalId(), home);
+
+            games.put(entry.getId(), toGame(entry, away, home));
+        });
+
+        ScheduleImportResult result = new ScheduleImportResult();
+        result.setSeason(season);
+        result.setGamesRead(read);
+
+        if (games.isEmpty()) {
+            log.info("No games found in season {} schedule.", season);
+            result.setElapsedMillis(System.currentTimeMillis() - start);
+            return result;
+        }
+
+        ScheduleBulkRepository.ScheduleUpsert upsert = scheduleBulkRepository.upsertSchedule(teams.values(), new ArrayList<>(games.values()));
+
+        // Team rows were written directly, so the registry needs to pick them up. Cached weeks carry team names.
+        if (!upsert.getWrittenTeams().isEmpty()) {
+            teamService.refresh();
+            weekScheduleCache.invalidateAll();
+        }
+
+        int added = 0;
+        int updated = 0;
+        for (Map.Entry<Integer, Long> written : upsert.getWritten().entrySet()) {
+            Game game = games.get(written.getKey());
+            game.setGameId(written.getValue());
+
+            Game previous = upsert.getPrevious().get(written.getKey());
+            if (previous == null) {
+                added++;
+                gameEventService.publish(new GameAdded(game));
+            } else {
+                updated++;
+                // Same events as a reconcile of the stored row would raise.
+                GameReconciler.reconcile(previous, game).forEach(gameEventService::publish);
+            }
+        }
+
+        result.setTeams(upsert.getTeams());
+        result.setGamesAdded(added);
+        result.setGamesUpdated(updated);
+        result.setGamesUnchanged(games.size() - added - updated);
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+
+        log.info(
+            "Imported season {} schedule in {}ms: {} games read, {} added, {} updated, {} unchanged.",
+            season, result.getElapsedMillis(), read, added, updated, result.getGamesUnchanged());
+
+        return result;
+    }
+
+    private Team toTeam(com.gci.pickem.model.mysportsfeeds.Team external) {
+        Team team = new Team();
+        team.setExternalId((long) external.getId());
+        team.setAbbreviation(external.getAbbreviation());
+        team.setCity(external.getCity());
+        team.setTeamName(external.getName());
+
+        return team;
+    }
+
+    private Game toGame(GameEntry entry, Team away, Team home) {
+        long gameTimeEpoch = ScheduleUtil.getUtcGameTime(entry);
+
+        Game game = new Game();
+        game.setSeason(ScheduleUtil.getSeasonForDate(Instant.ofEpochMilli(gameTimeEpoch)));
+        game.setWeek(entry.getWeek());
+        game.setExternalId(entry.getId());
+        game.setGameTimeEpoch(gameTimeEpoch);
+        game.setScheduleStatus(entry.getScheduleStatus());
+        game.setDelayedOrPostponedReason(entry.getDelayedOrPostponedReason());
+
+        // Only the external IDs are known at this point, the upsert fills in the team IDs.
+        game.setAwayTeam(away);
+        game.setHomeTeam(home);
+
+        return game;
+    }
+}
@@ -1,8 +1,14 @@
 package com.gci.pickem.service.schedule;
 
+import com.gci.pickem.data.Game;
 import com.gci.pickem.model.GamesList;
+import com.gci.pickem.model.mysportsfeeds.Scoreboard;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface ScheduleService {
 
@@ -10,5 +16,38 @@ public interface ScheduleService {
 
     void processExternalGamesForNextDays(int days);
 
+    /**
+     * Makes sure the given number of weeks, starting with the week of the next game, are in the database so no user
+     * request has to go to MSF for them.
+     *
+     * @return the number of weeks that are now stored.
+     */
+    int prefetchUpcomingWeeks(int weeks);
+
+    /**
+     * Builds the cached views of the given number of weeks, starting with the week of the next game.
+     *
+     * @return the number of weeks that were built.
+     */
+    int warmUpcomingWeeks(int weeks);
+
     void processScoresForDate(Instant date);
+
+    /**
+     * Fetches the final scoreboard for each distinct ET date concurrently, then records every new winner in a
+     * single transaction.
+     */
+    void processScoresForDates(Collection<LocalDate> dates);
+
+    /**
+     * Processes scores for the scoreboard dates of every game that has kicked off but isn't final yet.
+     */
+    void processScoresForStartedGames();
+
+    /**
+     * Records the winner of every newly completed game on the given scoreboards in a single transaction.
+     *
+     * @return the games that were marked complete.
+     */
+    List<Game> recordFinalScores(Map<LocalDate, Scoreboard> scoreboards);
 }
@@ -4,47 +4,73 @@ import com.gci.pickem.data.Game;
 import com.gci.pickem.model.GamesList;
 import com.gci.pickem.model.TeamView;
 import com.gci.pickem.model.mysportsfeeds.*;
+import com.gci.pickem.service.event.GameAdded;
+import com.gci.pickem.service.event.GameCompleted;
+import com.gci.pickem.service.event.GameEvent;
+import com.gci.pickem.service.event.GameEventService;
 import com.gci.pickem.service.game.GamesService;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsBackoffException;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsPriority;
 import com.gci.pickem.service.mysportsfeeds.MySportsFeedsService;
 import com.gci.pickem.service.team.TeamService;
 import com.gci.pickem.util.ScheduleUtil;
+import com.gci.pickem.util.SingleFlight;
 import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.transaction.Transactional;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 @Service
 public class ScheduleServiceImpl implements ScheduleService {
     private static final Logger log = LoggerFactory.getLogger(ScheduleServiceImpl.class);
 
+    private static final int REGULAR_SEASON_WEEKS = 17;
+
     private MySportsFeedsService mySportsFeedsService;
     private TeamService teamService;
     private GamesService gamesService;
+    private GameEventService gameEventService;
+    private ExecutorService executorService;
+    private WeekScheduleCache weekScheduleCache;
+
+    private final SingleFlight<WeekKey, GamesList> coldWeekLoads = new SingleFlight<>();
+
+    @Value("${pickem.scores.lookback-days:3}")
+    private long scoreLookbackDays;
 
     @Autowired
     ScheduleServiceImpl(
         MySportsFeedsService mySportsFeedsService,
         TeamService teamService,
-        GamesService gamesService
+        GamesService gamesService,
+        GameEventService gameEventService,
+        ExecutorService executorService,
+        WeekScheduleCache weekScheduleCache
     ) {
         this.mySportsFeedsService = mySportsFeedsService;
         this.teamService = teamService;
         this.gamesService = gamesService;
+        this.gameEventService = gameEventService;
+        this.executorService = executorService;
+        this.weekScheduleCache = weekScheduleCache;
     }
 
     @Override
-    @Transactional
     public void processExternalGamesForNextDays(int days) {
         FullGameSchedule schedule = mySportsFeedsService.getGamesUntilDaysFromNow(days);
 
@@ -58,11 +84,71 @@ public class ScheduleServiceImpl implements ScheduleService {
     }
 
     @Override
-    @Transactional
+    public int prefetchUpcomingWeeks(int weeks) {
+        return forEachUpcomingWeek(weeks, "prefetch", (season, week) -> getGamesForSeasonAndWeek(season, week).getGames().size());
+    }
+
+    @Override
+    public int warmUpcomingWeeks(int weeks) {
+        return forEachUpcomingWeek(weeks, "warm", (season, week) ->
+            weekScheduleCache.getSerialized(season, week, () -> getGamesForSeasonAndWeek(season, week)).getGames().getGames().size());
+    }
+
+    private int forEachUpcomingWeek(int weeks, String action, BiFunction<Integer, Integer, Integer> work) {
+        Game next = gamesService.findNextGameAfter(System.currentTimeMillis());
+        if (next == null) {
+            log.info("No upcoming games, nothing to {}.", action);
+            return 0;
+        }
+
+        int season = next.getSeason();
+        int lastWeek = Math.min(next.getWeek() + weeks - 1, REGULAR_SEASON_WEEKS);
+
+        int done = 0;
+        for (int week = next.getWeek(); week <= lastWeek; week++) {
+            try {
+                int games = work.apply(season, week);
+                log.info("Finished {} of season {} week {} with {} games.", action, season, week, games);
+                done++;
+            } catch (RuntimeException e) {
+                log.warn("Unable to {} season {} week {}: {}", action, season, week, e.getMessage());
+            }
+        }
+
+        return done;
+    }
+
+    @Override
     public GamesList getGamesForSeasonAndWeek(int season, int week) {
         Collection<Game> existingGames = gamesService.findAllBySeasonAndWeek(season, week);
         if (CollectionUtils.isEmpty(existingGames)) {
-            // Games don't yet exist. Grab the data from MSF.
+            // Games don't yet exist. Only one caller per week goes to MSF; everyone else waits on its result.
+            WeekKey key = new WeekKey(season, week);
+            AtomicBoolean led = new AtomicBoolean(false);
+            try {
+                return coldWeekLoads.execute(key, () -> {
+                    led.set(true);
+                    return loadGamesForSeasonAndWeek(season, week);
+                });
+            } catch (MySportsFeedsBackoffException e) {
+                if (led.get()) {
+                    throw e;
+                }
+
+                // The load we waited on may have been a prefetch, refused a share of the budget this caller still
+                // has. Once more at our own priority.
+                log.debug("Load of season {} week {} we waited on was refused, retrying at {} priority: {}", season, week, MySportsFeedsPriority.current(), e.getMessage());
+                return coldWeekLoads.execute(key, () -> loadGamesForSeasonAndWeek(season, week));
+            }
+        } else {
+            return new GamesList(existingGames.stream().map(this::getGameView).collect(Collectors.toList()));
+        }
+    }
+
+    private GamesList loadGamesForSeasonAndWeek(int season, int week) {
+        // A load for this week may have finished between our read and getting here.
+        Collection<Game> existingGames = gamesService.findAllBySeasonAndWeek(season, week);
+        if (CollectionUtils.isEmpty(existingGames)) {
             FullGameSchedule schedule = mySportsFeedsService.getGamesForSeasonAndWeek(season, week);
 
             // Add ALL of the games from the requested schedule to the database. Return only those for the requested week.
@@ -80,43 +166,142 @@ public class ScheduleServiceImpl implements ScheduleService {
         }
     }
 
-    private Game getGameByExternalId(int externalId, int week, Instant date) {
-        Game game = gamesService.findByExternalId(externalId);
-        if (game == null) {
-            // We have a score, but not the actual game somehow... Request the week's games to fill in.
-            getGamesForSeasonAndWeek(ScheduleUtil.getSeasonForDate(date), week);
+    @Override
+    public void processScoresForDate(Instant date) {
+        processScoresForDates(Collections.singleton(date.atZone(ZoneId.of("America/New_York")).toLocalDate()));
+    }
 
-            // Try to get it again.
-            game = gamesService.findByExternalId(externalId);
-            if (game == null) {
-                throw new RuntimeException(
-                        String.format("Unable to find game with external ID %d in database.", externalId));
-            }
+    @Override
+    public void processScoresForStartedGames() {
+        long now = System.currentTimeMillis();
+        List<Game> unfinished = gamesService.findIncompleteGamesBetween(now - TimeUnit.DAYS.toMillis(scoreLookbackDays), now);
+
+        Set<LocalDate> dates = unfinished.stream().map(game -> ScheduleUtil.getScoreboardDate(game.getGameTimeEpoch())).collect(Collectors.toSet());
+        if (dates.isEmpty()) {
+            log.info("No started games are missing final scores.");
+            return;
         }
 
-        return game;
+        processScoresForDates(dates);
     }
 
     @Override
-    @Transactional
-    public void processScoresForDate(Instant date) {
-        Scoreboard scoreboard = mySportsFeedsService.getFinalGameScores(date);
-        if (scoreboard == null || CollectionUtils.isEmpty(scoreboard.getGameScores())) {
-            log.info("No final scores found for date {}", date);
-            return;
+    public void processScoresForDates(Collection<LocalDate> dates) {
+        Set<LocalDate> uniqueDates = new TreeSet<>(dates);
+
+        // One MSF request per date, all in flight at once. These skip the scoreboard cache: it only refreshes every
+        // minute or so, and a poll answered from it can't see a game go final any sooner than that.
+        Map<LocalDate, CompletableFuture<Scoreboard>> requests = new LinkedHashMap<>();
+        for (LocalDate date : uniqueDates) {
+            requests.put(date, CompletableFuture.supplyAsync(() -> mySportsFeedsService.fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(date), MySportsFeedsPriority.FINAL_SCORES), executorService));
         }
 
-        List<GameScore> scores = scoreboard.getGameScores();
-        for (GameScore gameScore : scores) {
+        Map<LocalDate, Scoreboard> scoreboards = new LinkedHashMap<>();
+        for (Map.Entry<LocalDate, CompletableFuture<Scoreboard>> request : requests.entrySet()) {
             try {
+                scoreboards.put(request.getKey(), request.getValue().join());
+            } catch (CompletionException e) {
+                log.warn("Unable to retrieve final scores for date {}: {}", request.getKey(), e.getCause().getMessage());
+            }
+        }
+
+        recordFinalScores(scoreboards);
+    }
+
+    @Override
+    public List<Game> recordFinalScores(Map<LocalDate, Scoreboard> scoreboards) {
+        // Final scores by external ID. Windows can overlap, so a game may be on more than one date's scoreboard; it's
+        // only recorded once.
+        Map<Integer, GameScore> finalScores = new LinkedHashMap<>();
+        Map<Integer, LocalDate> scoreDates = new HashMap<>();
+        for (Map.Entry<LocalDate, Scoreboard> entry : scoreboards.entrySet()) {
+            Scoreboard scoreboard = entry.getValue();
+            if (scoreboard == null || CollectionUtils.isEmpty(scoreboard.getGameScores())) {
+                log.info("No final scores found for date {}", entry.getKey());
+                continue;
+            }
+
+            for (GameScore gameScore : scoreboard.getGameScores()) {
                 GameEntry gameEntry = gameScore.getGame();
                 if (!"true".equalsIgnoreCase(gameScore.getIsCompleted())) {
-                    log.warn("Received non-complete game in response for game with external ID %d", gameEntry.getId());
+                    log.warn("Received non-complete game in response for game with external ID {}", gameEntry.getId());
                     continue;
                 }
 
-                Game game = getGameByExternalId(gameEntry.getId(), gameEntry.getWeek(), date);
-                if (game.getWinningTeamId() != null) {
+                if (finalScores.putIfAbsent(gameEntry.getId(), gameScore) == null) {
+                    scoreDates.put(gameEntry.getId(), entry.getKey());
+                }
+            }
+        }
+
+        if (finalScores.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Game> completed = getNewlyCompletedGames(finalScores.values(), findGamesForScores(finalScores, scoreDates));
+        if (completed.isEmpty()) {
+            return completed;
+        }
+
+        // Every winner across every date goes out in the same transaction.
+        List<Game> saved = gamesService.saveGames(completed);
+
+        saved.forEach(game -> gameEventService.publish(new GameCompleted(game)));
+
+        return saved;
+    }
+
+    /**
+     * The stored game for every score, keyed by external ID, in one query. Scores for games we don't have yet pull
+     * in their weeks (once per week) and those games are then looked up together.
+     */
+    private Map<Integer, Game> findGamesForScores(Map<Integer, GameScore> finalScores, Map<Integer, LocalDate> scoreDates) {
+        Map<Integer, Game> games = byExternalId(gamesService.findByExternalIds(finalScores.keySet()));
+
+        Set<Integer> missing = new HashSet<>(finalScores.keySet());
+        missing.removeAll(games.keySet());
+        if (missing.isEmpty()) {
+            return games;
+        }
+
+        Set<WeekKey> weeks = new LinkedHashSet<>();
+        for (Integer externalId : missing) {
+            Instant date = ScheduleUtil.getScoreboardInstant(scoreDates.get(externalId));
+            weeks.add(new WeekKey(ScheduleUtil.getSeasonForDate(date), finalScores.get(externalId).getGame().getWeek()));
+        }
+
+        for (WeekKey week : weeks) {
+            try {
+                // We have a score, but not the actual game somehow... Request the week's games to fill in.
+                getGamesForSeasonAndWeek(week.getSeason(), week.getWeek());
+            } catch (RuntimeException e) {
+                log.error("Unable to load season {} week {} for final scores: {}", week.getSeason(), week.getWeek(), e.getMessage());
+            }
+        }
+
+        games.putAll(byExternalId(gamesService.findByExternalIds(missing)));
+
+        return games;
+    }
+
+    private Map<Integer, Game> byExternalId(List<Game> games) {
+        return games.stream().collect(Collectors.toMap(Game::getExternalId, game -> game));
+    }
+
+    private List<Game> getNewlyCompletedGames(Collection<GameScore> scores, Map<Integer, Game> games) {
+        List<Game> completed = new ArrayList<>();
+
+        for (GameScore gameScore : scores) {
+            try {
+                GameEntry gameEntry = gameScore.getGame();
+
+                Game game = games.get(gameEntry.getId());
+                if (game == null) {
+                    throw new RuntimeException(
+                        String.format("Unable to find game with external ID %d in database.", gameEntry.getId()));
+                }
+
+                if (game.getGameComplete() || game.getWinningTeamId() != null) {
                     // Game has already been processed. Nothing to do.
                     continue;
                 }
@@ -124,7 +309,14 @@ public class ScheduleServiceImpl implements ScheduleService {
                 int home = gameScore.getHomeScore();
                 int away = gameScore.getAwayScore();
 
-                if (home != away) {
+                if (home == away) {
+                    // A tie is final too, it just has no winner. Recorded so the game stops counting as incomplete
+                    // and the score poll and sweeps leave it alone.
+                    log.info("Game with ID {} is complete with a tie.", game.getGameId());
+
+                    game.setGameComplete(true);
+                    completed.add(game);
+                } else {
                     // There is a winner. Sad day.
                     int winningTeamId =
                         home > away ?
@@ -141,12 +333,14 @@ public class ScheduleServiceImpl implements ScheduleService {
                     game.setWinningTeamId(team.getTeamId());
                     game.setGameComplete(true);
 
-                    gamesService.saveGame(game);
+                    completed.add(game);
                 }
             } catch (Exception e) {
                 log.error("Error occurred while attempting to process game score: {}", e.getMessage());
             }
         }
+
+        return completed;
     }
 
     private com.gci.pickem.model.Game getGameView(Game game) {
@@ -163,18 +357,72 @@ public class ScheduleServiceImpl implements ScheduleService {
         return model;
     }
 
+    /**
+     * Fetch, transform, persist. Everything that talks to MSF happens before any write, and the writes are two
+     * short transactions (new and changed teams, then new and changed games), so no connection is held across a
+     * remote call. Stored games are compared field by field against their entries and only the ones that differ are
+     * written, so re-pulling an unchanged window writes nothing.
+     */
     private List<Game> processExternalGames(List<GameEntry> gameEntries) {
+        // Teams before the games that reference them.
+        syncTeams(gameEntries);
+
+        Map<Integer, Game> existingGames =
+            gamesService.findByExternalIds(gameEntries.stream().map(GameEntry::getId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Game::getExternalId, game -> game));
+
         List<Game> games = new ArrayList<>();
+        List<Game> newGames = new ArrayList<>();
+        List<Game> changedGames = new ArrayList<>();
+        List<GameEvent> changes = new ArrayList<>();
 
         for (GameEntry entry : gameEntries) {
-            // Process teams before the game.
-            processTeam(entry.getHomeTeam());
-            processTeam(entry.getAwayTeam());
+            Game incoming = convertGame(entry);
+            Game game = existingGames.get(entry.getId());
+            if (game == null) {
+                // Game isn't in the DB yet.
+                game = incoming;
+                newGames.add(game);
+            } else {
+                Long existingEpoch = game.getGameTimeEpoch();
+
+                List<GameEvent> events = GameReconciler.reconcile(game, incoming);
+                if (!events.isEmpty()) {
+                    log.info("Game with ID {} changed: {}", game.getGameId(), events);
+                    if (existingEpoch != null && existingEpoch > game.getGameTimeEpoch()) {
+                        // Game was somehow rescheduled earlier. This could be a big problem.
+                        log.warn("Game with ID {} was rescheduled to an earlier time. This could be a concern for picks.", game.getGameId());
+                    }
 
-            games.add(processGame(entry));
+                    changedGames.add(game);
+                    changes.addAll(events);
+                }
+            }
+
+            games.add(game);
         }
 
-        return games;
+        applyFinalScores(newGames);
+
+        List<Game> toSave = new ArrayList<>(newGames);
+        toSave.addAll(changedGames);
+        if (toSave.isEmpty()) {
+            log.debug("All {} games are up to date.", games.size());
+            return games;
+        }
+
+        // One short write transaction for only the rows that differ. Updates go out as a JDBC batch; new games are
+        // still one insert each, since their IDENTITY ids come back per row.
+        Map<Integer, Game> saved =
+            gamesService.saveGames(toSave).stream().collect(Collectors.toMap(Game::getExternalId, game -> game));
+
+        log.info("Saved {} new and {} changed games out of {}.", newGames.size(), changedGames.size(), games.size());
+
+        newGames.forEach(game -> gameEventService.publish(new GameAdded(saved.get(game.getExternalId()))));
+        changes.forEach(gameEventService::publish);
+
+        return games.stream().map(game -> saved.getOrDefault(game.getExternalId(), game)).collect(Collectors.toList());
     }
 
     private Game convertGame(GameEntry entry) {
@@ -195,61 +443,109 @@ public class ScheduleServiceImpl implements ScheduleService {
         com.gci.pickem.data.Team home = teamService.findByExternalId((long) entry.getHomeTeam().getId());
         game.setHomeTeamId(home.getTeamId());
 
-        // Check if the game has been finalized.
-        try {
-            GameScore score = mySportsFeedsService.getGameScore(gameTime, entry.getId());
+        game.setScheduleStatus(entry.getScheduleStatus());
+        game.setDelayedOrPostponedReason(entry.getDelayedOrPostponedReason());
+
+        return game;
+    }
+
+    /**
+     * New games that have already kicked off might be over. Rather than asking MSF about each game, fetch each
+     * date's final scoreboard once (concurrently) and mark the finished ones complete.
+     */
+    private void applyFinalScores(List<Game> newGames) {
+        long now = System.currentTimeMillis();
+        Set<LocalDate> dates =
+            newGames.stream()
+                .filter(game -> game.getGameTimeEpoch() <= now)
+                .map(game -> ScheduleUtil.getScoreboardDate(game.getGameTimeEpoch()))
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        if (dates.isEmpty()) {
+            return;
+        }
+
+        Map<LocalDate, CompletableFuture<Scoreboard>> requests = new LinkedHashMap<>();
+        for (LocalDate date : dates) {
+            requests.put(date, CompletableFuture.supplyAsync(() -> mySportsFeedsService.getFinalGameScores(ScheduleUtil.getScoreboardInstant(date)), executorService));
+        }
+
+        Map<Integer, GameScore> scores = new HashMap<>();
+        for (Map.Entry<LocalDate, CompletableFuture<Scoreboard>> request : requests.entrySet()) {
+            try {
+                Scoreboard scoreboard = request.getValue().join();
+                if (scoreboard != null && scoreboard.getGameScores() != null) {
+                    scoreboard.getGameScores().forEach(score -> scores.put(score.getGame().getId(), score));
+                }
+            } catch (CompletionException e) {
+                log.debug("No scores found for date {}: {}", request.getKey(), e.getCause().getMessage());
+            }
+        }
+
+        for (Game game : newGames) {
+            GameScore score = scores.get(game.getExternalId());
+            if (score == null) {
+                continue;
+            }
+
             game.setGameComplete(Boolean.valueOf(score.getIsCompleted()));
             if (game.getGameComplete()) {
-                game.setWinningTeamId(score.getHomeScore().compareTo(score.getAwayScore()) > 0 ? home.getTeamId() : away.getTeamId());
+                int result = score.getHomeScore().compareTo(score.getAwayScore());
+                if (result != 0) {
+                    game.setWinningTeamId(result > 0 ? game.getHomeTeamId() : game.getAwayTeamId());
+                }
             }
-        } catch (RuntimeException e) {
-            log.debug("No score found for game with external ID {}: {}", entry.getId(), e.getMessage());
         }
-
-        return game;
     }
 
-    private Game processGame(GameEntry entry) {
-        com.gci.pickem.data.Game game = gamesService.findByExternalId(entry.getId());
+    /**
+     * Creates teams we haven't seen and updates any whose names have drifted from MSF's, in one transaction.
+     */
+    private void syncTeams(List<GameEntry> gameEntries) {
+        Map<Long, com.gci.pickem.data.Team> toSave = new LinkedHashMap<>();
+        Set<Long> seen = new HashSet<>();
+        boolean updated = false;
+        for (GameEntry entry : gameEntries) {
+            for (Team external : Arrays.asList(entry.getHomeTeam(), entry.getAwayTeam())) {
+                long externalId = external.getId();
+                if (!seen.add(externalId)) {
+                    continue;
+                }
 
-        if (game != null) {
-            // It's possible the game has an updated schedule, we should process that too.
-            long existingEpoch = game.getGameTimeEpoch();
-            long entryEpoch = ScheduleUtil.getUtcGameTime(entry);
+                com.gci.pickem.data.Team existing = teamService.findByExternalId(externalId);
+                if (existing != null &&
+                        Objects.equals(existing.getAbbreviation(), external.getAbbreviation()) &&
+                        Objects.equals(existing.getCity(), external.getCity()) &&
+                        Objects.equals(existing.getTeamName(), external.getName())) {
+                    continue;
+                }
 
-            if (existingEpoch != entryEpoch) {
-                log.info("Game with ID {} has an updated game time. Was {}, updating to {}.", game.getGameId(), existingEpoch, entryEpoch);
-                if (existingEpoch > entryEpoch) {
-                    // Game was somehow rescheduled earlier. This could be a big problem.
-                    log.warn("Game with ID {} was rescheduled to an earlier time. This could be a concern for picks.");
+                // Registry teams are shared, so changes go on a fresh copy.
+                com.gci.pickem.data.Team team = new com.gci.pickem.data.Team();
+                if (existing != null) {
+                    log.info("Team with ID {} has changed, updating to {} {} ({}).", existing.getTeamId(), external.getCity(), external.getName(), external.getAbbreviation());
+                    team.setTeamId(existing.getTeamId());
+                    updated = true;
                 }
 
-                game.setGameTimeEpoch(entryEpoch);
-            }
+                team.setAbbreviation(external.getAbbreviation());
+                team.setCity(external.getCity());
+                team.setTeamName(external.getName());
+                team.setExternalId(externalId);
 
-            return game;
-        } else {
-            // Game isn't in the DB yet.
-            game = convertGame(entry);
+                toSave.put(externalId, team);
+            }
         }
 
-        // This needs to be transactional here!
-        return gamesService.saveGame(game);
-    }
+        if (toSave.isEmpty()) {
+            return;
+        }
 
-    private void processTeam(Team external) {
-        // TODO: Possible this data could get out of sync. We should probably compare everything and update our record.
-        com.gci.pickem.data.Team team = teamService.findByExternalId((long) external.getId());
-        if (team == null) {
-            // Team doesn't already exist.
-            team = new com.gci.pickem.data.Team();
-            team.setAbbreviation(external.getAbbreviation());
-            team.setCity(external.getCity());
-            team.setTeamName(external.getName());
-            team.setExternalId((long) external.getId());
+        teamService.saveTeams(toSave.values());
 
-            // This needs to be transactional here!
-            teamService.createTeam(team);
+        if (updated) {
+            // Cached weeks carry team names.
+            weekScheduleCache.invalidateAll();
         }
     }
 }
@@ -0,0 +1,77 @@
+package com.gci.pickem.service.schedule;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.model.ScorePollPlan;
+import com.gci.pickem.service.game.GamesService;
+import com.gci.pickem.util.ScheduleUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Works out when final scores are worth asking MSF for, based on the kickoff times we already know.
+ */
+@Component
+public class ScorePollPlanner {
+
+    private final GamesService gamesService;
+    private final long pollIntervalMillis;
+    private final long minGameMillis;
+    private final long maxGameMillis;
+
+    @Autowired
+    ScorePollPlanner(
+        GamesService gamesService,
+        @Value("${pickem.scores.poll.interval-seconds:30}") long pollIntervalSeconds,
+        @Value("${pickem.scores.poll.min-game-minutes:150}") long minGameMinutes,
+        @Value("${pickem.scores.poll.max-game-hours:8}") long maxGameHours
+    ) {
+        this.gamesService = gamesService;
+        this.pollIntervalMillis = TimeUnit.SECONDS.toMillis(pollIntervalSeconds);
+        this.minGameMillis = TimeUnit.MINUTES.toMillis(minGameMinutes);
+        this.maxGameMillis = TimeUnit.HOURS.toMillis(maxGameHours);
+    }
+
+    public ScorePollPlan plan(long now) {
+        // Only unfinished games count, so a date drops out as soon as all of its games are final.
+        List<Game> started = gamesService.findIncompleteGamesBetween(now - maxGameMillis, now);
+
+        SortedSet<LocalDate> finishingDates = new TreeSet<>();
+        long earliestFinish = Long.MAX_VALUE;
+        for (Game game : started) {
+            long finish = game.getGameTimeEpoch() + minGameMillis;
+            if (finish <= now) {
+                finishingDates.add(ScheduleUtil.getScoreboardDate(game.getGameTimeEpoch()));
+            } else {
+                earliestFinish = Math.min(earliestFinish, finish);
+            }
+        }
+
+        if (!finishingDates.isEmpty()) {
+            return new ScorePollPlan(
+                now,
+                now + pollIntervalMillis,
+                new ArrayList<>(finishingDates),
+                String.format("Games may be finishing on %d date(s)", finishingDates.size()));
+        }
+
+        if (earliestFinish != Long.MAX_VALUE) {
+            return new ScorePollPlan(now, earliestFinish, Collections.emptyList(), "Waiting for in-progress games to near completion");
+        }
+
+        Game next = gamesService.findNextGameAfter(now);
+        if (next != null) {
+            return new ScorePollPlan(now, next.getGameTimeEpoch() + minGameMillis, Collections.emptyList(), "Waiting for next kickoff");
+        }
+
+        return new ScorePollPlan(now, null, Collections.emptyList(), "No games in progress or scheduled");
+    }
+}
@@ -0,0 +1,235 @@
+package com.gci.pickem.service.schedule;
+
+import com.gci.pickem.model.SeasonWeek;
+import com.gci.pickem.repository.GameRepository;
+import com.gci.pickem.service.event.GameCompleted;
+import com.gci.pickem.service.event.GameEvent;
+import com.gci.pickem.service.event.GameEventListener;
+import com.gci.pickem.service.event.GameEventService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Every stored week as a (season, week, first kickoff, last kickoff) interval, plus every kickoff, held in sorted
+ * arrays so "which week is it" and "when is the next lock" are binary searches rather than game queries.
+ *
+ * Any event that can add or move a game marks the calendar stale and schedules a rebuild from one query, a moment
+ * later so a whole import's worth of events is one rebuild. Readers never rebuild: they keep reading the previous
+ * index until the new one is swapped in. Only the very first build happens on a reader, since there's nothing to
+ * serve before it, and readers wait for it.
+ */
+@Component
+public class SeasonCalendar implements GameEventListener {
+    private static final Logger log = LoggerFactory.getLogger(SeasonCalendar.class);
+
+    // How long to wait before retrying a rebuild that failed.
+    private static final long RETRY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private GameRepository gameRepository;
+    private GameEventService gameEventService;
+    private TaskScheduler taskScheduler;
+
+    @Value("${pickem.calendar.rebuild-delay-ms:1000}")
+    private long rebuildDelayMillis;
+
+    // Null until the first build.
+    private volatile Index index = null;
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+
+    @Autowired
+    SeasonCalendar(
+        GameRepository gameRepository,
+        GameEventService gameEventService,
+        TaskScheduler taskScheduler
+    ) {
+        this.gameRepository = gameRepository;
+        this.gameEventService = gameEventService;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @PostConstruct
+    public void registerListener() {
+        gameEventService.subscribe(this);
+    }
+
+    /**
+     * The week in progress at the given time, or the next one to start if it falls between weeks. A week is over
+     * once its last game has kicked off. Null if there are no weeks left.
+     *
+     * Weeks can overlap when a postponed game is moved past the start of the next week. The most recently started
+     * week always wins: once the next week's first game kicks off it's the current week, even though the earlier
+     * week still has a game to play, and once it's over the week after is next rather than the earlier one again.
+     */
+    public SeasonWeek getWeekAt(long epoch) {
+        Index current = getIndex();
+
+        // Last week to have started by then.
+        int i = Arrays.binarySearch(current.firstKickoffs, epoch);
+        i = i < 0 ? -i - 2 : i;
+
+        if (i >= 0 && current.weeks[i].getLastKickoff() >= epoch) {
+            return current.weeks[i];
+        }
+
+        return i + 1 < current.weeks.length ? current.weeks[i + 1] : null;
+    }
+
+    /**
+     * The first kickoff after the given time, which is when the next game's picks lock. Null if there isn't one.
+     */
+    public Long getNextKickoff(long epoch) {
+        long[] kickoffs = getIndex().kickoffs;
+
+        int i = Arrays.binarySearch(kickoffs, epoch);
+        i = i < 0 ? -i - 1 : i + 1;
+
+        // Several games can share a kickoff.
+        while (i < kickoffs.length && kickoffs[i] <= epoch) {
+            i++;
+        }
+
+        return i < kickoffs.length ? kickoffs[i] : null;
+    }
+
+    /**
+     * Whether any game kicks off in [start, end].
+     */
+    public boolean hasKickoffBetween(long start, long end) {
+        long[] kickoffs = getIndex().kickoffs;
+
+        int i = Arrays.binarySearch(kickoffs, start);
+        i = i < 0 ? -i - 1 : i;
+
+        return i < kickoffs.length && kickoffs[i] <= end;
+    }
+
+    /**
+     * Rebuilds on the calling thread.
+     */
+    public void refresh() {
+        stale.set(true);
+        rebuild();
+    }
+
+    private Index getIndex() {
+        Index current = index;
+        return current == null ? getFirstIndex() : current;
+    }
+
+    private synchronized Index getFirstIndex() {
+        if (index == null) {
+            // Cleared first, so an event that arrives during the build still marks it stale.
+            stale.set(false);
+            try {
+                return build();
+            } catch (RuntimeException e) {
+                stale.set(true);
+                throw e;
+            }
+        }
+
+        return index;
+    }
+
+    private synchronized void rebuild() {
+        rebuildScheduled.set(false);
+
+        if (index == null) {
+            // Nothing has read it yet. The first reader builds it, and will see whatever changed.
+            return;
+        }
+
+        if (stale.compareAndSet(true, false)) {
+            try {
+                build();
+            } catch (RuntimeException e) {
+                stale.set(true);
+                log.warn("Unable to rebuild the season calendar, still serving the previous one: {}", e.getMessage());
+                scheduleRebuild(RETRY_MILLIS);
+            }
+        }
+    }
+
+    private void scheduleRebuild(long delayMillis) {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::rebuild, new Date(System.currentTimeMillis() + delayMillis));
+        }
+    }
+
+    private Index build() {
+        Index built = Index.of(gameRepository.findAllKickoffs());
+        index = built;
+
+        log.info("Season calendar rebuilt with {} weeks and {} games.", built.weeks.length, built.kickoffs.length);
+        return built;
+    }
+
+    @Override
+    public String getName() {
+        return "SeasonCalendar";
+    }
+
+    @Override
+    public void onGameEvent(GameEvent event) {
+        // Completion doesn't move anything.
+        if (!(event instanceof GameCompleted)) {
+            stale.set(true);
+            scheduleRebuild(rebuildDelayMillis);
+        }
+    }
+
+    private static final class Index {
+
+        // Weeks ordered by first kickoff, with those kickoffs pulled out to search on.
+        private final SeasonWeek[] weeks;
+        private final long[] firstKickoffs;
+
+        private final long[] kickoffs;
+
+        private Index(SeasonWeek[] weeks, long[] kickoffs) {
+            this.weeks = weeks;
+            this.firstKickoffs = Arrays.stream(weeks).mapToLong(SeasonWeek::getFirstKickoff).toArray();
+            this.kickoffs = kickoffs;
+        }
+
+        /**
+         * @param rows season, week and kickoff of each game, ordered by kickoff.
+         */
+        static Index of(List<Object[]> rows) {
+            long[] kickoffs = new long[rows.size()];
+
+            // First kickoff, last kickoff and game count per week. Rows come in kickoff order, so weeks are added in
+            // order of their first kickoff.
+            Map<WeekKey, long[]> intervals = new LinkedHashMap<>();
+
+            for (int i = 0; i < rows.size(); i++) {
+                Object[] row = rows.get(i);
+                int season = ((Number) row[0]).intValue();
+                int week = ((Number) row[1]).intValue();
+                long kickoff = ((Number) row[2]).longValue();
+
+                kickoffs[i] = kickoff;
+
+                long[] interval = intervals.computeIfAbsent(new WeekKey(season, week), key -> new long[] { kickoff, kickoff, 0 });
+                interval[1] = kickoff;
+                interval[2]++;
+            }
+
+            List<SeasonWeek> weeks = new ArrayList<>(intervals.size());
+            intervals.forEach((key, interval) ->
+                weeks.add(new SeasonWeek(key.getSeason(), key.getWeek(), interval[0], interval[1], (int) interval[2])));
+
+            return new Index(weeks.toArray(new SeasonWeek[weeks.size()]), kickoffs);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.gci.pickem.service.schedule;
+
+import com.gci.pickem.model.GamesList;
+
+/**
+ * A week's games along with the exact bytes we send for them, so a cached week costs no serialization.
+ */
+public class SerializedWeekSchedule {
+
+    private final GamesList games;
+    private final byte[] json;
+    private final byte[] gzippedJson;
+    private final String etag;
+
+    SerializedWeekSchedule(GamesList games, byte[] json, byte[] gzippedJson, String etag) {
+        this.games = games;
+        this.json = json;
+        this.gzippedJson = gzippedJson;
+        this.etag = etag;
+    }
+
+    public GamesList getGames() {
+        return games;
+    }
+
+    /**
+     * UTF-8 JSON. Shared, don't modify.
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * The same JSON, gzipped. Shared, don't modify.
+     */
+    public byte[] getGzippedJson() {
+        return gzippedJson;
+    }
+
+    /**
+     * Strong ETag (quoted) derived from the JSON bytes.
+     */
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,43 @@
+package com.gci.pickem.service.schedule;
+
+import java.util.Objects;
+
+/**
+ * A season and week, as a map key.
+ */
+final class WeekKey {
+    private final int season;
+    private final int week;
+
+    WeekKey(int season, int week) {
+        this.season = season;
+        this.week = week;
+    }
+
+    int getSeason() {
+        return season;
+    }
+
+    int getWeek() {
+        return week;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        WeekKey that = (WeekKey) o;
+        return season == that.season && week == that.week;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(season, week);
+    }
+}
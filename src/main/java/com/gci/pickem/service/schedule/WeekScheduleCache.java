@@ -0,0 +1,149 @@
+package com.gci.pickem.service.schedule;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gci.pickem.model.CacheStatsView;
+import com.gci.pickem.model.GamesList;
+import com.gci.pickem.service.event.GameChanged;
+import com.gci.pickem.service.event.GameEvent;
+import com.gci.pickem.service.event.GameEventListener;
+import com.gci.pickem.service.event.GameEventService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully built {@link GamesList} per season and week, along with its serialized JSON, gzipped JSON and ETag. Any
+ * event for a game in the week (added, rescheduled, completed) drops that week, and entries expire after a few
+ * hours regardless in case something changes without an event.
+ */
+@Component
+public class WeekScheduleCache implements GameEventListener {
+
+    private GameEventService gameEventService;
+    private ObjectMapper objectMapper;
+
+    private final Cache<WeekKey, SerializedWeekSchedule> cache;
+
+    // Bumped on every invalidation, so a load that raced with one doesn't put back what was just dropped.
+    private final Map<WeekKey, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    WeekScheduleCache(
+        GameEventService gameEventService,
+        ObjectMapper objectMapper,
+        @Value("${pickem.schedule.cache.max-weeks:200}") long maxWeeks,
+        @Value("${pickem.schedule.cache.expire-minutes:360}") long expireMinutes
+    ) {
+        this.gameEventService = gameEventService;
+        this.objectMapper = objectMapper;
+        this.cache =
+            CacheBuilder.newBuilder()
+                .maximumSize(maxWeeks)
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+    }
+
+    @PostConstruct
+    public void registerListener() {
+        gameEventService.subscribe(this);
+    }
+
+    public GamesList get(int season, int week, Supplier<GamesList> loader) {
+        return getSerialized(season, week, loader).getGames();
+    }
+
+    public SerializedWeekSchedule getSerialized(int season, int week, Supplier<GamesList> loader) {
+        WeekKey key = new WeekKey(season, week);
+
+        SerializedWeekSchedule schedule = cache.getIfPresent(key);
+        if (schedule != null) {
+            return schedule;
+        }
+
+        long generation = generations.getOrDefault(key, 0L);
+        schedule = serialize(loader.get());
+
+        // An empty week most likely means MSF didn't have it yet, try again next time.
+        if (CollectionUtils.isNotEmpty(schedule.getGames().getGames()) && generation == generations.getOrDefault(key, 0L)) {
+            cache.put(key, schedule);
+        }
+
+        return schedule;
+    }
+
+    public void invalidate(int season, int week) {
+        invalidate(new WeekKey(season, week));
+    }
+
+    private void invalidate(WeekKey key) {
+        generations.merge(key, 1L, Long::sum);
+        cache.invalidate(key);
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * Drops every week, for changes that aren't tied to one (like a team being renamed).
+     */
+    public void invalidateAll() {
+        cache.asMap().keySet().forEach(this::invalidate);
+    }
+
+    public CacheStatsView getStats() {
+        return new CacheStatsView("weekSchedule", cache, invalidations.get());
+    }
+
+    private SerializedWeekSchedule serialize(GamesList games) {
+        if (games == null) {
+            games = new GamesList();
+        }
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(games);
+
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(json);
+            }
+
+            String etag = String.format("\"%s\"", Hashing.sha256().hashBytes(json).toString().substring(0, 32));
+
+            return new SerializedWeekSchedule(games, json, gzipped.toByteArray(), etag);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to serialize games: %s", e.getMessage()), e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "WeekScheduleCache";
+    }
+
+    @Override
+    public void onGameEvent(GameEvent event) {
+        invalidate(event.getSeason(), event.getWeek());
+
+        if (event instanceof GameChanged) {
+            // A game that moved weeks is stale in the week it left, too.
+            GameChanged changed = (GameChanged) event;
+            if (changed.getPreviousSeason() != event.getSeason() || changed.getPreviousWeek() != event.getWeek()) {
+                invalidate(changed.getPreviousSeason(), changed.getPreviousWeek());
+            }
+        }
+    }
+}
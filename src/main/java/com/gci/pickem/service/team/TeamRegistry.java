@@ -0,0 +1,81 @@
+package com.gci.pickem.service.team;
+
+import com.gci.pickem.data.Team;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of every team, looked up by team ID or external (MSF) ID. Each ID space is a sorted long[]
+ * with a parallel array of teams, so a lookup is a binary search with no boxing. Changes produce a new registry.
+ *
+ * The teams held here are copies, detached from any persistence context, and shared by every caller. Don't modify
+ * them.
+ */
+final class TeamRegistry {
+
+    static final TeamRegistry EMPTY = new TeamRegistry(Collections.emptyList());
+
+    private final long[] teamIds;
+    private final Team[] byTeamId;
+
+    private final long[] externalIds;
+    private final Team[] byExternalId;
+
+    private TeamRegistry(Collection<Team> teams) {
+        List<Team> copies = new ArrayList<>(teams.size());
+        for (Team team : teams) {
+            copies.add(copy(team));
+        }
+
+        copies.sort(Comparator.comparing(Team::getTeamId));
+        this.teamIds = copies.stream().mapToLong(Team::getTeamId).toArray();
+        this.byTeamId = copies.toArray(new Team[copies.size()]);
+
+        copies.sort(Comparator.comparing(Team::getExternalId));
+        this.externalIds = copies.stream().mapToLong(Team::getExternalId).toArray();
+        this.byExternalId = copies.toArray(new Team[copies.size()]);
+    }
+
+    static TeamRegistry of(Collection<Team> teams) {
+        return new TeamRegistry(teams);
+    }
+
+    Team getById(long teamId) {
+        int index = Arrays.binarySearch(teamIds, teamId);
+        return index < 0 ? null : byTeamId[index];
+    }
+
+    Team getByExternalId(long externalId) {
+        int index = Arrays.binarySearch(externalIds, externalId);
+        return index < 0 ? null : byExternalId[index];
+    }
+
+    int size() {
+        return teamIds.length;
+    }
+
+    /**
+     * A new registry with the given team added, or replacing the team with the same ID.
+     */
+    TeamRegistry with(Team team) {
+        Map<Long, Team> teams = new HashMap<>();
+        for (Team existing : byTeamId) {
+            teams.put(existing.getTeamId(), existing);
+        }
+
+        teams.put(team.getTeamId(), team);
+
+        return new TeamRegistry(teams.values());
+    }
+
+    private static Team copy(Team team) {
+        Team copy = new Team();
+        copy.setTeamId(team.getTeamId());
+        copy.setExternalId(team.getExternalId());
+        copy.setAbbreviation(team.getAbbreviation());
+        copy.setCity(team.getCity());
+        copy.setTeamName(team.getTeamName());
+
+        return copy;
+    }
+}
@@ -2,11 +2,25 @@ package com.gci.pickem.service.team;
 
 import com.gci.pickem.data.Team;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface TeamService {
 
     void createTeam(Team team);
 
+    /**
+     * Creates or updates all of the teams in one transaction.
+     */
+    List<Team> saveTeams(Collection<Team> teams);
+
     Team findByExternalId(Long externalId);
 
     Team findById(Long teamId);
+
+    /**
+     * Reloads every team from the database. Needed after teams are written without going through
+     * {@link #createTeam(Team)}, like a bulk schedule import.
+     */
+    void refresh();
 }
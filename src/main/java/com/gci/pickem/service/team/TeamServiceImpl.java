@@ -2,15 +2,31 @@ package com.gci.pickem.service.team;
 
 import com.gci.pickem.repository.TeamRepository;
 import com.gci.pickem.data.Team;
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class TeamServiceImpl implements TeamService {
+    private static final Logger log = LoggerFactory.getLogger(TeamServiceImpl.class);
 
     private TeamRepository teamRepository;
 
+    // Teams almost never change, so reads go to an immutable snapshot and writes swap in a new one.
+    private final AtomicReference<TeamRegistry> registry = new AtomicReference<>(TeamRegistry.EMPTY);
+
     @Autowired
     TeamServiceImpl(
         TeamRepository teamRepository
@@ -18,19 +34,73 @@ public class TeamServiceImpl implements TeamService {
         this.teamRepository = teamRepository;
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
     @Override
     @Transactional
     public void createTeam(Team team) {
-        teamRepository.save(team);
+        saveTeams(Collections.singletonList(team));
+    }
+
+    @Override
+    @Transactional
+    public List<Team> saveTeams(Collection<Team> teams) {
+        List<Team> saved = Lists.newArrayList(teamRepository.save(teams));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Don't hand out a team that might still be rolled back.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    saved.forEach(team -> register(team));
+                }
+            });
+        } else {
+            saved.forEach(team -> register(team));
+        }
+
+        return saved;
     }
 
     @Override
     public Team findByExternalId(Long externalId) {
-        return teamRepository.findByExternalId(externalId);
+        Team team = registry.get().getByExternalId(externalId);
+        if (team == null) {
+            // Not loaded yet, or added by someone else. The database has the final say.
+            team = teamRepository.findByExternalId(externalId);
+            if (team != null) {
+                team = register(team);
+            }
+        }
+
+        return team;
     }
 
     @Override
     public Team findById(Long teamId) {
-        return teamRepository.findOne(teamId);
+        Team team = registry.get().getById(teamId);
+        if (team == null) {
+            team = teamRepository.findOne(teamId);
+            if (team != null) {
+                team = register(team);
+            }
+        }
+
+        return team;
+    }
+
+    @Override
+    public void refresh() {
+        TeamRegistry loaded = TeamRegistry.of(Lists.newArrayList(teamRepository.findAll()));
+        registry.set(loaded);
+
+        log.info("Loaded {} teams into the team registry.", loaded.size());
+    }
+
+    private Team register(Team team) {
+        return registry.updateAndGet(current -> current.with(team)).getById(team.getTeamId());
     }
 }
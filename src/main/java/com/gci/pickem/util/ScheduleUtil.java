@@ -3,14 +3,69 @@ package com.gci.pickem.util;
 import com.gci.pickem.model.mysportsfeeds.GameEntry;
 
 import java.time.*;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.TemporalAccessor;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public abstract class ScheduleUtil {
 
-    private static final Pattern GAME_TIME_PATTERN = Pattern.compile("(1?[0-9]):([0-5][0-9])([AP]M)");
+    private static final ZoneId EASTERN = ZoneId.of("America/New_York");
+
+    private static final int SECONDS_PER_DAY = 86400;
+    private static final int DAYS_0000_TO_1970 = 719528;
+
+    /*
+     * ET offsets for every transition between these years, worked out once. Game times in the range are converted
+     * with a binary search over these instead of going through java.time, which allocates several objects per call.
+     * Anything outside the range falls back to java.time.
+     */
+    private static final int FIRST_CACHED_YEAR = 1970;
+    private static final int LAST_CACHED_YEAR = 2099;
+
+    private static final long CACHE_START_EPOCH_SECOND;
+    private static final long CACHE_END_EPOCH_SECOND;
+
+    // Transition instants, and the same transitions as ET local seconds: the first local time that takes the new
+    // offset. Offset i applies before transition i, the last offset after all of them.
+    private static final long[] UTC_TRANSITIONS;
+    private static final long[] LOCAL_TRANSITIONS;
+    private static final int[] OFFSETS;
+
+    static {
+        ZoneRules rules = EASTERN.getRules();
+
+        Instant start = LocalDate.of(FIRST_CACHED_YEAR, 1, 1).atStartOfDay(EASTERN).toInstant();
+        Instant end = LocalDate.of(LAST_CACHED_YEAR + 1, 1, 1).atStartOfDay(EASTERN).toInstant();
+
+        List<ZoneOffsetTransition> transitions = new ArrayList<>();
+        ZoneOffsetTransition transition = rules.nextTransition(start);
+        while (transition != null && transition.getInstant().isBefore(end)) {
+            transitions.add(transition);
+            transition = rules.nextTransition(transition.getInstant());
+        }
+
+        CACHE_START_EPOCH_SECOND = start.getEpochSecond();
+        CACHE_END_EPOCH_SECOND = end.getEpochSecond();
+
+        UTC_TRANSITIONS = new long[transitions.size()];
+        LOCAL_TRANSITIONS = new long[transitions.size()];
+        OFFSETS = new int[transitions.size() + 1];
+
+        OFFSETS[0] = rules.getOffset(start).getTotalSeconds();
+        for (int i = 0; i < transitions.size(); i++) {
+            ZoneOffsetTransition t = transitions.get(i);
+            int before = t.getOffsetBefore().getTotalSeconds();
+            int after = t.getOffsetAfter().getTotalSeconds();
+
+            UTC_TRANSITIONS[i] = t.getInstant().getEpochSecond();
+            // Same as ZonedDateTime.of: times in a gap are pushed forward, times in an overlap take the earlier
+            // offset. Either way the old offset holds until the later of the two local times.
+            LOCAL_TRANSITIONS[i] = UTC_TRANSITIONS[i] + Math.max(before, after);
+            OFFSETS[i + 1] = after;
+        }
+    }
 
     private ScheduleUtil() {
     }
@@ -22,48 +77,177 @@ public abstract class ScheduleUtil {
          * took place in the beginning of the year, then we need to subtract one from the
          * year we have to get the season.
          */
-        LocalDate localDate = instant.atZone(ZoneId.of("America/New_York")).toLocalDate();
-        return localDate.getMonthValue() >= Month.AUGUST.getValue() ? localDate.getYear() : localDate.getYear() - 1;
+        long epochSecond = instant.getEpochSecond();
+        if (!isCached(epochSecond)) {
+            LocalDate localDate = instant.atZone(EASTERN).toLocalDate();
+            return localDate.getMonthValue() >= Month.AUGUST.getValue() ? localDate.getYear() : localDate.getYear() - 1;
+        }
+
+        long epochDay = Math.floorDiv(epochSecond + getOffsetAt(epochSecond), SECONDS_PER_DAY);
+
+        // Days to civil year and month, from a March-based year so the leap day comes last.
+        long days = epochDay + DAYS_0000_TO_1970 - 60;
+        long era = Math.floorDiv(days, 146097);
+        long dayOfEra = days - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long marchMonth = (5 * dayOfYear + 2) / 153;
+
+        int year = (int) (yearOfEra + era * 400);
+        int month = (int) (marchMonth < 10 ? marchMonth + 3 : marchMonth - 9);
+        if (month <= 2) {
+            year++;
+        }
+
+        return month >= Month.AUGUST.getValue() ? year : year - 1;
+    }
+
+    /**
+     * MSF files a game's score under its scheduled ET date, even when it ends after midnight.
+     */
+    public static LocalDate getScoreboardDate(long gameTimeEpoch) {
+        long epochSecond = Math.floorDiv(gameTimeEpoch, 1000);
+        if (!isCached(epochSecond)) {
+            return Instant.ofEpochMilli(gameTimeEpoch).atZone(EASTERN).toLocalDate();
+        }
+
+        return LocalDate.ofEpochDay(Math.floorDiv(epochSecond + getOffsetAt(epochSecond), SECONDS_PER_DAY));
+    }
+
+    /**
+     * Midday on the given ET date, so there's no doubt which date (and season) MSF sees.
+     */
+    public static Instant getScoreboardInstant(LocalDate date) {
+        return date.atTime(LocalTime.NOON).atZone(EASTERN).toInstant();
     }
 
     public static long getUtcGameTime(GameEntry gameEntry) {
-        String date = gameEntry.getDate();
-        String time = get24HourTime(gameEntry.getTime());
+        return getUtcGameTime(gameEntry.getDate(), gameEntry.getTime());
+    }
+
+    /**
+     * Epoch millis for an MSF date ("2017-09-10") and time ("1:00PM", ET), parsed in place.
+     */
+    public static long getUtcGameTime(String date, String time) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            throw new RuntimeException(String.format("Unexpected game date format: %s", date));
+        }
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        int year = parseDigits(date, 0, 4);
+        int month = parseDigits(date, 5, 7);
+        int day = parseDigits(date, 8, 10);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+            throw new RuntimeException(String.format("Unexpected game date format: %s", date));
+        }
+
+        // Like the lenient ISO resolver, a day past the end of the month is the last day of the month.
+        day = Math.min(day, getMonthLength(year, month));
+
+        int minuteOfDay = getMinuteOfDay(time);
+        if (year < FIRST_CACHED_YEAR || year > LAST_CACHED_YEAR) {
+            return LocalDate.of(year, month, day).atTime(minuteOfDay / 60, minuteOfDay % 60).atZone(EASTERN).toInstant().toEpochMilli();
+        }
 
-        TemporalAccessor temporalAccessor = formatter.parse(String.format("%s %s", date, time));
-        LocalDateTime localDateTime = LocalDateTime.from(temporalAccessor);
-        ZonedDateTime zonedDateTime = ZonedDateTime.of(localDateTime, ZoneId.of("America/New_York"));
-        return Instant.from(zonedDateTime).toEpochMilli();
+        long localSecond = getEpochDay(year, month, day) * SECONDS_PER_DAY + minuteOfDay * 60L;
+        int index = Arrays.binarySearch(LOCAL_TRANSITIONS, localSecond);
+        int offset = OFFSETS[index < 0 ? -index - 1 : index + 1];
+
+        return (localSecond - offset) * 1000;
     }
 
     static String get24HourTime(String time) {
-        Matcher m = GAME_TIME_PATTERN.matcher(time);
-        if (!m.matches()) {
+        int minuteOfDay = getMinuteOfDay(time);
+        return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    /**
+     * Minutes past midnight for an MSF time: "h:mmAM" or "hh:mmPM".
+     */
+    private static int getMinuteOfDay(String time) {
+        int length = time == null ? 0 : time.length();
+        if (length != 6 && length != 7) {
             throw new RuntimeException(String.format("Unexpected game time format: %s", time));
         }
 
-        String militaryTime = "";
+        int colon = length - 5;
+        int hour = parseDigits(time, 0, colon);
+        int minute = parseDigits(time, colon + 1, colon + 3);
+        char amPm = time.charAt(length - 2);
 
-        String hour = m.group(1);
+        if (time.charAt(colon) != ':' || (length == 7 && time.charAt(0) != '1') || hour < 0 || minute < 0 || minute > 59 ||
+                (amPm != 'A' && amPm != 'P') || time.charAt(length - 1) != 'M') {
+            throw new RuntimeException(String.format("Unexpected game time format: %s", time));
+        }
+
+        if (amPm == 'P' && hour != 12) {
+            hour += 12;
+        } else if (amPm == 'A' && hour == 12) {
+            hour = 0;
+        }
 
-        String timeOfDay = m.group(3);
-        if ("PM".equals(timeOfDay) && !"12".equals(hour)) {
-            militaryTime += Integer.toString(Integer.parseInt(hour) + 12);
-        } else if ("AM".equals(timeOfDay) && "12".equals(hour)) {
-            militaryTime += "00";
-        } else {
-            Integer intHour = Integer.parseInt(hour);
-            if (intHour < 10) {
-                militaryTime += "0";
+        if (hour > 23) {
+            throw new RuntimeException(String.format("Unexpected game time format: %s", time));
+        }
+
+        return hour * 60 + minute;
+    }
+
+    /**
+     * The number in s[from, to), or -1 if any of it isn't a digit.
+     */
+    private static int parseDigits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
             }
 
-            militaryTime += hour;
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    private static boolean isCached(long epochSecond) {
+        return epochSecond >= CACHE_START_EPOCH_SECOND && epochSecond < CACHE_END_EPOCH_SECOND;
+    }
+
+    private static int getOffsetAt(long epochSecond) {
+        int index = Arrays.binarySearch(UTC_TRANSITIONS, epochSecond);
+        return OFFSETS[index < 0 ? -index - 1 : index + 1];
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int getMonthLength(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
         }
+    }
 
-        militaryTime += ":" + m.group(2);
+    // Same arithmetic as LocalDate.toEpochDay, for years from 0.
+    private static long getEpochDay(int year, int month, int day) {
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
 
-        return militaryTime;
+        return total - DAYS_0000_TO_1970;
     }
 }
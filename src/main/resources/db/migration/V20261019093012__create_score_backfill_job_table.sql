@@ -0,0 +1,13 @@
+create table score_backfill_job (
+  score_backfill_job_id BIGSERIAL PRIMARY KEY NOT NULL,
+  start_date DATE NOT NULL,
+  end_date DATE NOT NULL,
+  next_date DATE NOT NULL,
+  job_status varchar(32) NOT NULL,
+  dates_processed INTEGER NOT NULL DEFAULT 0,
+  dates_failed INTEGER NOT NULL DEFAULT 0,
+  games_completed INTEGER NOT NULL DEFAULT 0,
+  last_error varchar(1024),
+  created_epoch BIGINT NOT NULL,
+  updated_epoch BIGINT NOT NULL
+);
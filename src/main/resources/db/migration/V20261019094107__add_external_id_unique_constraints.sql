@@ -0,0 +1,53 @@
+-- The old check-then-insert could store the same MSF team or game twice. Keep the lowest ID of each, point
+-- everything at it, and drop the rest before adding the constraints.
+
+-- Teams.
+update game set home_team_id = (
+  select min(t2.team_id) from teams t1, teams t2
+  where t1.team_id = game.home_team_id and t2.external_team_id = t1.external_team_id)
+where home_team_id not in (select min(team_id) from teams group by external_team_id);
+
+update game set away_team_id = (
+  select min(t2.team_id) from teams t1, teams t2
+  where t1.team_id = game.away_team_id and t2.external_team_id = t1.external_team_id)
+where away_team_id not in (select min(team_id) from teams group by external_team_id);
+
+update game set winning_team_id = (
+  select min(t2.team_id) from teams t1, teams t2
+  where t1.team_id = game.winning_team_id and t2.external_team_id = t1.external_team_id)
+where winning_team_id is not null and winning_team_id not in (select min(team_id) from teams group by external_team_id);
+
+update picks set chosen_team_id = (
+  select min(t2.team_id) from teams t1, teams t2
+  where t1.team_id = picks.chosen_team_id and t2.external_team_id = t1.external_team_id)
+where chosen_team_id is not null and chosen_team_id not in (select min(team_id) from teams group by external_team_id);
+
+delete from teams where team_id not in (select min(team_id) from teams group by external_team_id);
+
+-- Games. A result recorded on any copy is kept.
+update game set
+  game_complete = true,
+  winning_team_id = (
+    select max(g2.winning_team_id) from game g2
+    where g2.external_game_id = game.external_game_id and g2.winning_team_id is not null)
+where winning_team_id is null and exists (
+  select 1 from game g2
+  where g2.external_game_id = game.external_game_id and g2.winning_team_id is not null);
+
+-- One pick per user, pool and game survives: the lowest pick_id across every copy of the game, whichever copy it
+-- was made on.
+delete from picks
+where pick_id not in (
+  select min(p.pick_id) from picks p, game g
+  where g.game_id = p.game_id
+  group by p.user_id, p.pool_id, g.external_game_id);
+
+update picks set game_id = (
+  select min(g2.game_id) from game g1, game g2
+  where g1.game_id = picks.game_id and g2.external_game_id = g1.external_game_id)
+where game_id not in (select min(game_id) from game group by external_game_id);
+
+delete from game where game_id not in (select min(game_id) from game group by external_game_id);
+
+alter table teams add constraint uq_teams_external_team_id unique (external_team_id);
+alter table game add constraint uq_game_external_game_id unique (external_game_id);
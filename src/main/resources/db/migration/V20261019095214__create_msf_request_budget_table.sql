@@ -0,0 +1,7 @@
+create table msf_request_budget (
+  budget_name varchar(64) PRIMARY KEY NOT NULL,
+  window_start_epoch BIGINT NOT NULL,
+  requests_used INTEGER NOT NULL
+);
+
+insert into msf_request_budget (budget_name, window_start_epoch, requests_used) values ('mysportsfeeds', 0, 0);
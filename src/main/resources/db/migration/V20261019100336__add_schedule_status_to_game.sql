@@ -0,0 +1,2 @@
+alter table game add column schedule_status varchar(32);
+alter table game add column delayed_or_postponed_reason varchar(255);
@@ -0,0 +1,2 @@
+alter table score_backfill_job add column lease_owner varchar(64);
+alter table score_backfill_job add column lease_expires_epoch BIGINT;
@@ -0,0 +1,79 @@
+package com.gci.pickem.controller;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AsyncRequestExecutorTest {
+
+    private AsyncRequestExecutor executor;
+    private CountDownLatch release;
+
+    @Before
+    public void setup() {
+        executor = new AsyncRequestExecutor(1, 1, 15000);
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testResultIsSetFromPoolThread() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+
+        DeferredResult<ResponseEntity<String>> result = executor.submit(() -> ResponseEntity.ok(Thread.currentThread().getName()));
+        result.setResultHandler(value -> done.countDown());
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(((ResponseEntity<?>) result.getResult()).getBody().toString().startsWith("RequestIo-"));
+    }
+
+    @Test
+    public void testFailureBecomesErrorResult() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+
+        DeferredResult<ResponseEntity<String>> result = executor.submit(() -> {
+            throw new RuntimeException("MSF is down");
+        });
+        result.setResultHandler(value -> done.countDown());
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("MSF is down", ((RuntimeException) result.getResult()).getMessage());
+    }
+
+    @Test
+    public void testFullPoolAnswersUnavailable() {
+        // One running, one queued.
+        DeferredResult<ResponseEntity<String>> running = executor.submit(this::blocked);
+        DeferredResult<ResponseEntity<String>> queued = executor.submit(this::blocked);
+
+        DeferredResult<ResponseEntity<String>> rejected = executor.submit(this::blocked);
+
+        assertFalse(running.hasResult());
+        assertFalse(queued.hasResult());
+        assertTrue(rejected.hasResult());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseEntity<?>) rejected.getResult()).getStatusCode());
+    }
+
+    private ResponseEntity<String> blocked() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return ResponseEntity.ok("done");
+    }
+}
@@ -1,48 +1,53 @@
 package com.gci.pickem.controller;
 
-import com.gci.pickem.exception.MissingRequiredDataException;
-import com.gci.pickem.model.Game;
-import com.gci.pickem.model.GamesList;
-import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-
-import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
+// Without the security filters, the OAuth token check isn't what's under test here.
+@AutoConfigureMockMvc(addFilters = false)
 public class ScheduleControllerTest {
 
-    @Autowired private ScheduleController scheduleController;
+    @Autowired private MockMvc mockMvc;
 
     @Test
-    public void testGetGames() {
-        GamesList gamesByWeekOfYear = scheduleController.getGamesByWeekOfYear(2016, 1);
-
-        assertEquals(16, gamesByWeekOfYear.getGames().size());
-
-        Game game = gamesByWeekOfYear.getGames().get(0);
-
-        Assert.assertEquals("Denver", game.getHomeTeam().getCity());
-        Assert.assertEquals("Broncos", game.getHomeTeam().getTeamName());
-        Assert.assertEquals("Carolina", game.getAwayTeam().getCity());
-        Assert.assertEquals("Panthers", game.getAwayTeam().getTeamName());
-        assertEquals(LocalDateTime.parse("2016-09-08T20:30", DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm")), game.getGameTime());
+    public void testGetGames() throws Exception {
+        MvcResult result =
+            mockMvc.perform(get("/api/v1/games/season/2016/week/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.games", hasSize(16)))
+            .andExpect(jsonPath("$.games[0].homeTeam.city").value("Denver"))
+            .andExpect(jsonPath("$.games[0].homeTeam.teamName").value("Broncos"))
+            .andExpect(jsonPath("$.games[0].awayTeam.city").value("Carolina"))
+            .andExpect(jsonPath("$.games[0].awayTeam.teamName").value("Panthers"))
+            .andExpect(jsonPath("$.games[0].gameTime").value("2016-09-08 20:30"));
     }
 
-    @Test(expected = MissingRequiredDataException.class)
-    public void testGetGamesNullYear() {
-        scheduleController.getGamesByWeekOfYear(null, 1);
+    @Test
+    public void testGetGamesInvalidYear() throws Exception {
+        mockMvc.perform(get("/api/v1/games/season/next/week/1"))
+            .andExpect(status().isBadRequest());
     }
 
-    @Test(expected = MissingRequiredDataException.class)
-    public void testGetGamesNullWeek() {
-        scheduleController.getGamesByWeekOfYear(2017, null);
+    @Test
+    public void testGetGamesInvalidWeek() throws Exception {
+        mockMvc.perform(get("/api/v1/games/season/2017/week/first"))
+            .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+}
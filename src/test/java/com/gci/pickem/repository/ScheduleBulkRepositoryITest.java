@@ -0,0 +1,158 @@
+package com.gci.pickem.repository;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.data.Team;
+import org.flywaydb.core.Flyway;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the migrations and the bulk upsert against a real Postgres, since neither is valid H2. Skipped unless
+ * -Dpickem.test.postgres.url (plus .user and .password) points at a scratch database, which is cleaned first.
+ */
+public class ScheduleBulkRepositoryITest {
+
+    // The last version before the external ID constraints.
+    private static final String BEFORE_CONSTRAINTS = "20261019093012";
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setup() {
+        String url = System.getProperty("pickem.test.postgres.url");
+        Assume.assumeNotNull(url);
+
+        dataSource =
+            new DriverManagerDataSource(
+                url,
+                System.getProperty("pickem.test.postgres.user", "postgres"),
+                System.getProperty("pickem.test.postgres.password", "postgres"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway flyway = new Flyway();
+        flyway.setDataSource(dataSource);
+        flyway.clean();
+    }
+
+    @Test
+    public void testDuplicatesMergedBeforeConstraints() {
+        migrate(BEFORE_CONSTRAINTS);
+
+        jdbcTemplate.update("insert into users (user_id, first_name, last_name, email) values (1, 'A', 'User', 'a@example.com')");
+        jdbcTemplate.update("insert into users (user_id, first_name, last_name, email) values (2, 'B', 'User', 'b@example.com')");
+        jdbcTemplate.update("insert into pool (pool_id, pool_name, scoring_method) values (1, 'Pool', 1)");
+
+        // Team 3 is a second copy of team 1.
+        jdbcTemplate.update("insert into teams (team_id, external_team_id, abbreviation, city, team_name) values (1, 50, 'A', 'A', 'A')");
+        jdbcTemplate.update("insert into teams (team_id, external_team_id, abbreviation, city, team_name) values (2, 51, 'B', 'B', 'B')");
+        jdbcTemplate.update("insert into teams (team_id, external_team_id, abbreviation, city, team_name) values (3, 50, 'A', 'A', 'A')");
+
+        // Game 11 is a second copy of game 10, and the only one with the result.
+        jdbcTemplate.update(
+            "insert into game (game_id, season, week, home_team_id, away_team_id, game_time_epoch, external_game_id) " +
+            "values (10, 2017, 1, 1, 2, 1504744800000, 1001)");
+        jdbcTemplate.update(
+            "insert into game (game_id, season, week, home_team_id, away_team_id, game_time_epoch, external_game_id, game_complete, winning_team_id) " +
+            "values (11, 2017, 1, 3, 2, 1504744800000, 1001, true, 3)");
+
+        // User 1 picked both copies, the duplicate first. User 2 only picked the duplicate.
+        jdbcTemplate.update("insert into picks (pick_id, user_id, pool_id, game_id, chosen_team_id, confidence) values (1, 1, 1, 11, 2, 5)");
+        jdbcTemplate.update("insert into picks (pick_id, user_id, pool_id, game_id, chosen_team_id, confidence) values (2, 1, 1, 10, 1, 4)");
+        jdbcTemplate.update("insert into picks (pick_id, user_id, pool_id, game_id, chosen_team_id, confidence) values (3, 2, 1, 11, 3, 3)");
+
+        migrate(null);
+
+        assertEquals(Arrays.asList(1L, 2L), jdbcTemplate.queryForList("select team_id from teams order by team_id", Long.class));
+
+        Map<String, Object> game = jdbcTemplate.queryForMap("select * from game");
+        assertEquals(10L, ((Number) game.get("game_id")).longValue());
+        assertEquals(1L, ((Number) game.get("home_team_id")).longValue());
+        assertEquals(1L, ((Number) game.get("winning_team_id")).longValue());
+        assertEquals(true, game.get("game_complete"));
+
+        List<Map<String, Object>> picks = jdbcTemplate.queryForList("select * from picks order by pick_id");
+        assertEquals(2, picks.size());
+        assertEquals(1L, ((Number) picks.get(0).get("pick_id")).longValue());
+        assertEquals(10L, ((Number) picks.get(0).get("game_id")).longValue());
+        assertEquals(2L, ((Number) picks.get(0).get("chosen_team_id")).longValue());
+        assertEquals(3L, ((Number) picks.get(1).get("pick_id")).longValue());
+        assertEquals(10L, ((Number) picks.get(1).get("game_id")).longValue());
+        assertEquals(1L, ((Number) picks.get(1).get("chosen_team_id")).longValue());
+    }
+
+    @Test
+    public void testUpsertWritesOnlyChangedGames() {
+        migrate(null);
+
+        ScheduleBulkRepository repository = new ScheduleBulkRepository(jdbcTemplate);
+
+        ScheduleBulkRepository.ScheduleUpsert first =
+            repository.upsertSchedule(getTeams(), Arrays.asList(getGame(1001, "Normal", null), getGame(1002, "Normal", null)));
+        assertTrue(first.getPrevious().isEmpty());
+        assertEquals(2, first.getWritten().size());
+        assertEquals(new HashSet<>(Arrays.asList(50L, 51L)), first.getWrittenTeams());
+
+        ScheduleBulkRepository.ScheduleUpsert unchanged =
+            repository.upsertSchedule(getTeams(), Arrays.asList(getGame(1001, "Normal", null), getGame(1002, "Normal", null)));
+        assertEquals(2, unchanged.getPrevious().size());
+        assertTrue(unchanged.getWritten().isEmpty());
+        assertTrue(unchanged.getWrittenTeams().isEmpty());
+        assertEquals(2, unchanged.getTeams());
+
+        ScheduleBulkRepository.ScheduleUpsert postponed =
+            repository.upsertSchedule(getTeams(), Arrays.asList(getGame(1001, "Normal", null), getGame(1002, "Postponed", "Weather")));
+        assertEquals(Collections.singleton(1002), postponed.getWritten().keySet());
+        assertEquals("Normal", postponed.getPrevious().get(1002).getScheduleStatus());
+        assertNull(postponed.getPrevious().get(1002).getDelayedOrPostponedReason());
+
+        Map<String, Object> stored = jdbcTemplate.queryForMap("select * from game where external_game_id = 1002");
+        assertEquals("Postponed", stored.get("schedule_status"));
+        assertEquals("Weather", stored.get("delayed_or_postponed_reason"));
+    }
+
+    private void migrate(String target) {
+        Flyway flyway = new Flyway();
+        flyway.setDataSource(dataSource);
+        if (target != null) {
+            flyway.setTargetAsString(target);
+        }
+
+        flyway.migrate();
+    }
+
+    private List<Team> getTeams() {
+        return Arrays.asList(getTeam(50L), getTeam(51L));
+    }
+
+    private Game getGame(int externalId, String scheduleStatus, String postponedReason) {
+        Game game = new Game();
+        game.setSeason(2017);
+        game.setWeek(1);
+        game.setExternalId(externalId);
+        game.setGameTimeEpoch(1504744800000L + externalId);
+        game.setScheduleStatus(scheduleStatus);
+        game.setDelayedOrPostponedReason(postponedReason);
+        game.setHomeTeam(getTeam(50L));
+        game.setAwayTeam(getTeam(51L));
+
+        return game;
+    }
+
+    private Team getTeam(long externalId) {
+        Team team = new Team();
+        team.setExternalId(externalId);
+        team.setAbbreviation(String.format("T%d", externalId));
+        team.setCity(String.format("City %d", externalId));
+        team.setTeamName(String.format("Team %d", externalId));
+
+        return team;
+    }
+}
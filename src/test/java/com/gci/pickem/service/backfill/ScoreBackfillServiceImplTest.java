@@ -0,0 +1,222 @@
+package com.gci.pickem.service.backfill;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.data.ScoreBackfillJob;
+import com.gci.pickem.model.ScoreBackfillStatus;
+import com.gci.pickem.model.mysportsfeeds.Scoreboard;
+import com.gci.pickem.repository.ScoreBackfillJobRepository;
+import com.gci.pickem.service.game.GamesService;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsBackoffException;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsPriority;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsService;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsUnavailableException;
+import com.gci.pickem.service.schedule.ScheduleService;
+import com.gci.pickem.util.ScheduleUtil;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.RateLimiter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScoreBackfillServiceImplTest {
+
+    private static final LocalDate START = LocalDate.of(2017, 9, 7);
+    private static final LocalDate END = LocalDate.of(2017, 9, 13);
+
+    @Mock private ScoreBackfillJobRepository scoreBackfillJobRepository;
+    @Mock private MySportsFeedsService mySportsFeedsService;
+    @Mock private ScheduleService scheduleService;
+    @Mock private GamesService gamesService;
+
+    private ScoreBackfillServiceImpl service;
+    private ScoreBackfillJob job;
+    private List<LocalDate> checkpoints;
+
+    @Before
+    public void setup() {
+        // Everything runs on the calling thread, two game dates to a batch, two tries at a date, no wait between them.
+        service =
+            new ScoreBackfillServiceImpl(
+                scoreBackfillJobRepository,
+                mySportsFeedsService,
+                scheduleService,
+                gamesService,
+                MoreExecutors.newDirectExecutorService(),
+                MoreExecutors.newDirectExecutorService(),
+                RateLimiter.create(1000),
+                2,
+                400,
+                2,
+                600000L,
+                0L);
+
+        // Games on Thursday, twice on Sunday and on Monday. Nothing on the other days.
+        when(gamesService.findIncompleteGamesBetween(anyLong(), anyLong())).thenReturn(Arrays.asList(
+            getGame("2017-09-07", "8:30PM"),
+            getGame("2017-09-10", "1:00PM"),
+            getGame("2017-09-10", "4:25PM"),
+            getGame("2017-09-11", "8:30PM")));
+
+        when(mySportsFeedsService.fetchFinalGameScores(any(), eq(MySportsFeedsPriority.BACKFILL))).thenReturn(new Scoreboard());
+        when(scheduleService.recordFinalScores(any())).thenReturn(Collections.singletonList(new Game()));
+
+        checkpoints = new ArrayList<>();
+        when(scoreBackfillJobRepository.save(any(ScoreBackfillJob.class))).thenAnswer(invocation -> {
+            ScoreBackfillJob saved = (ScoreBackfillJob) invocation.getArguments()[0];
+            if (saved.getScoreBackfillJobId() == null) {
+                saved.setScoreBackfillJobId(1L);
+                job = saved;
+            }
+
+            checkpoints.add(saved.getNextDate().toLocalDate());
+            return saved;
+        });
+
+        when(scoreBackfillJobRepository.findOne(1L)).thenAnswer(invocation -> job);
+        when(scoreBackfillJobRepository.claim(anyLong(), anyString(), anyLong(), anyLong())).thenReturn(1);
+    }
+
+    @Test
+    public void testCheckpointsEachBatch() {
+        service.startBackfill(START, END);
+
+        assertEquals(ScoreBackfillStatus.COMPLETE.name(), job.getJobStatus());
+        assertEquals(LocalDate.of(2017, 9, 14), job.getNextDate().toLocalDate());
+        assertEquals(Integer.valueOf(7), job.getDatesProcessed());
+        assertEquals(Integer.valueOf(2), job.getGamesCompleted());
+        assertEquals(Integer.valueOf(0), job.getDatesFailed());
+
+        // Created, then after Thursday and Sunday, after Monday, and done.
+        assertEquals(
+            Arrays.asList(START, LocalDate.of(2017, 9, 11), LocalDate.of(2017, 9, 14), LocalDate.of(2017, 9, 14)),
+            checkpoints);
+
+        // Only dates with games are fetched.
+        verify(gamesService).findIncompleteGamesBetween(startOf(START), startOf(END.plusDays(1)) - 1);
+        verify(mySportsFeedsService, times(3)).fetchFinalGameScores(any(), eq(MySportsFeedsPriority.BACKFILL));
+        verify(mySportsFeedsService, never()).fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(LocalDate.of(2017, 9, 8)), MySportsFeedsPriority.BACKFILL);
+    }
+
+    @Test
+    public void testFailedDateHoldsCheckpoint() {
+        when(mySportsFeedsService.fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(LocalDate.of(2017, 9, 10)), MySportsFeedsPriority.BACKFILL))
+            .thenThrow(new RuntimeException("Timed out"));
+
+        service.startBackfill(START, END);
+
+        assertEquals(ScoreBackfillStatus.FAILED.name(), job.getJobStatus());
+        assertEquals(LocalDate.of(2017, 9, 10), job.getNextDate().toLocalDate());
+        assertEquals(Integer.valueOf(3), job.getDatesProcessed());
+        assertEquals(Integer.valueOf(2), job.getDatesFailed());
+        assertTrue(job.getLastError().contains("2017-09-10"));
+
+        // The second try starts from the failed date. Monday's scores are still recorded along the way.
+        verify(mySportsFeedsService, times(2)).fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(LocalDate.of(2017, 9, 10)), MySportsFeedsPriority.BACKFILL);
+        verify(mySportsFeedsService, times(1)).fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(LocalDate.of(2017, 9, 11)), MySportsFeedsPriority.BACKFILL);
+        verify(scheduleService, times(2)).recordFinalScores(any());
+    }
+
+    @Test
+    public void testFailedDateIsRetried() {
+        when(mySportsFeedsService.fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(LocalDate.of(2017, 9, 10)), MySportsFeedsPriority.BACKFILL))
+            .thenThrow(new RuntimeException("Timed out"))
+            .thenReturn(new Scoreboard());
+
+        service.startBackfill(START, END);
+
+        assertEquals(ScoreBackfillStatus.COMPLETE.name(), job.getJobStatus());
+        assertEquals(LocalDate.of(2017, 9, 14), job.getNextDate().toLocalDate());
+        assertEquals(Integer.valueOf(1), job.getDatesFailed());
+        assertTrue(checkpoints.contains(LocalDate.of(2017, 9, 10)));
+    }
+
+    @Test
+    public void testRefusedDatePausesWithoutUsingAttempts() {
+        when(mySportsFeedsService.fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(LocalDate.of(2017, 9, 10)), MySportsFeedsPriority.BACKFILL))
+            .thenThrow(new MySportsFeedsBackoffException("Circuit open", new MySportsFeedsUnavailableException("Circuit open")));
+
+        service.startBackfill(START, END);
+
+        // Still running at the refused date, to be picked up again once its lease lapses.
+        assertEquals(ScoreBackfillStatus.RUNNING.name(), job.getJobStatus());
+        assertEquals(LocalDate.of(2017, 9, 10), job.getNextDate().toLocalDate());
+        verify(mySportsFeedsService, times(1)).fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(LocalDate.of(2017, 9, 10)), MySportsFeedsPriority.BACKFILL);
+        verify(scoreBackfillJobRepository, atLeastOnce()).claim(eq(1L), anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void testResumesOnlyLapsedLeases() {
+        job = getRunningJob(1L, LocalDate.of(2017, 9, 10), System.currentTimeMillis() - 1000);
+        ScoreBackfillJob held = getRunningJob(2L, START, System.currentTimeMillis() + 60000);
+
+        when(scoreBackfillJobRepository.findByJobStatus(ScoreBackfillStatus.RUNNING.name())).thenReturn(Arrays.asList(job, held));
+
+        service.resumeBackfillJobs();
+
+        assertEquals(ScoreBackfillStatus.COMPLETE.name(), job.getJobStatus());
+        verify(scoreBackfillJobRepository, never()).claim(eq(2L), anyString(), anyLong(), anyLong());
+
+        // Picked up from its checkpoint.
+        verify(gamesService).findIncompleteGamesBetween(startOf(LocalDate.of(2017, 9, 10)), startOf(END.plusDays(1)) - 1);
+    }
+
+    @Test
+    public void testJobClaimedElsewhereIsNotRun() {
+        job = getRunningJob(1L, START, null);
+
+        when(scoreBackfillJobRepository.findByJobStatus(ScoreBackfillStatus.RUNNING.name())).thenReturn(Collections.singletonList(job));
+        when(scoreBackfillJobRepository.claim(anyLong(), anyString(), anyLong(), anyLong())).thenReturn(0);
+
+        service.resumeBackfillJobs();
+
+        verify(scoreBackfillJobRepository, never()).findOne(anyLong());
+        verify(scoreBackfillJobRepository, never()).save(any(ScoreBackfillJob.class));
+        verify(mySportsFeedsService, never()).fetchFinalGameScores(any(), eq(MySportsFeedsPriority.BACKFILL));
+    }
+
+    @Test
+    public void testDeletedJobIsSkipped() {
+        when(scoreBackfillJobRepository.findByJobStatus(ScoreBackfillStatus.RUNNING.name())).thenReturn(Collections.singletonList(getRunningJob(1L, START, null)));
+
+        // Claimed, then gone before it could be read.
+        job = null;
+        service.resumeBackfillJobs();
+
+        verify(scoreBackfillJobRepository, never()).save(any(ScoreBackfillJob.class));
+        verify(mySportsFeedsService, never()).fetchFinalGameScores(any(), eq(MySportsFeedsPriority.BACKFILL));
+    }
+
+    private ScoreBackfillJob getRunningJob(long jobId, LocalDate next, Long leaseExpiresEpoch) {
+        ScoreBackfillJob running = new ScoreBackfillJob();
+        running.setScoreBackfillJobId(jobId);
+        running.setStartDate(Date.valueOf(START));
+        running.setEndDate(Date.valueOf(END));
+        running.setNextDate(Date.valueOf(next));
+        running.setLeaseOwner("another-node");
+        running.setLeaseExpiresEpoch(leaseExpiresEpoch);
+        running.setCreatedEpoch(0L);
+        running.setUpdatedEpoch(0L);
+        return running;
+    }
+
+    private Game getGame(String date, String time) {
+        Game game = new Game();
+        game.setGameTimeEpoch(ScheduleUtil.getUtcGameTime(date, time));
+        return game;
+    }
+
+    private long startOf(LocalDate date) {
+        return date.atStartOfDay(ZoneId.of("America/New_York")).toInstant().toEpochMilli();
+    }
+}
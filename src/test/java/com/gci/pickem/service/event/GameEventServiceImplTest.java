@@ -0,0 +1,107 @@
+package com.gci.pickem.service.event;
+
+import com.gci.pickem.data.Game;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GameEventServiceImplTest {
+
+    private GameEventServiceImpl service;
+
+    @Before
+    public void setup() {
+        service = new GameEventServiceImpl(2, 1, 10);
+    }
+
+    @After
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void testEventsDeliveredToEveryConsumer() throws Exception {
+        CountDownLatch scoring = new CountDownLatch(2);
+        CountDownLatch notifications = new CountDownLatch(2);
+
+        service.subscribe(listener("scoring", event -> scoring.countDown()));
+        service.subscribe(listener("notifications", event -> notifications.countDown()));
+
+        service.publish(new GameAdded(getGame(1L)));
+        service.publish(new GameCompleted(getGame(1L)));
+
+        assertTrue(scoring.await(5, TimeUnit.SECONDS));
+        assertTrue(notifications.await(5, TimeUnit.SECONDS));
+
+        List<GameEventConsumerStats> stats = service.getConsumerStats();
+        assertEquals(2, stats.size());
+        for (GameEventConsumerStats stat : stats) {
+            assertEquals(2, stat.getPublished());
+            assertEquals(0, stat.getDropped());
+        }
+    }
+
+    @Test
+    public void testFullQueueDropsAfterTimeout() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        service.subscribe(listener("slow", event -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        // First event occupies the consumer thread, the next two fill the queue, the last has nowhere to go.
+        service.publish(new GameCompleted(getGame(1L)));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        service.publish(new GameCompleted(getGame(2L)));
+        service.publish(new GameCompleted(getGame(3L)));
+        service.publish(new GameCompleted(getGame(4L)));
+
+        GameEventConsumerStats stats = service.getConsumerStats().get(0);
+        assertEquals(4, stats.getPublished());
+        assertEquals(1, stats.getDropped());
+        assertEquals(2, stats.getQueueDepth());
+        assertEquals(0, stats.getRemainingCapacity());
+
+        release.countDown();
+    }
+
+    private GameEventListener listener(String name, java.util.function.Consumer<GameEvent> handler) {
+        return new GameEventListener() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void onGameEvent(GameEvent event) {
+                handler.accept(event);
+            }
+        };
+    }
+
+    private Game getGame(long gameId) {
+        Game game = new Game();
+
+        game.setGameId(gameId);
+        game.setSeason(2018);
+        game.setWeek(1);
+        game.setGameTimeEpoch(1536278400000L);
+        game.setWinningTeamId(1L);
+
+        return game;
+    }
+}
@@ -0,0 +1,185 @@
+package com.gci.pickem.service.livescore;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.model.LiveGameScore;
+import com.gci.pickem.model.mysportsfeeds.GameEntry;
+import com.gci.pickem.model.mysportsfeeds.GameScore;
+import com.gci.pickem.model.mysportsfeeds.Scoreboard;
+import com.gci.pickem.service.game.GamesService;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LiveScoreServiceImplTest {
+
+    @Mock private MySportsFeedsService mySportsFeedsService;
+    @Mock private GamesService gamesService;
+
+    private LiveScoreServiceImpl service;
+    private List<SseEmitter> emitters;
+    private List<GameScore> scores;
+
+    @Before
+    public void setup() {
+        emitters = new ArrayList<>();
+        service = new LiveScoreServiceImpl(mySportsFeedsService, gamesService, () -> {
+            SseEmitter emitter = mock(SseEmitter.class);
+            emitters.add(emitter);
+            return emitter;
+        });
+
+        long kickoff = System.currentTimeMillis() - 3600000L;
+        when(gamesService.findGamesBetween(anyLong(), anyLong())).thenReturn(Arrays.asList(getGame(1L, 101, kickoff), getGame(2L, 102, kickoff)));
+
+        scores = new ArrayList<>(Arrays.asList(getScore(101, 7, 0), getScore(102, 0, 3)));
+        when(mySportsFeedsService.getLiveGameScores(any(Instant.class))).thenAnswer(invocation -> {
+            Scoreboard scoreboard = new Scoreboard();
+            scoreboard.setGameScores(scores);
+            return scoreboard;
+        });
+    }
+
+    @Test
+    public void testNoPollWithoutSubscribers() {
+        service.pollLiveScores();
+
+        verifyZeroInteractions(mySportsFeedsService, gamesService);
+    }
+
+    @Test
+    public void testOnlyChangedScoresAreBroadcast() throws IOException {
+        service.subscribe();
+        SseEmitter emitter = emitters.get(0);
+
+        service.pollLiveScores();
+        assertEquals(Arrays.asList(1L, 2L), getGameIds(getLastSent(emitter, 1)));
+
+        // Nothing changed, nothing sent.
+        service.pollLiveScores();
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+
+        scores.set(1, getScore(102, 7, 3));
+        service.pollLiveScores();
+        List<LiveGameScore> sent = getLastSent(emitter, 2);
+        assertEquals(Collections.singletonList(2L), getGameIds(sent));
+        assertEquals(3, sent.get(0).getAwayScore());
+
+        assertEquals(2, service.getCurrentScores().size());
+    }
+
+    @Test
+    public void testNewSubscriberGetsSnapshot() throws IOException {
+        service.subscribe();
+        service.pollLiveScores();
+
+        service.subscribe();
+        assertEquals(Arrays.asList(1L, 2L), getGameIds(getLastSent(emitters.get(1), 1)));
+    }
+
+    @Test
+    public void testFailedSendDropsSubscriber() throws IOException {
+        service.subscribe();
+        service.subscribe();
+        doThrow(new IOException("Broken pipe")).when(emitters.get(0)).send(any(SseEmitter.SseEventBuilder.class));
+
+        service.pollLiveScores();
+        assertEquals(1, service.getSubscriberCount());
+
+        scores.set(0, getScore(101, 14, 0));
+        service.pollLiveScores();
+        verify(emitters.get(0), times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(emitters.get(1), times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    public void testCompletedAndTimedOutSubscribersAreRemoved() {
+        service.subscribe();
+        service.subscribe();
+
+        ArgumentCaptor<Runnable> completion = ArgumentCaptor.forClass(Runnable.class);
+        verify(emitters.get(0)).onCompletion(completion.capture());
+        completion.getValue().run();
+        assertEquals(1, service.getSubscriberCount());
+
+        ArgumentCaptor<Runnable> timeout = ArgumentCaptor.forClass(Runnable.class);
+        verify(emitters.get(1)).onTimeout(timeout.capture());
+        timeout.getValue().run();
+        assertEquals(0, service.getSubscriberCount());
+    }
+
+    @Test
+    public void testSnapshotDroppedWithLastSubscriber() throws IOException {
+        service.subscribe();
+        service.pollLiveScores();
+
+        ArgumentCaptor<Runnable> completion = ArgumentCaptor.forClass(Runnable.class);
+        verify(emitters.get(0)).onCompletion(completion.capture());
+        completion.getValue().run();
+        assertTrue(service.getCurrentScores().isEmpty());
+
+        // Scores changed while nobody was polling. The next subscriber doesn't get the old ones.
+        scores.set(0, getScore(101, 14, 0));
+        service.subscribe();
+        verify(emitters.get(1), never()).send(any(SseEmitter.SseEventBuilder.class));
+
+        service.pollLiveScores();
+        assertEquals(14, getLastSent(emitters.get(1), 1).stream().filter(score -> score.getGameId() == 1L).findFirst().get().getHomeScore());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<LiveGameScore> getLastSent(SseEmitter emitter, int sends) throws IOException {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> event = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, times(sends)).send(event.capture());
+
+        for (ResponseBodyEmitter.DataWithMediaType data : event.getValue().build()) {
+            if (data.getData() instanceof List) {
+                return (List<LiveGameScore>) data.getData();
+            }
+        }
+
+        throw new AssertionError("No scores in event");
+    }
+
+    private List<Long> getGameIds(List<LiveGameScore> scores) {
+        return scores.stream().map(LiveGameScore::getGameId).sorted().collect(Collectors.toList());
+    }
+
+    private Game getGame(long gameId, int externalId, long kickoff) {
+        Game game = new Game();
+        game.setGameId(gameId);
+        game.setExternalId(externalId);
+        game.setGameTimeEpoch(kickoff);
+        return game;
+    }
+
+    private GameScore getScore(int externalId, int home, int away) {
+        GameEntry entry = new GameEntry();
+        entry.setIdForScore(externalId);
+
+        GameScore score = new GameScore();
+        score.setGame(entry);
+        score.setHomeScore(home);
+        score.setAwayScore(away);
+        score.setIsInProgress("true");
+        score.setIsCompleted("false");
+        return score;
+    }
+}
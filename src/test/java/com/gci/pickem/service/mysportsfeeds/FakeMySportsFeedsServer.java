@@ -0,0 +1,327 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stand-in for the MSF API, for integration tests and load tests. Point mysportsfeeds.url.base at
+ * {@link #getBaseUrl()} and it serves full_game_schedule and scoreboard for a {@link FakeSeason}, with games
+ * kicking off and going final as the {@link SimulatedClock} advances.
+ *
+ * Latency, 5xx errors and 429s can be injected, either at a rate or for the next N requests. Responses carry an
+ * ETag and are gzipped when asked, like the real thing.
+ */
+public class FakeMySportsFeedsServer implements Closeable {
+
+    private static final Pattern PATH_PATTERN = Pattern.compile("/[^/]+/pull/nfl/([^/]+)/([a-z_]+)\\.json");
+    private static final Pattern UNTIL_PATTERN = Pattern.compile("until-(\\d+)-days-from-now");
+    private static final DateTimeFormatter FOR_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final ZoneId EASTERN = ZoneId.of("America/New_York");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final FakeSeason season;
+    private final SimulatedClock clock;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Random random = new Random(0);
+
+    private volatile long latencyMillis;
+    private volatile double errorRate;
+    private volatile double throttleRate;
+
+    private final Deque<Integer> scriptedFailures = new ArrayDeque<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final Map<String, AtomicInteger> requestsByEndpoint = new ConcurrentHashMap<>();
+
+    private FakeMySportsFeedsServer(FakeSeason season, SimulatedClock clock) throws IOException {
+        this.season = season;
+        this.clock = clock;
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    public static FakeMySportsFeedsServer start(FakeSeason season, SimulatedClock clock) throws IOException {
+        FakeMySportsFeedsServer server = new FakeMySportsFeedsServer(season, clock);
+        server.server.start();
+        return server;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return String.format("http://localhost:%d", server.getAddress().getPort());
+    }
+
+    public SimulatedClock getClock() {
+        return clock;
+    }
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Share of requests answered with a 500.
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Share of requests answered with a 429.
+     */
+    public void setThrottleRate(double throttleRate) {
+        this.throttleRate = throttleRate;
+    }
+
+    /**
+     * Answers the next count requests with the given status, ahead of any random failures.
+     */
+    public void failNext(int count, int status) {
+        synchronized (scriptedFailures) {
+            for (int i = 0; i < count; i++) {
+                scriptedFailures.add(status);
+            }
+        }
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public int getRequestCount(MySportsFeedEndpoint endpoint) {
+        AtomicInteger count = requestsByEndpoint.get(endpoint.getValue());
+        return count == null ? 0 : count.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+
+            Matcher matcher = PATH_PATTERN.matcher(exchange.getRequestURI().getPath());
+            if (!matcher.matches()) {
+                sendStatus(exchange, 404);
+                return;
+            }
+
+            String endpoint = matcher.group(2);
+            requestsByEndpoint.computeIfAbsent(endpoint, key -> new AtomicInteger()).incrementAndGet();
+
+            Integer failure = nextFailure();
+            if (failure != null) {
+                if (failure == 429) {
+                    exchange.getResponseHeaders().add("Retry-After", "1");
+                }
+
+                sendStatus(exchange, failure);
+                return;
+            }
+
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            ObjectNode body;
+            if (MySportsFeedEndpoint.FULL_GAME_SCHEDULE.getValue().equals(endpoint)) {
+                body = getSchedule(query);
+            } else if (MySportsFeedEndpoint.SCOREBOARD.getValue().equals(endpoint)) {
+                body = getScoreboard(query);
+            } else {
+                sendStatus(exchange, 404);
+                return;
+            }
+
+            send(exchange, MAPPER.writeValueAsBytes(body));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendStatus(exchange, 503);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Integer nextFailure() {
+        synchronized (scriptedFailures) {
+            if (!scriptedFailures.isEmpty()) {
+                return scriptedFailures.poll();
+            }
+        }
+
+        synchronized (random) {
+            double roll = random.nextDouble();
+            if (roll < throttleRate) {
+                return 429;
+            }
+
+            if (roll < throttleRate + errorRate) {
+                return 500;
+            }
+        }
+
+        return null;
+    }
+
+    private ObjectNode getSchedule(Map<String, String> query) {
+        List<FakeSeason.FakeGame> games = season.getGames();
+
+        String week = query.get("week");
+        if (week != null) {
+            int weekNumber = Integer.parseInt(week);
+            games = games.stream().filter(game -> game.getEntry().getWeek() == weekNumber).collect(Collectors.toList());
+        }
+
+        String date = query.get("date");
+        if (date != null) {
+            Matcher until = UNTIL_PATTERN.matcher(date);
+            if (until.matches()) {
+                LocalDate today = clock.now().atZone(EASTERN).toLocalDate();
+                LocalDate last = today.plusDays(Integer.parseInt(until.group(1)));
+                games =
+                    games.stream()
+                        .filter(game -> !game.getDate().isBefore(today) && !game.getDate().isAfter(last))
+                        .collect(Collectors.toList());
+            }
+        }
+
+        ArrayNode entries = MAPPER.createArrayNode();
+        games.forEach(game -> entries.add(MAPPER.valueToTree(game.getEntry())));
+
+        ObjectNode schedule = MAPPER.createObjectNode();
+        schedule.set("gameentry", entries);
+
+        ObjectNode response = MAPPER.createObjectNode();
+        response.set("fullgameschedule", schedule);
+        return response;
+    }
+
+    private ObjectNode getScoreboard(Map<String, String> query) {
+        Instant now = clock.now();
+
+        String forDate = query.get("fordate");
+        LocalDate date = forDate == null ? now.atZone(EASTERN).toLocalDate() : LocalDate.parse(forDate, FOR_DATE_FORMATTER);
+
+        Set<String> statuses = new HashSet<>();
+        if (query.containsKey("status")) {
+            statuses.addAll(Arrays.asList(StringUtils.split(query.get("status"), ',')));
+        }
+
+        ArrayNode scores = MAPPER.createArrayNode();
+        for (FakeSeason.FakeGame game : season.getGames()) {
+            if (!game.getDate().equals(date)) {
+                continue;
+            }
+
+            boolean completed = game.isCompleted(now);
+            boolean inProgress = game.isStarted(now) && !completed;
+            String status = completed ? "final" : inProgress ? "in-progress" : "unplayed";
+            if (!statuses.isEmpty() && !statuses.contains(status)) {
+                continue;
+            }
+
+            ObjectNode score = MAPPER.createObjectNode();
+            score.set("game", MAPPER.valueToTree(game.getEntry()));
+            score.put("isUnplayed", Boolean.toString(!game.isStarted(now)));
+            score.put("isInProgress", Boolean.toString(inProgress));
+            score.put("isCompleted", Boolean.toString(completed));
+            if (game.isStarted(now)) {
+                score.put("awayScore", Integer.toString(game.getAwayScore(now)));
+                score.put("homeScore", Integer.toString(game.getHomeScore(now)));
+            }
+
+            scores.add(score);
+        }
+
+        ObjectNode scoreboard = MAPPER.createObjectNode();
+        if (scores.size() > 0) {
+            scoreboard.set("gameScore", scores);
+        }
+
+        ObjectNode response = MAPPER.createObjectNode();
+        response.set("scoreboard", scoreboard);
+        return response;
+    }
+
+    private void send(HttpExchange exchange, byte[] body) throws IOException {
+        String etag = String.format("\"%08x\"", Arrays.hashCode(body));
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void sendStatus(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private Map<String, String> parseQuery(String rawQuery) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            int split = pair.indexOf('=');
+            if (split > 0) {
+                query.put(pair.substring(0, split), URLDecoder.decode(pair.substring(split + 1), StandardCharsets.UTF_8.name()));
+            }
+        }
+
+        return query;
+    }
+}
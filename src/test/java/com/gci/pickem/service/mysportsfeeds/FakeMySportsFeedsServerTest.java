@@ -0,0 +1,111 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.gci.pickem.model.mysportsfeeds.FullGameSchedule;
+import com.gci.pickem.model.mysportsfeeds.GameEntry;
+import com.gci.pickem.model.mysportsfeeds.GameScore;
+import com.gci.pickem.model.mysportsfeeds.Scoreboard;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class FakeMySportsFeedsServerTest {
+
+    private FakeSeason season;
+    private FakeMySportsFeedsServer server;
+    private MySportsFeedsClient client;
+    private MySportsFeedsServiceImpl service;
+
+    @Before
+    public void setup() throws IOException {
+        season = FakeSeason.generate(2017, 17L);
+        server = FakeMySportsFeedsServer.start(season, new SimulatedClock(season.getFirstKickoff().minus(Duration.ofDays(1))));
+
+        MySportsFeedsResponseStore store = new MySportsFeedsResponseStore("off", "unused", 1024, 1, 0);
+        client = new MySportsFeedsClient("user", "pass", 1000, 500, 4, store, 0, new MySportsFeedsCircuitBreaker(5, 30000, System::currentTimeMillis), new MySportsFeedsBudget(null, 0, 300), 4, 1000);
+
+        // No caching, so every call goes to the fake.
+        service = new MySportsFeedsServiceImpl(client, MoreExecutors.newDirectExecutorService(), 0, 0, 1 << 20, 0, 0, 1 << 20);
+        ReflectionTestUtils.setField(service, "baseUrl", server.getBaseUrl());
+        ReflectionTestUtils.setField(service, "apiVersion", "v1.2");
+        ReflectionTestUtils.setField(service, "dataFormat", "json");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testWeeklySchedule() {
+        FullGameSchedule week1 = service.getGamesForSeasonAndWeek(2017, 1);
+        assertEquals(16, week1.getGameEntries().size());
+
+        // Every team plays exactly once.
+        Set<Integer> teams = new HashSet<>();
+        for (GameEntry entry : week1.getGameEntries()) {
+            assertEquals(Integer.valueOf(1), entry.getWeek());
+            assertTrue(teams.add(entry.getAwayTeam().getId()));
+            assertTrue(teams.add(entry.getHomeTeam().getId()));
+        }
+
+        assertEquals(32, teams.size());
+        assertEquals(16, service.getGamesForSeasonAndWeek(2017, 17).getGameEntries().size());
+        assertEquals(2, server.getRequestCount(MySportsFeedEndpoint.FULL_GAME_SCHEDULE));
+    }
+
+    @Test
+    public void testGamesGoFinalAsClockAdvances() {
+        Instant kickoff = season.getFirstKickoff();
+
+        Scoreboard before = service.getFinalGameScores(kickoff);
+        assertNull(before.getGameScores());
+
+        server.getClock().set(kickoff.plus(Duration.ofHours(1)));
+        Scoreboard live = service.getLiveGameScores(kickoff);
+        assertEquals(1, live.getGameScores().size());
+        assertEquals("true", live.getGameScores().get(0).getIsInProgress());
+        assertNull(service.getFinalGameScores(kickoff).getGameScores());
+
+        server.getClock().set(kickoff.plus(FakeSeason.GAME_LENGTH));
+        Scoreboard after = service.getFinalGameScores(kickoff);
+        assertEquals(1, after.getGameScores().size());
+
+        GameScore score = after.getGameScores().get(0);
+        assertEquals("true", score.getIsCompleted());
+        assertEquals(Integer.valueOf(40000), score.getGame().getId());
+        assertNotNull(score.getHomeScore());
+        assertNotNull(score.getAwayScore());
+    }
+
+    @Test
+    public void testThrottledRequestFails() {
+        server.failNext(1, 429);
+
+        try {
+            service.getGamesForSeasonAndWeek(2017, 1);
+            fail("Expected the throttled request to fail");
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+
+        assertEquals(16, service.getGamesForSeasonAndWeek(2017, 1).getGameEntries().size());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testLatencyPastReadTimeout() {
+        server.setLatencyMillis(1000);
+        service.getGamesForSeasonAndWeek(2017, 1);
+    }
+}
@@ -0,0 +1,185 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gci.pickem.model.mysportsfeeds.FullGameScheduleResponse;
+import com.gci.pickem.model.mysportsfeeds.GameEntry;
+import com.gci.pickem.model.mysportsfeeds.Team;
+import com.gci.pickem.util.ScheduleUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A season of games for {@link FakeMySportsFeedsServer}. Either generated (32 teams, 17 weeks of 16 games on the
+ * usual Thursday/Sunday/Monday slots) or loaded from a recorded full_game_schedule response. Final scores are
+ * drawn from a seeded Random so every run sees the same results.
+ */
+public class FakeSeason {
+
+    public static final Duration GAME_LENGTH = Duration.ofMinutes(195);
+
+    private final int season;
+    private final List<FakeGame> games;
+
+    private FakeSeason(int season, List<FakeGame> games) {
+        this.season = season;
+        this.games = Collections.unmodifiableList(games);
+    }
+
+    public static FakeSeason generate(int season, long seed) {
+        Random random = new Random(seed);
+
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            Team team = new Team();
+            team.setId(50 + i);
+            team.setCity(String.format("City %d", i));
+            team.setName(String.format("Team %d", i));
+            team.setAbbreviation(String.format("T%02d", i));
+            teams.add(team);
+        }
+
+        LocalDate laborDay = LocalDate.of(season, Month.SEPTEMBER, 1).with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+        LocalDate openingThursday = laborDay.plusDays(3);
+
+        List<FakeGame> games = new ArrayList<>();
+        for (int week = 1; week <= 17; week++) {
+            LocalDate thursday = openingThursday.plusWeeks(week - 1);
+            LocalDate sunday = thursday.plusDays(3);
+            LocalDate monday = thursday.plusDays(4);
+
+            // Circle method: team 0 stays put and everyone else rotates, so nobody plays twice in a week.
+            List<Team> order = new ArrayList<>(teams.subList(1, teams.size()));
+            Collections.rotate(order, week - 1);
+            order.add(0, teams.get(0));
+
+            for (int slot = 0; slot < 16; slot++) {
+                Team first = order.get(slot);
+                Team second = order.get(order.size() - 1 - slot);
+                boolean swap = (week + slot) % 2 == 0;
+
+                GameEntry entry = new GameEntry();
+                entry.setIdForSchedule(40000 + games.size());
+                entry.setWeek(week);
+                entry.setScheduleStatus("Normal");
+                entry.setAwayTeam(swap ? second : first);
+                entry.setHomeTeam(swap ? first : second);
+                entry.setLocation(String.format("%s Stadium", entry.getHomeTeam().getCity()));
+
+                if (slot == 0) {
+                    entry.setDate(thursday.toString());
+                    entry.setTime("8:20PM");
+                } else if (slot == 15) {
+                    entry.setDate(monday.toString());
+                    entry.setTime("8:20PM");
+                } else if (slot == 14) {
+                    entry.setDate(sunday.toString());
+                    entry.setTime("8:20PM");
+                } else {
+                    entry.setDate(sunday.toString());
+                    entry.setTime(slot < 10 ? "1:00PM" : "4:25PM");
+                }
+
+                games.add(new FakeGame(entry, random.nextInt(42), random.nextInt(42)));
+            }
+        }
+
+        return new FakeSeason(season, games);
+    }
+
+    /**
+     * Builds a season from a full_game_schedule body recorded from MSF.
+     */
+    public static FakeSeason load(int season, InputStream recordedSchedule, long seed) throws IOException {
+        Random random = new Random(seed);
+
+        FullGameScheduleResponse response = new ObjectMapper().readValue(recordedSchedule, FullGameScheduleResponse.class);
+
+        List<FakeGame> games = new ArrayList<>();
+        for (GameEntry entry : response.getFullGameSchedule().getGameEntries()) {
+            games.add(new FakeGame(entry, random.nextInt(42), random.nextInt(42)));
+        }
+
+        return new FakeSeason(season, games);
+    }
+
+    public int getSeason() {
+        return season;
+    }
+
+    public List<FakeGame> getGames() {
+        return games;
+    }
+
+    public Instant getFirstKickoff() {
+        return games.stream().map(FakeGame::getKickoff).min(Instant::compareTo).orElseThrow(() -> new IllegalStateException("Empty season"));
+    }
+
+    public static class FakeGame {
+        private final GameEntry entry;
+        private final Instant kickoff;
+        private final int awayScore;
+        private final int homeScore;
+
+        FakeGame(GameEntry entry, int awayScore, int homeScore) {
+            this.entry = entry;
+            this.kickoff = Instant.ofEpochMilli(ScheduleUtil.getUtcGameTime(entry));
+            this.awayScore = awayScore;
+            this.homeScore = homeScore;
+        }
+
+        public GameEntry getEntry() {
+            return entry;
+        }
+
+        public Instant getKickoff() {
+            return kickoff;
+        }
+
+        public LocalDate getDate() {
+            return LocalDate.parse(entry.getDate());
+        }
+
+        public boolean isStarted(Instant now) {
+            return !now.isBefore(kickoff);
+        }
+
+        public boolean isCompleted(Instant now) {
+            return !now.isBefore(kickoff.plus(GAME_LENGTH));
+        }
+
+        /**
+         * Final score once the game is over, and a proportional share of it while in progress.
+         */
+        public int getAwayScore(Instant now) {
+            return scoreAt(awayScore, now);
+        }
+
+        public int getHomeScore(Instant now) {
+            return scoreAt(homeScore, now);
+        }
+
+        private int scoreAt(int finalScore, Instant now) {
+            if (!isStarted(now)) {
+                return 0;
+            }
+
+            if (isCompleted(now)) {
+                return finalScore;
+            }
+
+            double progress = (double) Duration.between(kickoff, now).toMillis() / GAME_LENGTH.toMillis();
+            return (int) (finalScore * progress);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.gci.pickem.repository.RequestBudgetRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class MySportsFeedsBudgetITest {
+
+    @Autowired private RequestBudgetRepository requestBudgetRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private MySportsFeedsBudget budget;
+
+    @Before
+    public void setup() {
+        jdbcTemplate.update("update msf_request_budget set window_start_epoch = 0, requests_used = 0");
+
+        // A long window, so the test can't straddle two.
+        budget = new MySportsFeedsBudget(requestBudgetRepository, 10, TimeUnit.DAYS.toSeconds(365));
+    }
+
+    @Test
+    public void testLowerPrioritiesLeaveRoomForFinalScores() {
+        assertEquals(5, acquire(MySportsFeedsPriority.PREFETCH, 6));
+        assertEquals(3, acquire(MySportsFeedsPriority.USER_SCHEDULE, 6));
+        assertEquals(2, acquire(MySportsFeedsPriority.FINAL_SCORES, 6));
+
+        MySportsFeedsBudgetStats stats = budget.getStats();
+        assertEquals(10, stats.getUsed());
+
+        MySportsFeedsBudgetStats.PriorityUsage prefetch = stats.getPriorities().get(MySportsFeedsPriority.PREFETCH.ordinal());
+        assertEquals(5, prefetch.getLimit());
+        assertEquals(5, prefetch.getGranted());
+        assertEquals(1, prefetch.getDeferred());
+    }
+
+    @Test
+    public void testBudgetIsSharedBetweenNodes() {
+        MySportsFeedsBudget otherNode = new MySportsFeedsBudget(requestBudgetRepository, 10, TimeUnit.DAYS.toSeconds(365));
+
+        assertEquals(4, acquire(MySportsFeedsPriority.USER_SCHEDULE, 4));
+        assertTrue(otherNode.tryAcquire(MySportsFeedsPriority.PREFETCH));
+        assertFalse(otherNode.tryAcquire(MySportsFeedsPriority.PREFETCH));
+
+        assertEquals(5, budget.getStats().getUsed());
+    }
+
+    @Test
+    public void testNewWindowResetsCount() {
+        jdbcTemplate.update("update msf_request_budget set window_start_epoch = 1, requests_used = 10");
+
+        assertEquals(2, acquire(MySportsFeedsPriority.FINAL_SCORES, 2));
+        assertEquals(2, budget.getStats().getUsed());
+    }
+
+    private int acquire(MySportsFeedsPriority priority, int attempts) {
+        int acquired = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (budget.tryAcquire(priority)) {
+                acquired++;
+            }
+        }
+
+        return acquired;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class MySportsFeedsCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(0);
+    private final MySportsFeedsCircuitBreaker breaker = new MySportsFeedsCircuitBreaker(3, 1000, now::get);
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        recordFailures(2);
+        assertEquals(MySportsFeedsCircuitBreaker.State.CLOSED, breaker.getState());
+
+        // A success resets the count.
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        recordFailures(2);
+        assertEquals(MySportsFeedsCircuitBreaker.State.CLOSED, breaker.getState());
+
+        recordFailures(1);
+        assertEquals(MySportsFeedsCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testHalfOpenAllowsOneProbe() {
+        recordFailures(3);
+
+        now.set(999);
+        assertFalse(breaker.tryAcquire());
+
+        now.set(1000);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(MySportsFeedsCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // Everyone else waits on the probe.
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(MySportsFeedsCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testFailedProbeReopens() {
+        recordFailures(3);
+
+        now.set(1000);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(MySportsFeedsCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpenedCount());
+
+        // The cool-down starts over from the failed probe.
+        now.set(1999);
+        assertFalse(breaker.tryAcquire());
+        now.set(2000);
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private void recordFailures(int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+    }
+}
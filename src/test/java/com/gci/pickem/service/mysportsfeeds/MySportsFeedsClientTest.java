@@ -0,0 +1,336 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gci.pickem.model.mysportsfeeds.FullGameScheduleResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class MySportsFeedsClientTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private MySportsFeedsClient client;
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile String acceptEncoding;
+    private volatile String authorization;
+
+    private final AtomicLong now = new AtomicLong(1000000L);
+    private final AtomicInteger flakyRequests = new AtomicInteger();
+    private final AtomicInteger unvalidatedRequests = new AtomicInteger();
+    private volatile boolean flakyDown;
+
+    @Before
+    public void setup() throws IOException {
+        byte[] season = getFullSeasonSchedule();
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/season", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            authorization = exchange.getRequestHeaders().getFirst("Authorization");
+
+            byte[] body = gzip(season);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            exchange.sendResponseHeaders(200, 0);
+            exchange.close();
+        });
+        server.createContext("/conditional", exchange -> {
+            exchange.getResponseHeaders().add("ETag", "\"week-1\"");
+            if ("\"week-1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, season.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(season);
+            }
+        });
+        server.createContext("/flaky", exchange -> {
+            flakyRequests.incrementAndGet();
+            if (flakyDown) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+
+            exchange.getResponseHeaders().add("ETag", "\"flaky\"");
+            exchange.sendResponseHeaders(200, season.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(season);
+            }
+        });
+        server.createContext("/unvalidated", exchange -> {
+            // No ETag or Last-Modified.
+            unvalidatedRequests.incrementAndGet();
+            exchange.sendResponseHeaders(200, season.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(season);
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+
+        MySportsFeedsResponseStore store = new MySportsFeedsResponseStore("off", "unused", 1024, 1, 0);
+        client = new MySportsFeedsClient("user", "pass", 1000, 500, 4, store, 0, new MySportsFeedsCircuitBreaker(2, 30000, now::get), new MySportsFeedsBudget(null, 0, 300), 4, 1000);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testFullSeasonPullIsGzippedAndConnectionReused() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            FullGameScheduleResponse response = client.get(url("/season"), body -> MAPPER.readValue(body, FullGameScheduleResponse.class));
+            assertEquals(256, response.getFullGameSchedule().getGameEntries().size());
+        }
+
+        assertEquals("gzip", acceptEncoding);
+        assertNotNull(authorization);
+        assertTrue(authorization.startsWith("Basic "));
+
+        // Every request rode the same kept-alive connection.
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void testNotModifiedReusesParsedObject() throws IOException {
+        AtomicInteger parses = new AtomicInteger();
+        MySportsFeedsClient.ResponseBodyReader<FullGameScheduleResponse> reader = body -> {
+            parses.incrementAndGet();
+            return MAPPER.readValue(body, FullGameScheduleResponse.class);
+        };
+
+        FullGameScheduleResponse first = client.getConditional(url("/conditional"), FullGameScheduleResponse.class, reader);
+        FullGameScheduleResponse second = client.getConditional(url("/conditional"), FullGameScheduleResponse.class, reader);
+        FullGameScheduleResponse third = client.getConditional(url("/conditional"), FullGameScheduleResponse.class, reader);
+
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals(1, parses.get());
+
+        MySportsFeedsStats stats = client.getStats();
+        assertEquals(3, stats.getRequests());
+        assertEquals(2, stats.getConditionalRequests());
+        assertEquals(2, stats.getNotModifiedResponses());
+        assertEquals(1.0, stats.getNotModifiedRatio(), 0.0001);
+    }
+
+    @Test
+    public void testStoredResponseOnlyReusedOnFirstRequestSinceStart() throws IOException {
+        MySportsFeedsClient.ResponseBodyReader<FullGameScheduleResponse> reader = body -> MAPPER.readValue(body, FullGameScheduleResponse.class);
+
+        MySportsFeedsResponseStore store = new MySportsFeedsResponseStore("record", folder.getRoot().getAbsolutePath(), 1 << 20, 4, 0);
+        store.open();
+
+        // Without validators nothing is remembered between requests, but each one still goes to MSF.
+        MySportsFeedsClient running = getRecordingClient(store);
+        for (int i = 0; i < 3; i++) {
+            running.getConditional(url("/unvalidated"), FullGameScheduleResponse.class, reader, true);
+        }
+
+        assertEquals(3, unvalidatedRequests.get());
+        assertEquals(0, running.getStats().getStoredResponses());
+        running.close();
+
+        // After a restart only the first request is answered from the store.
+        MySportsFeedsClient restarted = getRecordingClient(store);
+        FullGameScheduleResponse stored = restarted.getConditional(url("/unvalidated"), FullGameScheduleResponse.class, reader, true);
+        assertEquals(256, stored.getFullGameSchedule().getGameEntries().size());
+        assertEquals(3, unvalidatedRequests.get());
+
+        restarted.getConditional(url("/unvalidated"), FullGameScheduleResponse.class, reader, true);
+        assertEquals(4, unvalidatedRequests.get());
+        assertEquals(1, restarted.getStats().getStoredResponses());
+        restarted.close();
+
+        // Unless the caller allows it, MSF is asked even on the first request.
+        MySportsFeedsClient scores = getRecordingClient(store);
+        scores.getConditional(url("/unvalidated"), FullGameScheduleResponse.class, reader);
+        assertEquals(5, unvalidatedRequests.get());
+        assertEquals(0, scores.getStats().getStoredResponses());
+        scores.close();
+
+        store.close();
+    }
+
+    @Test(expected = SocketTimeoutException.class)
+    public void testReadTimeout() throws IOException {
+        client.get(url("/slow"), body -> body.read());
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnexpectedStatus() throws IOException {
+        client.get(url("/missing"), body -> body.read());
+    }
+
+    @Test
+    public void testOpenCircuitServesLastResponse() throws IOException {
+        MySportsFeedsClient.ResponseBodyReader<FullGameScheduleResponse> reader = body -> MAPPER.readValue(body, FullGameScheduleResponse.class);
+
+        FullGameScheduleResponse first = client.getConditional(url("/flaky"), FullGameScheduleResponse.class, reader);
+
+        flakyDown = true;
+        for (int i = 0; i < 2; i++) {
+            try {
+                client.getConditional(url("/flaky"), FullGameScheduleResponse.class, reader);
+                fail("Expected the request to fail");
+            } catch (IOException e) {
+                // Expected.
+            }
+        }
+
+        assertEquals(MySportsFeedsCircuitBreaker.State.OPEN.name(), client.getStats().getCircuitState());
+
+        // Open: MSF isn't asked, the last good response is served, and anything without one fails fast.
+        assertSame(first, client.getConditional(url("/flaky"), FullGameScheduleResponse.class, reader));
+        try {
+            client.get(url("/season"), body -> body.read());
+            fail("Expected the request to be rejected");
+        } catch (MySportsFeedsUnavailableException e) {
+            // Expected.
+        }
+
+        assertEquals(3, flakyRequests.get());
+
+        MySportsFeedsStats stats = client.getStats();
+        assertEquals(2, stats.getCircuitRejections());
+        assertEquals(1, stats.getStaleResponses());
+        assertEquals(1, stats.getCircuitOpenedCount());
+
+        // After the cool-down a probe goes out, and its success closes the circuit.
+        flakyDown = false;
+        now.addAndGet(30000);
+
+        FullGameScheduleResponse probe = client.getConditional(url("/flaky"), FullGameScheduleResponse.class, reader);
+        assertNotSame(first, probe);
+        assertEquals(4, flakyRequests.get());
+        assertEquals(MySportsFeedsCircuitBreaker.State.CLOSED.name(), client.getStats().getCircuitState());
+    }
+
+    @Test
+    public void testClientErrorsDoNotOpenCircuit() {
+        for (int i = 0; i < 3; i++) {
+            try {
+                client.get(url("/missing"), body -> body.read());
+                fail("Expected the request to fail");
+            } catch (IOException e) {
+                // Expected.
+            }
+        }
+
+        assertEquals(MySportsFeedsCircuitBreaker.State.CLOSED.name(), client.getStats().getCircuitState());
+    }
+
+    @Test
+    public void testFullBulkheadFailsFast() throws Exception {
+        MySportsFeedsResponseStore store = new MySportsFeedsResponseStore("off", "unused", 1024, 1, 0);
+        MySportsFeedsClient narrow = new MySportsFeedsClient("user", "pass", 1000, 500, 4, store, 0, new MySportsFeedsCircuitBreaker(5, 30000, now::get), new MySportsFeedsBudget(null, 0, 300), 1, 0);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = executor.submit(() -> narrow.get(url("/slow"), body -> body.read()));
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (narrow.getStats().getBulkheadAvailable() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+
+            try {
+                narrow.get(url("/season"), body -> body.read());
+                fail("Expected the request to be rejected");
+            } catch (MySportsFeedsUnavailableException e) {
+                // Expected.
+            }
+
+            assertEquals(1, narrow.getStats().getBulkheadRejections());
+
+            try {
+                slow.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                // Read timeout, expected.
+            }
+        } finally {
+            executor.shutdownNow();
+            narrow.close();
+        }
+
+        assertEquals(1, narrow.getStats().getBulkheadAvailable());
+    }
+
+    private MySportsFeedsClient getRecordingClient(MySportsFeedsResponseStore store) {
+        return new MySportsFeedsClient("user", "pass", 1000, 500, 4, store, 120, new MySportsFeedsCircuitBreaker(2, 30000, now::get), new MySportsFeedsBudget(null, 0, 300), 4, 1000);
+    }
+
+    private String url(String path) {
+        return String.format("http://localhost:%d%s", server.getAddress().getPort(), path);
+    }
+
+    private byte[] getFullSeasonSchedule() {
+        StringBuilder json = new StringBuilder("{\"fullgameschedule\":{\"gameentry\":[");
+        for (int i = 0; i < 256; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+
+            json.append(String.format(
+                "{\"id\":\"%d\",\"week\":\"%d\",\"scheduleStatus\":\"Normal\",\"date\":\"2017-09-10\",\"time\":\"1:00PM\"," +
+                "\"awayTeam\":{\"ID\":\"%d\",\"City\":\"Away\",\"Name\":\"Team\",\"Abbreviation\":\"AWY\"}," +
+                "\"homeTeam\":{\"ID\":\"%d\",\"City\":\"Home\",\"Name\":\"Team\",\"Abbreviation\":\"HOM\"}," +
+                "\"location\":\"Stadium\"}",
+                40000 + i, i / 16 + 1, 50 + (i % 16), 66 + (i % 16)));
+        }
+
+        return json.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,158 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class MySportsFeedsResponseStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testResponsesSurviveReopen() throws IOException {
+        String directory = folder.getRoot().getAbsolutePath();
+
+        MySportsFeedsResponseStore store = open("record", directory, 1 << 20, 4, 0);
+        store.put("http://msf/week-1", 1000L, "\"v1\"", null, gzip("week 1, first"));
+        store.put("http://msf/week-1", 2000L, "\"v2\"", "Sun, 10 Sep 2017 20:00:00 GMT", gzip("week 1, second"));
+        store.put("http://msf/week-2", 1500L, null, null, gzip("week 2"));
+        store.close();
+
+        MySportsFeedsResponseStore reopened = open("fallback", directory, 1 << 20, 4, 0);
+        assertEquals(2, reopened.getUrlCount());
+
+        MySportsFeedsResponseStore.StoredResponse latest = reopened.getLatest("http://msf/week-1").get();
+        assertEquals(2000L, latest.getFetchedAt());
+        assertEquals("\"v2\"", latest.getEtag());
+        assertEquals("Sun, 10 Sep 2017 20:00:00 GMT", latest.getLastModified());
+        assertEquals("week 1, second", read(latest));
+
+        MySportsFeedsResponseStore.StoredResponse other = reopened.getLatest("http://msf/week-2").get();
+        assertNull(other.getEtag());
+        assertEquals("week 2", read(other));
+
+        assertFalse(reopened.getLatest("http://msf/week-3").isPresent());
+        reopened.close();
+    }
+
+    @Test
+    public void testReplayServesResponseAsOfReplayTime() throws IOException {
+        String directory = folder.getRoot().getAbsolutePath();
+
+        MySportsFeedsResponseStore store = open("record", directory, 1 << 20, 4, 0);
+        store.put("http://msf/scores", 1000L, null, null, gzip("in progress"));
+        store.put("http://msf/scores", 3000L, null, null, gzip("final"));
+        store.close();
+
+        MySportsFeedsResponseStore replay = open("replay", directory, 1 << 20, 4, 2000L);
+        assertEquals("in progress", read(replay.getLatest("http://msf/scores").get()));
+        replay.close();
+
+        MySportsFeedsResponseStore beforeAnything = open("replay", directory, 1 << 20, 4, 500L);
+        assertFalse(beforeAnything.getLatest("http://msf/scores").isPresent());
+        beforeAnything.close();
+    }
+
+    @Test
+    public void testOldestSegmentIsDropped() throws IOException {
+        String directory = folder.getRoot().getAbsolutePath();
+
+        // Small enough that every record gets its own segment.
+        MySportsFeedsResponseStore store = open("record", directory, 64, 2, 0);
+        store.put("http://msf/a", 1000L, null, null, gzip("a"));
+        store.put("http://msf/b", 1000L, null, null, gzip("b"));
+        store.put("http://msf/c", 1000L, null, null, gzip("c"));
+
+        assertEquals(2, store.getSegmentCount());
+        assertFalse(store.getLatest("http://msf/a").isPresent());
+        assertEquals("b", read(store.getLatest("http://msf/b").get()));
+        assertEquals("c", read(store.getLatest("http://msf/c").get()));
+        store.close();
+
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void testReadFromDroppedSegmentFails() throws IOException {
+        String directory = folder.getRoot().getAbsolutePath();
+
+        MySportsFeedsResponseStore store = open("record", directory, 64, 2, 0);
+        store.put("http://msf/a", 1000L, null, null, gzip("a"));
+        MySportsFeedsResponseStore.StoredResponse held = store.getLatest("http://msf/a").get();
+
+        store.put("http://msf/b", 1000L, null, null, gzip("b"));
+        store.put("http://msf/c", 1000L, null, null, gzip("c"));
+
+        try {
+            read(held);
+            fail("Expected the read to fail");
+        } catch (IOException e) {
+            // Expected.
+        }
+
+        store.close();
+    }
+
+    @Test
+    public void testPartialRecordIsTruncated() throws IOException {
+        String directory = folder.getRoot().getAbsolutePath();
+
+        MySportsFeedsResponseStore store = open("record", directory, 1 << 20, 4, 0);
+        store.put("http://msf/a", 1000L, null, null, gzip("a"));
+        store.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            segment = files.findFirst().get();
+        }
+
+        long goodLength = Files.size(segment);
+        Files.write(segment, new byte[] { 0x4D, 0x53, 0x46, 0x52, 0, 0, 1 }, StandardOpenOption.APPEND);
+
+        MySportsFeedsResponseStore reopened = open("record", directory, 1 << 20, 4, 0);
+        assertEquals(goodLength, Files.size(segment));
+        assertEquals("a", read(reopened.getLatest("http://msf/a").get()));
+
+        // Appended to the same segment rather than a new one per restart.
+        reopened.put("http://msf/b", 2000L, null, null, gzip("b"));
+        assertEquals("b", read(reopened.getLatest("http://msf/b").get()));
+        assertEquals(1, reopened.getSegmentCount());
+        reopened.close();
+    }
+
+    private MySportsFeedsResponseStore open(String mode, String directory, long maxSegmentBytes, int maxSegments, long replayAt) throws IOException {
+        MySportsFeedsResponseStore store = new MySportsFeedsResponseStore(mode, directory, maxSegmentBytes, maxSegments, replayAt);
+        store.open();
+        return store;
+    }
+
+    private String read(MySportsFeedsResponseStore.StoredResponse response) throws IOException {
+        try (InputStream body = response.openBody()) {
+            return IOUtils.toString(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private byte[] gzip(String value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
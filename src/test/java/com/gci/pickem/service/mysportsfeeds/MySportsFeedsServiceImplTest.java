@@ -0,0 +1,135 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.gci.pickem.model.mysportsfeeds.FullGameSchedule;
+import com.google.common.base.Ticker;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class MySportsFeedsServiceImplTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+
+    private FakeSeason season;
+    private FakeMySportsFeedsServer server;
+    private MySportsFeedsCircuitBreaker circuitBreaker;
+    private MySportsFeedsClient client;
+    private ExecutorService refreshExecutor;
+    private MySportsFeedsServiceImpl service;
+
+    @Before
+    public void setup() throws IOException {
+        season = FakeSeason.generate(2017, 17L);
+        server = FakeMySportsFeedsServer.start(season, new SimulatedClock(season.getFirstKickoff().minus(Duration.ofDays(1))));
+
+        MySportsFeedsResponseStore store = new MySportsFeedsResponseStore("off", "unused", 1024, 1, 0);
+        circuitBreaker = new MySportsFeedsCircuitBreaker(5, 30000, System::currentTimeMillis);
+        client = new MySportsFeedsClient("user", "pass", 1000, 2000, 4, store, 0, circuitBreaker, new MySportsFeedsBudget(null, 0, 300), 4, 1000);
+
+        // Schedules refresh after an hour and are never served past six.
+        refreshExecutor = Executors.newSingleThreadExecutor();
+        service = new MySportsFeedsServiceImpl(client, refreshExecutor, 60, 360, 1 << 20, 60, 5, 1 << 20, ticker);
+        ReflectionTestUtils.setField(service, "baseUrl", server.getBaseUrl());
+        ReflectionTestUtils.setField(service, "apiVersion", "v1.2");
+        ReflectionTestUtils.setField(service, "dataFormat", "json");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        refreshExecutor.shutdownNow();
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testStaleScheduleServedWhileRefreshing() throws Exception {
+        FullGameSchedule first = service.getGamesForSeasonAndWeek(2017, 1);
+        assertEquals(1, server.getRequestCount(MySportsFeedEndpoint.FULL_GAME_SCHEDULE));
+
+        advance(61);
+        server.setLatencyMillis(500);
+
+        long start = System.currentTimeMillis();
+        assertSame(first, service.getGamesForSeasonAndWeek(2017, 1));
+        assertSame(first, service.getGamesForSeasonAndWeek(2017, 1));
+        assertTrue(System.currentTimeMillis() - start < 500);
+
+        // Both calls above share a single background refresh.
+        refreshExecutor.shutdown();
+        assertTrue(refreshExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, server.getRequestCount(MySportsFeedEndpoint.FULL_GAME_SCHEDULE));
+    }
+
+    @Test
+    public void testCallersWaitPastMaximumStaleness() {
+        service.getGamesForSeasonAndWeek(2017, 1);
+
+        advance(361);
+        server.setLatencyMillis(500);
+
+        long start = System.currentTimeMillis();
+        assertEquals(16, service.getGamesForSeasonAndWeek(2017, 1).getGameEntries().size());
+        assertTrue(System.currentTimeMillis() - start >= 500);
+        assertEquals(2, server.getRequestCount(MySportsFeedEndpoint.FULL_GAME_SCHEDULE));
+    }
+
+    @Test
+    public void testPolledScoreboardStillExpires() {
+        // No background refresh, so only the expiry can bring in new scores.
+        MySportsFeedsServiceImpl polled = new MySportsFeedsServiceImpl(client, refreshExecutor, 60, 360, 1 << 20, 0, 5, 1 << 20, ticker);
+        ReflectionTestUtils.setField(polled, "baseUrl", server.getBaseUrl());
+        ReflectionTestUtils.setField(polled, "apiVersion", "v1.2");
+        ReflectionTestUtils.setField(polled, "dataFormat", "json");
+
+        // The score poll reads the same date every 30 seconds. That mustn't keep the entry alive.
+        for (int i = 0; i < 12; i++) {
+            polled.getFinalGameScores(season.getFirstKickoff());
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        }
+
+        assertEquals(2, server.getRequestCount(MySportsFeedEndpoint.SCOREBOARD));
+    }
+
+    @Test
+    public void testOpenCircuitIsDistinguishable() {
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.onFailure();
+        }
+
+        try {
+            service.getGamesForSeasonAndWeek(2017, 1);
+            fail("Expected the open circuit to be reported");
+        } catch (MySportsFeedsBackoffException e) {
+            assertTrue(e.getCause() instanceof MySportsFeedsUnavailableException);
+        }
+
+        try {
+            service.getLiveGameScores(season.getFirstKickoff());
+            fail("Expected the open circuit to be reported");
+        } catch (MySportsFeedsBackoffException e) {
+            assertTrue(e.getCause() instanceof MySportsFeedsUnavailableException);
+        }
+
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private void advance(long minutes) {
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+    }
+}
@@ -0,0 +1,128 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gci.pickem.model.mysportsfeeds.GameEntry;
+import com.gci.pickem.model.mysportsfeeds.GameScore;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MySportsFeedsStreamReaderTest {
+
+    private final MySportsFeedsStreamReader reader = new MySportsFeedsStreamReader(new ObjectMapper());
+
+    @Test
+    public void testReadGameEntries() throws IOException {
+        List<GameEntry> entries = new ArrayList<>();
+        int count = reader.readGameEntries(toStream(getSchedule(3)), entries::add);
+
+        assertEquals(3, count);
+        assertEquals(3, entries.size());
+        assertEquals(Integer.valueOf(40000), entries.get(0).getId());
+        assertEquals(Integer.valueOf(1), entries.get(0).getWeek());
+        assertEquals("AWY", entries.get(0).getAwayTeam().getAbbreviation());
+        assertEquals(Integer.valueOf(66), entries.get(0).getHomeTeam().getId());
+        assertEquals(Integer.valueOf(40002), entries.get(2).getId());
+    }
+
+    @Test
+    public void testEntriesAreEmittedBeforeBodyIsFullyRead() throws IOException {
+        byte[] schedule = getSchedule(512);
+        CountingInputStream body = new CountingInputStream(new ByteArrayInputStream(schedule));
+
+        List<Long> bytesReadAtEntry = new ArrayList<>();
+        int count = reader.readGameEntries(body, entry -> bytesReadAtEntry.add(body.bytesRead));
+
+        assertEquals(512, count);
+        assertTrue(bytesReadAtEntry.get(0) < schedule.length / 2);
+    }
+
+    @Test
+    public void testReadGameScores() throws IOException {
+        String json =
+            "{\"scoreboard\":{\"lastUpdatedOn\":\"2017-09-11 12:00:00 AM\",\"gameScore\":[" +
+                "{\"game\":{\"ID\":\"40000\",\"week\":\"1\",\"date\":\"2017-09-10\",\"time\":\"1:00PM\"," +
+                "\"awayTeam\":{\"ID\":\"50\",\"City\":\"Away\",\"Name\":\"Team\",\"Abbreviation\":\"AWY\"}," +
+                "\"homeTeam\":{\"ID\":\"66\",\"City\":\"Home\",\"Name\":\"Team\",\"Abbreviation\":\"HOM\"}," +
+                "\"location\":\"Stadium\"}," +
+                "\"isUnplayed\":\"false\",\"isInProgress\":\"false\",\"isCompleted\":\"true\"," +
+                "\"awayScore\":\"17\",\"homeScore\":\"24\",\"quarterSummary\":{\"quarter\":[{\"@number\":\"1\"}]}}" +
+            "]}}";
+
+        List<GameScore> scores = new ArrayList<>();
+        int count = reader.readGameScores(toStream(json.getBytes(StandardCharsets.UTF_8)), scores::add);
+
+        assertEquals(1, count);
+        assertEquals(Integer.valueOf(40000), scores.get(0).getGame().getId());
+        assertEquals("true", scores.get(0).getIsCompleted());
+        assertEquals(Integer.valueOf(24), scores.get(0).getHomeScore());
+        assertEquals(Integer.valueOf(17), scores.get(0).getAwayScore());
+    }
+
+    @Test
+    public void testMissingArrayReadsNothing() throws IOException {
+        String json = "{\"scoreboard\":{\"lastUpdatedOn\":\"2017-09-11 12:00:00 AM\"}}";
+
+        List<GameScore> scores = new ArrayList<>();
+        int count = reader.readGameScores(toStream(json.getBytes(StandardCharsets.UTF_8)), scores::add);
+
+        assertEquals(0, count);
+        assertTrue(scores.isEmpty());
+    }
+
+    private InputStream toStream(byte[] bytes) {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    private byte[] getSchedule(int games) {
+        StringBuilder json = new StringBuilder("{\"fullgameschedule\":{\"lastUpdatedOn\":\"2017-09-01 10:00:00 AM\",\"gameentry\":[");
+        for (int i = 0; i < games; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+
+            json.append(String.format(
+                "{\"id\":\"%d\",\"week\":\"%d\",\"scheduleStatus\":\"Normal\",\"date\":\"2017-09-10\",\"time\":\"1:00PM\"," +
+                "\"awayTeam\":{\"ID\":\"%d\",\"City\":\"Away\",\"Name\":\"Team\",\"Abbreviation\":\"AWY\"}," +
+                "\"homeTeam\":{\"ID\":\"%d\",\"City\":\"Home\",\"Name\":\"Team\",\"Abbreviation\":\"HOM\"}," +
+                "\"location\":\"Stadium\"}",
+                40000 + i, i / 16 + 1, 50 + (i % 16), 66 + (i % 16)));
+        }
+
+        return json.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long bytesRead;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                bytesRead += n;
+            }
+            return n;
+        }
+    }
+}
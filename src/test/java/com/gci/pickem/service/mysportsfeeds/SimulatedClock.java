@@ -0,0 +1,29 @@
+package com.gci.pickem.service.mysportsfeeds;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time as seen by {@link FakeMySportsFeedsServer}. Only moves when a test moves it.
+ */
+public class SimulatedClock {
+
+    private final AtomicLong now;
+
+    public SimulatedClock(Instant start) {
+        this.now = new AtomicLong(start.toEpochMilli());
+    }
+
+    public Instant now() {
+        return Instant.ofEpochMilli(now.get());
+    }
+
+    public void set(Instant instant) {
+        now.set(instant.toEpochMilli());
+    }
+
+    public void advance(Duration duration) {
+        now.addAndGet(duration.toMillis());
+    }
+}
@@ -10,6 +10,8 @@ import com.gci.pickem.repository.UserRepository;
 import com.gci.pickem.service.mail.MailService;
 import com.gci.pickem.service.mail.SendEmailRequest;
 import com.gci.pickem.service.schedule.ScheduleService;
+import com.gci.pickem.service.schedule.SeasonCalendar;
+import com.gci.pickem.service.schedule.WeekScheduleCache;
 import com.google.common.collect.ImmutableMap;
 import org.assertj.core.util.Lists;
 import org.junit.Assert;
@@ -36,6 +38,8 @@ public class PickServiceImplTest {
     @Mock private UserRepository userRepository;
     @Mock private ScheduleService scheduleService;
     @Mock private MailService mailService;
+    @Mock private WeekScheduleCache weekScheduleCache;
+    @Mock private SeasonCalendar seasonCalendar;
 
     private PickServiceImpl service;
 
@@ -56,7 +60,7 @@ public class PickServiceImplTest {
             return null;
         }).when(mailService).sendEmails(anyListOf(SendEmailRequest.class));
 
-        service = new PickServiceImpl(pickRepository, gameRepository, poolRepository, userRepository, scheduleService, mailService);
+        service = new PickServiceImpl(pickRepository, gameRepository, poolRepository, userRepository, scheduleService, mailService, weekScheduleCache, seasonCalendar);
     }
 
     @Test(expected = RuntimeException.class)
@@ -171,6 +175,9 @@ public class PickServiceImplTest {
     public void testNotifyUsersWithoutPicksNoGamesOnDay() {
         LocalDate today = LocalDate.of(2018, 7, 27);
         service.notifyUsersWithoutPicks(today);
+
+        verify(gameRepository, never()).findByGameTimeEpochBetween(anyLong(), anyLong());
+        Assert.assertNull(emailRequests);
     }
 
     @Test
@@ -178,6 +185,8 @@ public class PickServiceImplTest {
         LocalDateTime first = LocalDateTime.of(2018, 7, 28, 0, 0, 0, 0);
         LocalDateTime second = LocalDateTime.of(2018, 7, 29, 0, 0, 0, 0);
 
+        when(seasonCalendar.hasKickoffBetween(anyLong(), anyLong())).thenReturn(true);
+
         Map<Long, Game> mockGames = new HashMap<>();
         for (Game game : getMockGamesForDay()) {
             mockGames.put(game.getGameId(), game);
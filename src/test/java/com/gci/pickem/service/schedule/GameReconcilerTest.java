@@ -0,0 +1,88 @@
+package com.gci.pickem.service.schedule;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.service.event.GameChanged;
+import com.gci.pickem.service.event.GameEvent;
+import com.gci.pickem.service.event.GameRescheduled;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GameReconcilerTest {
+
+    @Test
+    public void testUnchangedGameHasNoEvents() {
+        Game stored = getGame(1000L, 1);
+
+        assertTrue(GameReconciler.reconcile(stored, getGame(null, 1)).isEmpty());
+        assertEquals(Long.valueOf(1000L), stored.getGameId());
+    }
+
+    @Test
+    public void testRescheduleOnlyChangesTime() {
+        Game stored = getGame(1000L, 1);
+        Game incoming = getGame(null, 1);
+        incoming.setGameTimeEpoch(stored.getGameTimeEpoch() + 3600000L);
+
+        List<GameEvent> events = GameReconciler.reconcile(stored, incoming);
+
+        assertEquals(1, events.size());
+        GameRescheduled rescheduled = (GameRescheduled) events.get(0);
+        assertEquals(Long.valueOf(1504890000000L), rescheduled.getPreviousGameTimeEpoch());
+        assertEquals(1504893600000L, rescheduled.getGameTimeEpoch());
+        assertEquals(Long.valueOf(1504893600000L), stored.getGameTimeEpoch());
+    }
+
+    @Test
+    public void testStoredGameWithoutKickoff() {
+        Game stored = getGame(1000L, 1);
+        stored.setGameTimeEpoch(null);
+
+        List<GameEvent> events = GameReconciler.reconcile(stored, getGame(null, 1));
+
+        assertEquals(1, events.size());
+        GameRescheduled rescheduled = (GameRescheduled) events.get(0);
+        assertNull(rescheduled.getPreviousGameTimeEpoch());
+        assertEquals(1504890000000L, rescheduled.getGameTimeEpoch());
+        assertEquals(Long.valueOf(1504890000000L), stored.getGameTimeEpoch());
+    }
+
+    @Test
+    public void testPostponementAndWeekChange() {
+        Game stored = getGame(1000L, 1);
+        Game incoming = getGame(null, 2);
+        incoming.setScheduleStatus("Postponed");
+        incoming.setDelayedOrPostponedReason("Weather");
+        incoming.setHomeTeamId(3L);
+
+        List<GameEvent> events = GameReconciler.reconcile(stored, incoming);
+
+        assertEquals(1, events.size());
+        GameChanged changed = (GameChanged) events.get(0);
+        assertEquals(
+            EnumSet.of(GameChanged.Field.WEEK, GameChanged.Field.HOME_TEAM, GameChanged.Field.SCHEDULE_STATUS, GameChanged.Field.POSTPONED_REASON),
+            changed.getFields());
+        assertEquals(1, changed.getPreviousWeek());
+        assertEquals(2, changed.getWeek());
+
+        assertEquals("Postponed", stored.getScheduleStatus());
+        assertEquals(Long.valueOf(3L), stored.getHomeTeamId());
+        assertEquals(Long.valueOf(2L), stored.getAwayTeamId());
+    }
+
+    private Game getGame(Long gameId, int week) {
+        Game game = new Game();
+        game.setGameId(gameId);
+        game.setSeason(2017);
+        game.setWeek(week);
+        game.setExternalId(5000);
+        game.setHomeTeamId(1L);
+        game.setAwayTeamId(2L);
+        game.setGameTimeEpoch(1504890000000L);
+        game.setScheduleStatus("Normal");
+        return game;
+    }
+}
@@ -0,0 +1,179 @@
+package com.gci.pickem.service.schedule;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.model.ScheduleImportResult;
+import com.gci.pickem.model.mysportsfeeds.GameEntry;
+import com.gci.pickem.model.mysportsfeeds.Team;
+import com.gci.pickem.repository.ScheduleBulkRepository;
+import com.gci.pickem.service.event.GameAdded;
+import com.gci.pickem.service.event.GameChanged;
+import com.gci.pickem.service.event.GameEvent;
+import com.gci.pickem.service.event.GameEventService;
+import com.gci.pickem.service.event.GameRescheduled;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsService;
+import com.gci.pickem.service.team.TeamService;
+import com.gci.pickem.util.ScheduleUtil;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScheduleImportServiceImplTest {
+
+    @Mock private MySportsFeedsService mySportsFeedsService;
+    @Mock private ScheduleBulkRepository scheduleBulkRepository;
+    @Mock private GameEventService gameEventService;
+    @Mock private TeamService teamService;
+    @Mock private WeekScheduleCache weekScheduleCache;
+
+    private ScheduleImportServiceImpl scheduleImportService;
+
+    @Before
+    public void setup() {
+        scheduleImportService = new ScheduleImportServiceImpl(mySportsFeedsService, scheduleBulkRepository, gameEventService, teamService, weekScheduleCache);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportSeason() {
+        GameEntry postponed = getEntry(1002, 1, 52, 53, "2018-09-09", "1:00PM");
+        postponed.setScheduleStatus("Postponed");
+        postponed.setDelayedOrPostponedReason("Weather");
+
+        List<GameEntry> entries = Arrays.asList(
+            getEntry(1001, 1, 50, 51, "2018-09-06", "8:20PM"),
+            postponed,
+            getEntry(1003, 2, 51, 52, "2018-09-16", "4:25PM"));
+
+        when(mySportsFeedsService.streamSeasonSchedule(eq(2018), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<GameEntry> consumer = (Consumer<GameEntry>) invocation.getArguments()[1];
+            entries.forEach(consumer);
+            return entries.size();
+        });
+
+        // 1001 is new, 1002 moved from 4:25 to 1:00 and was postponed, 1003 is unchanged so the upsert doesn't return it.
+        Game previous = new Game();
+        previous.setGameId(2L);
+        previous.setExternalId(1002);
+        previous.setSeason(2018);
+        previous.setWeek(1);
+        previous.setScheduleStatus("Normal");
+        previous.setGameTimeEpoch(ScheduleUtil.getUtcGameTime(getEntry(1002, 1, 52, 53, "2018-09-09", "4:25PM")));
+
+        Map<Integer, Game> existing = new HashMap<>();
+        existing.put(1002, previous);
+        existing.put(1003, new Game());
+
+        Map<Integer, Long> written = new HashMap<>();
+        written.put(1001, 1L);
+        written.put(1002, 2L);
+
+        when(scheduleBulkRepository.upsertSchedule(anyCollection(), anyListOf(Game.class)))
+            .thenReturn(new ScheduleBulkRepository.ScheduleUpsert(4, Collections.singleton(50L), existing, written));
+
+        ScheduleImportResult result = scheduleImportService.importSeason(2018);
+
+        assertEquals(3, result.getGamesRead());
+        assertEquals(4, result.getTeams());
+        assertEquals(1, result.getGamesAdded());
+        assertEquals(1, result.getGamesUpdated());
+        assertEquals(1, result.getGamesUnchanged());
+        verify(teamService).refresh();
+        verify(weekScheduleCache).invalidateAll();
+
+        // Teams are de-duplicated before the upsert.
+        ArgumentCaptor<Collection> teams = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<List> games = ArgumentCaptor.forClass(List.class);
+        verify(scheduleBulkRepository).upsertSchedule(teams.capture(), games.capture());
+        assertEquals(4, teams.getValue().size());
+        assertEquals(3, games.getValue().size());
+
+        Game upserted = ((List<Game>) games.getValue()).stream().filter(game -> game.getExternalId() == 1002).findFirst().get();
+        assertEquals("Postponed", upserted.getScheduleStatus());
+        assertEquals("Weather", upserted.getDelayedOrPostponedReason());
+
+        ArgumentCaptor<GameEvent> events = ArgumentCaptor.forClass(GameEvent.class);
+        verify(gameEventService, times(3)).publish(events.capture());
+
+        GameAdded added = (GameAdded) events.getAllValues().stream().filter(event -> event instanceof GameAdded).findFirst().get();
+        assertEquals(1L, (long) added.getGameId());
+
+        long previousEpoch = ScheduleUtil.getUtcGameTime(getEntry(1002, 1, 52, 53, "2018-09-09", "4:25PM"));
+        GameRescheduled rescheduled = (GameRescheduled) events.getAllValues().stream().filter(event -> event instanceof GameRescheduled).findFirst().get();
+        assertEquals(2L, (long) rescheduled.getGameId());
+        assertEquals(Long.valueOf(previousEpoch), rescheduled.getPreviousGameTimeEpoch());
+
+        GameChanged changed = (GameChanged) events.getAllValues().stream().filter(event -> event instanceof GameChanged).findFirst().get();
+        assertEquals(2L, (long) changed.getGameId());
+        assertEquals(EnumSet.of(GameChanged.Field.SCHEDULE_STATUS, GameChanged.Field.POSTPONED_REASON), changed.getFields());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUnchangedTeamsKeepCache() {
+        List<GameEntry> entries = Collections.singletonList(getEntry(1001, 1, 50, 51, "2018-09-06", "8:20PM"));
+
+        when(mySportsFeedsService.streamSeasonSchedule(eq(2018), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<GameEntry> consumer = (Consumer<GameEntry>) invocation.getArguments()[1];
+            entries.forEach(consumer);
+            return entries.size();
+        });
+
+        Map<Integer, Game> existing = new HashMap<>();
+        existing.put(1001, new Game());
+
+        when(scheduleBulkRepository.upsertSchedule(anyCollection(), anyListOf(Game.class)))
+            .thenReturn(new ScheduleBulkRepository.ScheduleUpsert(2, Collections.emptySet(), existing, Collections.emptyMap()));
+
+        ScheduleImportResult result = scheduleImportService.importSeason(2018);
+
+        assertEquals(1, result.getGamesUnchanged());
+        verifyZeroInteractions(teamService, weekScheduleCache, gameEventService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEmptySchedule() {
+        when(mySportsFeedsService.streamSeasonSchedule(eq(2018), any(Consumer.class))).thenReturn(0);
+
+        ScheduleImportResult result = scheduleImportService.importSeason(2018);
+
+        assertEquals(0, result.getGamesRead());
+        verifyZeroInteractions(scheduleBulkRepository, gameEventService);
+    }
+
+    private GameEntry getEntry(int id, int week, int awayTeamId, int homeTeamId, String date, String time) {
+        GameEntry entry = new GameEntry();
+        entry.setIdForSchedule(id);
+        entry.setWeek(week);
+        entry.setDate(date);
+        entry.setTime(time);
+        entry.setAwayTeam(getTeam(awayTeamId));
+        entry.setHomeTeam(getTeam(homeTeamId));
+
+        return entry;
+    }
+
+    private Team getTeam(int id) {
+        Team team = new Team();
+        team.setId(id);
+        team.setCity(String.format("City %d", id));
+        team.setName(String.format("Team %d", id));
+        team.setAbbreviation(String.format("T%d", id));
+
+        return team;
+    }
+}
@@ -0,0 +1,308 @@
+package com.gci.pickem.service.schedule;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.model.GamesList;
+import com.gci.pickem.model.mysportsfeeds.FullGameSchedule;
+import com.gci.pickem.model.mysportsfeeds.GameEntry;
+import com.gci.pickem.model.mysportsfeeds.GameScore;
+import com.gci.pickem.model.mysportsfeeds.Scoreboard;
+import com.gci.pickem.model.mysportsfeeds.Team;
+import com.gci.pickem.service.game.GamesService;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsBackoffException;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsPriority;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsService;
+import com.gci.pickem.service.mysportsfeeds.MySportsFeedsUnavailableException;
+import com.gci.pickem.util.ScheduleUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"pickem.scores.live.enabled=false", "spring.jpa.properties.hibernate.generate_statistics=true"})
+public class ScheduleServiceImplITest {
+
+    @Autowired private ScheduleService scheduleService;
+    @Autowired private GamesService gamesService;
+    @Autowired private DataSource dataSource;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @MockBean private MySportsFeedsService mySportsFeedsService;
+
+    @Test
+    public void testPoolIsNotHeldDuringMySportsFeedsStall() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(mySportsFeedsService.getGamesForSeasonAndWeek(2030, 1)).thenAnswer(invocation -> {
+            stalled.countDown();
+            // Simulated five second MSF stall, cut short once the test has looked at the pool.
+            release.await(5, TimeUnit.SECONDS);
+            return getSchedule();
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<GamesList> result = executor.submit(() -> scheduleService.getGamesForSeasonAndWeek(2030, 1));
+
+            assertTrue(stalled.await(5, TimeUnit.SECONDS));
+            assertEquals(0, ((org.apache.tomcat.jdbc.pool.DataSource) dataSource).getActive());
+
+            release.countDown();
+            assertEquals(2, result.get(10, TimeUnit.SECONDS).getGames().size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Collection<Game> saved = gamesService.findAllBySeasonAndWeek(2030, 1);
+        assertEquals(2, saved.size());
+        saved.forEach(game -> assertNotNull(game.getGameId()));
+    }
+
+    @Test
+    public void testUserLoadRetriesPrefetchRefusal() throws Exception {
+        CountDownLatch prefetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        FullGameSchedule schedule = new FullGameSchedule();
+        schedule.setGameEntries(Collections.singletonList(
+            getEntry(980001, 1, "2033-09-11", "1:00PM", getTeam(98001, "QQQ"), getTeam(98002, "RRR"))));
+
+        // The budget has room for user loads but not prefetches.
+        List<MySportsFeedsPriority> priorities = new CopyOnWriteArrayList<>();
+        when(mySportsFeedsService.getGamesForSeasonAndWeek(2033, 1)).thenAnswer(invocation -> {
+            MySportsFeedsPriority priority = MySportsFeedsPriority.current();
+            priorities.add(priority);
+            if (priority == MySportsFeedsPriority.PREFETCH) {
+                prefetching.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                throw new MySportsFeedsBackoffException("Over budget", new MySportsFeedsUnavailableException("Over budget"));
+            }
+
+            return schedule;
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<GamesList> prefetch = executor.submit(() -> {
+                try (MySportsFeedsPriority.Scope ignored = MySportsFeedsPriority.PREFETCH.enter()) {
+                    return scheduleService.getGamesForSeasonAndWeek(2033, 1);
+                }
+            });
+            assertTrue(prefetching.await(5, TimeUnit.SECONDS));
+
+            // The user's request waits on the prefetch, which is then refused.
+            FutureTask<GamesList> user = new FutureTask<>(() -> scheduleService.getGamesForSeasonAndWeek(2033, 1));
+            Thread userThread = new Thread(user);
+            userThread.start();
+            for (int i = 0; i < 500 && userThread.getState() != Thread.State.WAITING; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(Thread.State.WAITING, userThread.getState());
+
+            release.countDown();
+            try {
+                prefetch.get(5, TimeUnit.SECONDS);
+                fail("Expected the prefetch to be refused");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof MySportsFeedsBackoffException);
+            }
+
+            assertEquals(1, user.get(5, TimeUnit.SECONDS).getGames().size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(Arrays.asList(MySportsFeedsPriority.PREFETCH, MySportsFeedsPriority.USER_SCHEDULE), priorities);
+    }
+
+    @Test
+    public void testUpcomingWeeksArePrefetched() {
+        // Tomorrow, so these are the next games whatever else is in the database. Both weeks share the date so they
+        // can't fall in different seasons.
+        LocalDate tomorrow = LocalDate.now(ZoneId.of("America/New_York")).plusDays(1);
+        int season = ScheduleUtil.getSeasonForDate(tomorrow.atStartOfDay(ZoneId.of("America/New_York")).toInstant());
+
+        FullGameSchedule nextDays = new FullGameSchedule();
+        nextDays.setGameEntries(Collections.singletonList(
+            getEntry(940001, 1, tomorrow.toString(), "1:00PM", getTeam(94001, "EEE"), getTeam(94002, "FFF"))));
+
+        FullGameSchedule weekTwo = new FullGameSchedule();
+        weekTwo.setGameEntries(Collections.singletonList(
+            getEntry(940002, 2, tomorrow.toString(), "4:25PM", getTeam(94002, "FFF"), getTeam(94001, "EEE"))));
+
+        when(mySportsFeedsService.getGamesUntilDaysFromNow(7)).thenReturn(nextDays);
+        when(mySportsFeedsService.getGamesForSeasonAndWeek(season, 2)).thenReturn(weekTwo);
+
+        scheduleService.processExternalGamesForNextDays(7);
+        assertEquals(2, scheduleService.prefetchUpcomingWeeks(2));
+        assertEquals(1, gamesService.findAllBySeasonAndWeek(season, 2).size());
+
+        // Week one came in with the next-days pull, only week two needed fetching. A second run fetches nothing.
+        assertEquals(2, scheduleService.prefetchUpcomingWeeks(2));
+        assertEquals(2, scheduleService.warmUpcomingWeeks(2));
+        verify(mySportsFeedsService, never()).getGamesForSeasonAndWeek(season, 1);
+        verify(mySportsFeedsService, times(1)).getGamesForSeasonAndWeek(season, 2);
+    }
+
+    @Test
+    public void testUnchangedWindowWritesNothing() {
+        // Week three and in the evening, so these never become the next game for the prefetch test.
+        String tomorrow = LocalDate.now(ZoneId.of("America/New_York")).plusDays(1).toString();
+
+        FullGameSchedule nextDays = new FullGameSchedule();
+        nextDays.setGameEntries(Arrays.asList(
+            getEntry(950001, 3, tomorrow, "8:20PM", getTeam(95001, "GGG"), getTeam(95002, "HHH")),
+            getEntry(950002, 3, tomorrow, "8:30PM", getTeam(95003, "III"), getTeam(95004, "JJJ"))));
+
+        when(mySportsFeedsService.getGamesUntilDaysFromNow(7)).thenReturn(nextDays);
+        scheduleService.processExternalGamesForNextDays(7);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        scheduleService.processExternalGamesForNextDays(7);
+        assertEquals(0, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+
+        // Only the postponed game is written.
+        nextDays.getGameEntries().get(1).setScheduleStatus("Postponed");
+        nextDays.getGameEntries().get(1).setDelayedOrPostponedReason("Weather");
+
+        scheduleService.processExternalGamesForNextDays(7);
+        assertEquals(0, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals("Postponed", gamesService.findByExternalId(950002).getScheduleStatus());
+    }
+
+    @Test
+    public void testOverlappingScoreboardsRecordEachGameOnce() {
+        FullGameSchedule schedule = new FullGameSchedule();
+        schedule.setGameEntries(Arrays.asList(
+            getEntry(960001, 1, "2031-09-07", "8:20PM", getTeam(96001, "KKK"), getTeam(96002, "LLL")),
+            getEntry(960002, 1, "2031-09-08", "8:30PM", getTeam(96003, "MMM"), getTeam(96004, "NNN"))));
+
+        when(mySportsFeedsService.getGamesForSeasonAndWeek(2031, 1)).thenReturn(schedule);
+        scheduleService.getGamesForSeasonAndWeek(2031, 1);
+
+        // The late game on the 7th is on both dates' scoreboards.
+        LocalDate sunday = LocalDate.of(2031, 9, 7);
+        LocalDate monday = LocalDate.of(2031, 9, 8);
+
+        Scoreboard sundayScores = getScoreboard(getScore(schedule.getGameEntries().get(0), 10, 24));
+        Scoreboard mondayScores =
+            getScoreboard(getScore(schedule.getGameEntries().get(0), 10, 24), getScore(schedule.getGameEntries().get(1), 17, 13));
+
+        when(mySportsFeedsService.fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(sunday), MySportsFeedsPriority.FINAL_SCORES)).thenReturn(sundayScores);
+        when(mySportsFeedsService.fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(monday), MySportsFeedsPriority.FINAL_SCORES)).thenReturn(mondayScores);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<LocalDate, Scoreboard> scoreboards = new LinkedHashMap<>();
+        scoreboards.put(sunday, sundayScores);
+        scoreboards.put(monday, mondayScores);
+
+        List<Game> completed = scheduleService.recordFinalScores(scoreboards);
+        assertEquals(2, completed.size());
+        assertEquals(2, statistics.getEntityUpdateCount());
+
+        Game sundayGame = gamesService.findByExternalId(960001);
+        assertTrue(sundayGame.getGameComplete());
+        assertEquals(sundayGame.getHomeTeamId(), sundayGame.getWinningTeamId());
+
+        Game mondayGame = gamesService.findByExternalId(960002);
+        assertTrue(mondayGame.getGameComplete());
+        assertEquals(mondayGame.getAwayTeamId(), mondayGame.getWinningTeamId());
+
+        // Repeated dates are fetched once each, past the cache, and games that already have a winner aren't written again.
+        scheduleService.processScoresForDates(Arrays.asList(monday, sunday, monday));
+        verify(mySportsFeedsService, times(1)).fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(sunday), MySportsFeedsPriority.FINAL_SCORES);
+        verify(mySportsFeedsService, times(1)).fetchFinalGameScores(ScheduleUtil.getScoreboardInstant(monday), MySportsFeedsPriority.FINAL_SCORES);
+        verify(mySportsFeedsService, never()).getFinalGameScores(any());
+        assertEquals(2, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    public void testTiedGameIsComplete() {
+        FullGameSchedule schedule = new FullGameSchedule();
+        schedule.setGameEntries(Collections.singletonList(
+            getEntry(970001, 1, "2032-09-12", "1:00PM", getTeam(97001, "OOO"), getTeam(97002, "PPP"))));
+
+        when(mySportsFeedsService.getGamesForSeasonAndWeek(2032, 1)).thenReturn(schedule);
+        scheduleService.getGamesForSeasonAndWeek(2032, 1);
+
+        LocalDate sunday = LocalDate.of(2032, 9, 12);
+        Map<LocalDate, Scoreboard> scoreboards = new LinkedHashMap<>();
+        scoreboards.put(sunday, getScoreboard(getScore(schedule.getGameEntries().get(0), 20, 20)));
+
+        assertEquals(1, scheduleService.recordFinalScores(scoreboards).size());
+
+        Game tied = gamesService.findByExternalId(970001);
+        assertTrue(tied.getGameComplete());
+        assertNull(tied.getWinningTeamId());
+
+        // No longer incomplete, so nothing polls or sweeps for it again, and a second scoreboard doesn't rewrite it.
+        long start = sunday.atStartOfDay(ZoneId.of("America/New_York")).toInstant().toEpochMilli();
+        assertTrue(gamesService.findIncompleteGamesBetween(start, start + 24 * 3600000L).isEmpty());
+        assertTrue(scheduleService.recordFinalScores(scoreboards).isEmpty());
+    }
+
+    private FullGameSchedule getSchedule() {
+        FullGameSchedule schedule = new FullGameSchedule();
+        schedule.setGameEntries(Arrays.asList(
+            getEntry(930001, 1, "2030-09-08", "1:00PM", getTeam(93001, "AAA"), getTeam(93002, "BBB")),
+            getEntry(930002, 1, "2030-09-08", "4:25PM", getTeam(93003, "CCC"), getTeam(93004, "DDD"))));
+
+        return schedule;
+    }
+
+    private Scoreboard getScoreboard(GameScore... scores) {
+        Scoreboard scoreboard = new Scoreboard();
+        scoreboard.setGameScores(Arrays.asList(scores));
+        return scoreboard;
+    }
+
+    private GameScore getScore(GameEntry entry, int away, int home) {
+        GameScore score = new GameScore();
+        score.setGame(entry);
+        score.setIsCompleted("true");
+        score.setAwayScore(away);
+        score.setHomeScore(home);
+        return score;
+    }
+
+    private GameEntry getEntry(int id, int week, String date, String time, Team away, Team home) {
+        GameEntry entry = new GameEntry();
+        entry.setIdForSchedule(id);
+        entry.setWeek(week);
+        entry.setDate(date);
+        entry.setTime(time);
+        entry.setAwayTeam(away);
+        entry.setHomeTeam(home);
+        return entry;
+    }
+
+    private Team getTeam(int id, String abbreviation) {
+        Team team = new Team();
+        team.setId(id);
+        team.setCity(abbreviation + " City");
+        team.setName(abbreviation + " Team");
+        team.setAbbreviation(abbreviation);
+        return team;
+    }
+}
@@ -0,0 +1,95 @@
+package com.gci.pickem.service.schedule;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.model.ScorePollPlan;
+import com.gci.pickem.service.game.GamesService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScorePollPlannerTest {
+
+    @Mock private GamesService gamesService;
+
+    private ScorePollPlanner planner;
+
+    @Before
+    public void setup() {
+        planner = new ScorePollPlanner(gamesService, 30, 150, 8);
+    }
+
+    @Test
+    public void testNothingScheduled() {
+        when(gamesService.findIncompleteGamesBetween(anyLong(), anyLong())).thenReturn(Collections.emptyList());
+
+        ScorePollPlan plan = planner.plan(epoch(2019, 2, 13, 12, 0));
+
+        assertNull(plan.getNextPollTime());
+        assertTrue(plan.getDates().isEmpty());
+    }
+
+    @Test
+    public void testWaitsForNextKickoff() {
+        long now = epoch(2018, 9, 5, 12, 0);
+        long kickoff = epoch(2018, 9, 6, 20, 20);
+
+        when(gamesService.findIncompleteGamesBetween(anyLong(), anyLong())).thenReturn(Collections.emptyList());
+        when(gamesService.findNextGameAfter(now)).thenReturn(getGame(kickoff));
+
+        ScorePollPlan plan = planner.plan(now);
+
+        assertEquals(kickoff + TimeUnit.MINUTES.toMillis(150), (long) plan.getNextPollTime());
+        assertTrue(plan.getDates().isEmpty());
+    }
+
+    @Test
+    public void testWaitsForInProgressGameToNearCompletion() {
+        long kickoff = epoch(2018, 9, 9, 13, 0);
+        long now = kickoff + TimeUnit.MINUTES.toMillis(30);
+
+        when(gamesService.findIncompleteGamesBetween(anyLong(), anyLong())).thenReturn(Collections.singletonList(getGame(kickoff)));
+
+        ScorePollPlan plan = planner.plan(now);
+
+        assertEquals(kickoff + TimeUnit.MINUTES.toMillis(150), (long) plan.getNextPollTime());
+        assertTrue(plan.getDates().isEmpty());
+    }
+
+    @Test
+    public void testPollsOftenWhileGamesFinish() {
+        // Monday night game that's still going after midnight is filed under Monday.
+        long mondayNight = epoch(2018, 9, 10, 22, 15);
+        long now = epoch(2018, 9, 11, 1, 0);
+
+        when(gamesService.findIncompleteGamesBetween(anyLong(), anyLong())).thenReturn(Arrays.asList(getGame(mondayNight)));
+
+        ScorePollPlan plan = planner.plan(now);
+
+        assertEquals(now + TimeUnit.SECONDS.toMillis(30), (long) plan.getNextPollTime());
+        assertEquals(Collections.singletonList(LocalDate.of(2018, 9, 10)), plan.getDates());
+    }
+
+    private long epoch(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).atZone(ZoneId.of("America/New_York")).toInstant().toEpochMilli();
+    }
+
+    private Game getGame(long kickoff) {
+        Game game = new Game();
+        game.setGameTimeEpoch(kickoff);
+        return game;
+    }
+}
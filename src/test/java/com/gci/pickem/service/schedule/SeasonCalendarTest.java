@@ -0,0 +1,233 @@
+package com.gci.pickem.service.schedule;
+
+import com.gci.pickem.data.Game;
+import com.gci.pickem.model.SeasonWeek;
+import com.gci.pickem.repository.GameRepository;
+import com.gci.pickem.service.event.GameAdded;
+import com.gci.pickem.service.event.GameCompleted;
+import com.gci.pickem.service.event.GameEventService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SeasonCalendarTest {
+
+    private static final long HOUR = 3600000L;
+    private static final long DAY = 24 * HOUR;
+
+    @Mock private GameRepository gameRepository;
+    @Mock private GameEventService gameEventService;
+    @Mock private TaskScheduler taskScheduler;
+
+    private SeasonCalendar calendar;
+    private List<Object[]> rows;
+
+    @Before
+    public void setup() {
+        // Week one: Thursday, two on Sunday, Monday. Week two a week later.
+        rows = new ArrayList<>(Arrays.asList(
+            row(2017, 1, 0),
+            row(2017, 1, 3 * DAY),
+            row(2017, 1, 3 * DAY),
+            row(2017, 1, 4 * DAY),
+            row(2017, 2, 7 * DAY),
+            row(2017, 2, 10 * DAY)));
+
+        when(gameRepository.findAllKickoffs()).thenAnswer(invocation -> rows);
+
+        calendar = new SeasonCalendar(gameRepository, gameEventService, taskScheduler);
+    }
+
+    @Test
+    public void testWeekAt() {
+        assertWeek(2017, 1, 4, calendar.getWeekAt(-DAY));
+        assertWeek(2017, 1, 4, calendar.getWeekAt(0));
+        assertWeek(2017, 1, 4, calendar.getWeekAt(4 * DAY));
+
+        // Once week one's last game has kicked off it's week two.
+        assertWeek(2017, 2, 2, calendar.getWeekAt(4 * DAY + 1));
+        assertWeek(2017, 2, 2, calendar.getWeekAt(10 * DAY));
+
+        assertNull(calendar.getWeekAt(10 * DAY + 1));
+
+        SeasonWeek week = calendar.getWeekAt(DAY);
+        assertEquals(0, week.getFirstKickoff());
+        assertEquals(4 * DAY, week.getLastKickoff());
+    }
+
+    @Test
+    public void testNextKickoff() {
+        assertEquals(Long.valueOf(0), calendar.getNextKickoff(-1));
+        assertEquals(Long.valueOf(3 * DAY), calendar.getNextKickoff(0));
+        assertEquals(Long.valueOf(4 * DAY), calendar.getNextKickoff(3 * DAY));
+        assertEquals(Long.valueOf(7 * DAY), calendar.getNextKickoff(5 * DAY));
+        assertNull(calendar.getNextKickoff(10 * DAY));
+    }
+
+    @Test
+    public void testKickoffBetween() {
+        assertTrue(calendar.hasKickoffBetween(3 * DAY - HOUR, 3 * DAY + HOUR));
+        assertTrue(calendar.hasKickoffBetween(10 * DAY, 11 * DAY));
+        assertFalse(calendar.hasKickoffBetween(DAY, 2 * DAY));
+        assertFalse(calendar.hasKickoffBetween(11 * DAY, 12 * DAY));
+    }
+
+    @Test
+    public void testRebuiltOnlyAfterScheduleChanges() {
+        assertWeek(2017, 2, 2, calendar.getWeekAt(5 * DAY));
+
+        rows.add(row(2017, 3, 14 * DAY));
+
+        // Completed games don't change the calendar.
+        calendar.onGameEvent(new GameCompleted(getGame(2017, 2)));
+        assertNull(calendar.getWeekAt(11 * DAY));
+        verify(gameRepository, times(1)).findAllKickoffs();
+        verifyZeroInteractions(taskScheduler);
+
+        // A burst of changes is one rebuild, and until it runs readers get the previous calendar.
+        calendar.onGameEvent(new GameAdded(getGame(2017, 3)));
+        calendar.onGameEvent(new GameAdded(getGame(2017, 3)));
+        assertNull(calendar.getWeekAt(11 * DAY));
+        verify(gameRepository, times(1)).findAllKickoffs();
+
+        runScheduledRebuild(1);
+        assertWeek(2017, 3, 1, calendar.getWeekAt(11 * DAY));
+        assertWeek(2017, 3, 1, calendar.getWeekAt(12 * DAY));
+        verify(gameRepository, times(2)).findAllKickoffs();
+    }
+
+    @Test
+    public void testReadersWaitForFirstBuild() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(gameRepository.findAllKickoffs()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return rows;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<SeasonWeek> first = executor.submit(() -> calendar.getWeekAt(0));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // There's nothing to serve yet, so the second reader can't come back empty-handed.
+            Future<SeasonWeek> second = executor.submit(() -> calendar.getWeekAt(0));
+            try {
+                second.get(200, TimeUnit.MILLISECONDS);
+                fail("Expected the second reader to wait for the first build");
+            } catch (TimeoutException e) {
+                // Still waiting.
+            }
+
+            release.countDown();
+            assertWeek(2017, 1, 4, first.get(5, TimeUnit.SECONDS));
+            assertWeek(2017, 1, 4, second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(gameRepository, times(1)).findAllKickoffs();
+    }
+
+    @Test
+    public void testFailedRebuildServesPreviousCalendar() {
+        assertWeek(2017, 2, 2, calendar.getWeekAt(5 * DAY));
+
+        when(gameRepository.findAllKickoffs()).thenThrow(new RuntimeException("Connection refused"));
+        calendar.onGameEvent(new GameAdded(getGame(2017, 3)));
+        runScheduledRebuild(1);
+
+        assertWeek(2017, 2, 2, calendar.getWeekAt(5 * DAY));
+        assertEquals(Long.valueOf(7 * DAY), calendar.getNextKickoff(5 * DAY));
+        verify(gameRepository, times(2)).findAllKickoffs();
+
+        // Retried later, not by the readers.
+        doReturn(rows).when(gameRepository).findAllKickoffs();
+        rows.add(row(2017, 3, 14 * DAY));
+        runScheduledRebuild(2);
+        assertWeek(2017, 3, 1, calendar.getWeekAt(11 * DAY));
+    }
+
+    @Test
+    public void testPostponedGameIntoNextWeek() {
+        // One of week one's games was moved past the end of week two.
+        rows = new ArrayList<>(Arrays.asList(
+            row(2017, 1, 0),
+            row(2017, 1, 4 * DAY),
+            row(2017, 2, 7 * DAY),
+            row(2017, 2, 8 * DAY),
+            row(2017, 2, 10 * DAY),
+            row(2017, 1, 12 * DAY),
+            row(2017, 3, 14 * DAY)));
+
+        assertWeek(2017, 1, 3, calendar.getWeekAt(5 * DAY));
+
+        // Week two took over when it started, even though week one still has a game to play.
+        assertWeek(2017, 2, 3, calendar.getWeekAt(7 * DAY));
+        assertWeek(2017, 2, 3, calendar.getWeekAt(9 * DAY));
+
+        // Once week two is over it's week three next, not week one again.
+        assertWeek(2017, 3, 1, calendar.getWeekAt(11 * DAY));
+
+        SeasonWeek week = calendar.getWeekAt(DAY);
+        assertEquals(12 * DAY, week.getLastKickoff());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testFailedFirstBuildThrows() {
+        when(gameRepository.findAllKickoffs()).thenThrow(new RuntimeException("Connection refused"));
+
+        calendar.getWeekAt(0);
+    }
+
+    @Test
+    public void testEmptyCalendar() {
+        rows.clear();
+
+        assertNull(calendar.getWeekAt(0));
+        assertNull(calendar.getNextKickoff(0));
+        assertFalse(calendar.hasKickoffBetween(0, DAY));
+    }
+
+    private void runScheduledRebuild(int scheduled) {
+        ArgumentCaptor<Runnable> rebuild = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(scheduled)).schedule(rebuild.capture(), any(Date.class));
+        rebuild.getValue().run();
+    }
+
+    private void assertWeek(int season, int week, int games, SeasonWeek actual) {
+        assertNotNull(actual);
+        assertEquals(season, actual.getSeason());
+        assertEquals(week, actual.getWeek());
+        assertEquals(games, actual.getGameCount());
+    }
+
+    private Object[] row(int season, int week, long kickoff) {
+        return new Object[] { season, week, kickoff };
+    }
+
+    private Game getGame(int season, int week) {
+        Game game = new Game();
+        game.setGameId(1L);
+        game.setSeason(season);
+        game.setWeek(week);
+        game.setGameTimeEpoch(14 * DAY);
+        return game;
+    }
+}
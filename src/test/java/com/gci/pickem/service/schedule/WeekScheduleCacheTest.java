@@ -0,0 +1,125 @@
+package com.gci.pickem.service.schedule;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gci.pickem.data.Game;
+import com.gci.pickem.model.CacheStatsView;
+import com.gci.pickem.model.GamesList;
+import com.gci.pickem.service.event.GameCompleted;
+import com.gci.pickem.service.event.GameEventService;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WeekScheduleCacheTest {
+
+    @Mock private GameEventService gameEventService;
+
+    private WeekScheduleCache cache;
+    private AtomicInteger loads;
+
+    @Before
+    public void setup() {
+        cache = new WeekScheduleCache(gameEventService, new ObjectMapper(), 10, 60);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testWeekIsBuiltOnce() {
+        GamesList first = cache.get(2018, 1, this::load);
+        GamesList second = cache.get(2018, 1, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+
+        cache.get(2018, 2, this::load);
+        assertEquals(2, loads.get());
+
+        CacheStatsView stats = cache.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    public void testGameEventDropsOnlyItsWeek() {
+        cache.get(2018, 1, this::load);
+        cache.get(2018, 2, this::load);
+
+        cache.onGameEvent(new GameCompleted(getGame(2018, 2)));
+
+        cache.get(2018, 1, this::load);
+        cache.get(2018, 2, this::load);
+
+        assertEquals(3, loads.get());
+        assertEquals(1, cache.getStats().getInvalidations());
+    }
+
+    @Test
+    public void testEmptyWeekIsNotCached() {
+        cache.get(2018, 1, GamesList::new);
+        cache.get(2018, 1, this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testLoadRacingInvalidationIsNotCached() {
+        cache.get(2018, 1, () -> {
+            // The week changes while it's being built.
+            cache.invalidate(2018, 1);
+            return load();
+        });
+
+        cache.get(2018, 1, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testSerializedOnceWithStableEtag() throws IOException {
+        SerializedWeekSchedule first = cache.getSerialized(2018, 1, this::load);
+        SerializedWeekSchedule second = cache.getSerialized(2018, 1, this::load);
+
+        assertSame(first.getJson(), second.getJson());
+        assertTrue(first.getEtag().startsWith("\""));
+
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(first.getGzippedJson()))) {
+            assertArrayEquals(first.getJson(), IOUtils.toByteArray(gzip));
+        }
+
+        // Same content after an invalidation means the same ETag, so clients keep getting 304s.
+        cache.invalidate(2018, 1);
+        SerializedWeekSchedule rebuilt = cache.getSerialized(2018, 1, this::load);
+        assertNotSame(first.getJson(), rebuilt.getJson());
+        assertEquals(first.getEtag(), rebuilt.getEtag());
+    }
+
+    private GamesList load() {
+        loads.incrementAndGet();
+        return new GamesList(Collections.singletonList(new com.gci.pickem.model.Game()));
+    }
+
+    private Game getGame(int season, int week) {
+        Game game = new Game();
+        game.setGameId(1L);
+        game.setSeason(season);
+        game.setWeek(week);
+        game.setGameTimeEpoch(0L);
+        game.setWinningTeamId(1L);
+
+        return game;
+    }
+}
@@ -0,0 +1,91 @@
+package com.gci.pickem.service.team;
+
+import com.gci.pickem.data.Team;
+import com.gci.pickem.repository.TeamRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TeamServiceImplTest {
+
+    @Mock private TeamRepository teamRepository;
+
+    private TeamServiceImpl teamService;
+
+    @Before
+    public void setup() {
+        when(teamRepository.findAll()).thenReturn(Arrays.asList(getTeam(3L, 52L), getTeam(1L, 70L), getTeam(2L, 51L)));
+
+        teamService = new TeamServiceImpl(teamRepository);
+        teamService.refresh();
+    }
+
+    @Test
+    public void testLookupsDoNotHitDatabase() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Long.valueOf(70L), teamService.findById(1L).getExternalId());
+            assertEquals(Long.valueOf(3L), teamService.findByExternalId(52L).getTeamId());
+        }
+
+        assertEquals("City 51", teamService.findById(2L).getCity());
+
+        verify(teamRepository, never()).findOne(anyLong());
+        verify(teamRepository, never()).findByExternalId(anyLong());
+    }
+
+    @Test
+    public void testMissFallsBackToDatabaseOnce() {
+        when(teamRepository.findByExternalId(80L)).thenReturn(getTeam(4L, 80L));
+
+        assertEquals(Long.valueOf(4L), teamService.findByExternalId(80L).getTeamId());
+        assertEquals(Long.valueOf(4L), teamService.findByExternalId(80L).getTeamId());
+        assertEquals(Long.valueOf(80L), teamService.findById(4L).getExternalId());
+
+        verify(teamRepository, times(1)).findByExternalId(80L);
+        verify(teamRepository, never()).findOne(anyLong());
+    }
+
+    @Test
+    public void testUnknownTeam() {
+        assertNull(teamService.findById(99L));
+        assertNull(teamService.findByExternalId(99L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreatedTeamIsRegistered() {
+        when(teamRepository.save(anyCollectionOf(Team.class))).thenAnswer(invocation -> {
+            Iterable<Team> teams = (Iterable<Team>) invocation.getArguments()[0];
+            teams.forEach(team -> team.setTeamId(5L));
+            return teams;
+        });
+
+        Team team = getTeam(null, 90L);
+        teamService.createTeam(team);
+
+        assertEquals(Long.valueOf(5L), teamService.findByExternalId(90L).getTeamId());
+        assertEquals("Team 90", teamService.findById(5L).getTeamName());
+        verify(teamRepository, never()).findByExternalId(anyLong());
+    }
+
+    private Team getTeam(Long teamId, Long externalId) {
+        Team team = new Team();
+        team.setTeamId(teamId);
+        team.setExternalId(externalId);
+        team.setAbbreviation(String.format("T%d", externalId));
+        team.setCity(String.format("City %d", externalId));
+        team.setTeamName(String.format("Team %d", externalId));
+
+        return team;
+    }
+}
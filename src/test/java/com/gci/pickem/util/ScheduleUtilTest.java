@@ -3,8 +3,16 @@ package com.gci.pickem.util;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 public class ScheduleUtilTest {
 
+    private static final ZoneId EASTERN = ZoneId.of("America/New_York");
+
     @Test
     public void testGet24HourTime() {
         int asserts = 0;
@@ -65,4 +73,121 @@ public class ScheduleUtilTest {
         // Verify we actually tested all 1440 minutes in the day!
         Assert.assertEquals(1440, asserts);
     }
+
+    @Test
+    public void testGameTimeMatchesJavaTime() {
+        Random random = new Random(20171019L);
+
+        for (int i = 0; i < 50000; i++) {
+            LocalDate date = LocalDate.ofEpochDay(LocalDate.of(1960, 1, 1).toEpochDay() + random.nextInt(365 * 150));
+            String time = getMsfTime(random.nextInt(24), random.nextInt(60));
+
+            Assert.assertEquals(date + " " + time, getReferenceGameTime(date.toString(), time), ScheduleUtil.getUtcGameTime(date.toString(), time));
+        }
+    }
+
+    @Test
+    public void testGameTimeAroundDaylightSavingChanges() {
+        for (int year = 1965; year < 2110; year++) {
+            // Every minute of the days the clocks change, including the skipped and repeated hours.
+            for (LocalDate date : new LocalDate[] { getTransitionDate(year, Month.MARCH), getTransitionDate(year, Month.NOVEMBER) }) {
+                for (int minute = 0; minute < 1440; minute++) {
+                    String time = getMsfTime(minute / 60, minute % 60);
+                    Assert.assertEquals(date + " " + time, getReferenceGameTime(date.toString(), time), ScheduleUtil.getUtcGameTime(date.toString(), time));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDayPastEndOfMonth() {
+        Assert.assertEquals(getReferenceGameTime("2017-02-31", "1:00PM"), ScheduleUtil.getUtcGameTime("2017-02-31", "1:00PM"));
+        Assert.assertEquals(getReferenceGameTime("2016-02-30", "1:00PM"), ScheduleUtil.getUtcGameTime("2016-02-30", "1:00PM"));
+    }
+
+    @Test
+    public void testMalformedGameTimes() {
+        String[][] malformed = {
+            { "2017-9-10", "1:00PM" },
+            { "2017/09/10", "1:00PM" },
+            { "2017-13-10", "1:00PM" },
+            { "2017-09-32", "1:00PM" },
+            { "2017-09-10", "1:00" },
+            { "2017-09-10", "01:00PM" },
+            { "2017-09-10", "1:60PM" },
+            { "2017-09-10", "13:00PM" },
+            { "2017-09-10", "1:00pm" },
+            { "2017-09-10", null }
+        };
+
+        for (String[] gameTime : malformed) {
+            try {
+                ScheduleUtil.getUtcGameTime(gameTime[0], gameTime[1]);
+                Assert.fail(String.format("Expected %s %s to be rejected", gameTime[0], gameTime[1]));
+            } catch (RuntimeException e) {
+                // Expected.
+            }
+        }
+    }
+
+    @Test
+    public void testSeasonAndScoreboardDateMatchJavaTime() {
+        Random random = new Random(20171020L);
+
+        long from = Instant.parse("1960-01-01T00:00:00Z").getEpochSecond();
+        for (int i = 0; i < 50000; i++) {
+            long epochMilli = (from + (long) (random.nextDouble() * 150 * 365 * 86400)) * 1000 + random.nextInt(1000);
+            Instant instant = Instant.ofEpochMilli(epochMilli);
+            LocalDate expected = instant.atZone(EASTERN).toLocalDate();
+
+            Assert.assertEquals(instant.toString(), expected, ScheduleUtil.getScoreboardDate(epochMilli));
+            Assert.assertEquals(instant.toString(), expected.getMonthValue() >= 8 ? expected.getYear() : expected.getYear() - 1, ScheduleUtil.getSeasonForDate(instant));
+        }
+
+        // Midnight ET on the first of August starts a season.
+        Instant seasonStart = LocalDate.of(2017, 8, 1).atStartOfDay(EASTERN).toInstant();
+        Assert.assertEquals(2017, ScheduleUtil.getSeasonForDate(seasonStart));
+        Assert.assertEquals(2016, ScheduleUtil.getSeasonForDate(seasonStart.minusMillis(1)));
+    }
+
+    private static String getMsfTime(int hour, int minute) {
+        int clockHour = hour % 12 == 0 ? 12 : hour % 12;
+        return String.format("%d:%02d%s", clockHour, minute, hour < 12 ? "AM" : "PM");
+    }
+
+    private static LocalDate getTransitionDate(int year, Month month) {
+        ZonedDateTime start = LocalDate.of(year, month, 1).atStartOfDay(EASTERN);
+        for (int day = 0; day < month.length(Year.isLeap(year)); day++) {
+            ZonedDateTime date = start.plusDays(day);
+            if (!EASTERN.getRules().getOffset(date.toInstant()).equals(EASTERN.getRules().getOffset(date.plusDays(1).toInstant()))) {
+                return date.toLocalDate();
+            }
+        }
+
+        // No change that month (or not in those years), any day will do.
+        return start.toLocalDate();
+    }
+
+    // How game times were parsed before, kept as the reference.
+    private static long getReferenceGameTime(String date, String time) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        LocalDateTime localDateTime = LocalDateTime.from(formatter.parse(String.format("%s %s", date, getReference24HourTime(time))));
+        return ZonedDateTime.of(localDateTime, EASTERN).toInstant().toEpochMilli();
+    }
+
+    private static String getReference24HourTime(String time) {
+        Matcher m = Pattern.compile("(1?[0-9]):([0-5][0-9])([AP]M)").matcher(time);
+        if (!m.matches()) {
+            throw new RuntimeException(String.format("Unexpected game time format: %s", time));
+        }
+
+        int hour = Integer.parseInt(m.group(1));
+        if ("PM".equals(m.group(3)) && hour != 12) {
+            hour += 12;
+        } else if ("AM".equals(m.group(3)) && hour == 12) {
+            hour = 0;
+        }
+
+        return String.format("%02d:%s", hour, m.group(2));
+    }
 }
@@ -0,0 +1,113 @@
+package com.gci.pickem.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> flight.execute("2017-1", () -> {
+            started.countDown();
+            await(release);
+            return executions.incrementAndGet();
+        }));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> flight.execute("2017-1", executions::incrementAndGet)));
+        }
+
+        waitForCoalesced(flight, 5);
+        release.countDown();
+
+        assertEquals(Integer.valueOf(1), leader.get(5, TimeUnit.SECONDS));
+        for (Future<Integer> follower : followers) {
+            assertEquals(Integer.valueOf(1), follower.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(0, flight.getInFlightCount());
+    }
+
+    @Test
+    public void testFailureIsSharedAndNotRemembered() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> flight.execute("2017-1", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("MSF is down");
+        }));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Integer> follower = executor.submit(() -> flight.execute("2017-1", () -> 2));
+
+        waitForCoalesced(flight, 1);
+        release.countDown();
+
+        assertFailedWith(leader, "MSF is down");
+        assertFailedWith(follower, "MSF is down");
+
+        // The next call after a failure tries again.
+        assertEquals(Integer.valueOf(3), flight.execute("2017-1", () -> 3));
+    }
+
+    @Test
+    public void testDifferentKeysDoNotWaitOnEachOther() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+        assertEquals(Integer.valueOf(1), flight.execute("2017-1", () -> flight.execute("2017-2", () -> 1)));
+        assertEquals(0, flight.getCoalescedCount());
+    }
+
+    private void waitForCoalesced(SingleFlight<?, ?> flight, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (flight.getCoalescedCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(expected, flight.getCoalescedCount());
+    }
+
+    private void assertFailedWith(Future<Integer> future, String message) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Expected the call to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals(message, e.getCause().getMessage());
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}